@@ -0,0 +1,237 @@
+package alg.inFlowPart;
+
+import java.util.Arrays;
+
+/**
+ * Implementation of Dinic's maximum flow algorithm over flat residual graph.
+ * Arcs are stored in arrays, arc a and its reverse arc are always stored
+ * at indices a and a ^ 1.
+ * @author Lucie Roy
+ * @version 18-10-2026
+ */
+public class DinicMaxFlow {
+    /** Residual capacity considered to be zero. */
+    private static final double EPSILON = 1e-9;
+    /** Number of vertices of the network. */
+    private final int vertexCount;
+    /** Number of arcs of the network. */
+    private int arcCount = 0;
+    /** First arc going out of each vertex, -1 if there is no such arc. */
+    private final int[] heads;
+    /** Next arc going out of the same vertex, -1 if there is no such arc. */
+    private int[] next;
+    /** Vertex where arc ends. */
+    private int[] arcTargets;
+    /** Capacity of arc. */
+    private double[] capacities;
+    /** Flow through arc. */
+    private double[] flows;
+    /** Level of each vertex in level graph, -1 if vertex is not reachable. */
+    private final int[] levels;
+    /** Arc of each vertex where search continues. */
+    private final int[] currentArcs;
+    /** Queue of BFS. */
+    private final int[] queue;
+
+    /**
+     * Constructor of network with given number of vertices.
+     * @param vertexCount   Number of vertices.
+     * @param edgeCount     Expected number of edges (each edge creates two arcs).
+     */
+    public DinicMaxFlow(int vertexCount, int edgeCount) {
+        this.vertexCount = vertexCount;
+        this.heads = new int[vertexCount];
+        Arrays.fill(heads, -1);
+        int arcs = Math.max(2, 2 * edgeCount);
+        this.next = new int[arcs];
+        this.arcTargets = new int[arcs];
+        this.capacities = new double[arcs];
+        this.flows = new double[arcs];
+        this.levels = new int[vertexCount];
+        this.currentArcs = new int[vertexCount];
+        this.queue = new int[vertexCount];
+    }
+
+    /**
+     * Adds edge between two vertices.
+     * @param u                 Start vertex.
+     * @param v                 End vertex.
+     * @param capacity          Capacity from u to v.
+     * @param reverseCapacity   Capacity from v to u (same as capacity for undirected edge).
+     */
+    public void addEdge(int u, int v, double capacity, double reverseCapacity) {
+        if (arcCount + 2 > arcTargets.length) {
+            int size = arcTargets.length * 2;
+            next = Arrays.copyOf(next, size);
+            arcTargets = Arrays.copyOf(arcTargets, size);
+            capacities = Arrays.copyOf(capacities, size);
+            flows = Arrays.copyOf(flows, size);
+        }
+        addArc(u, v, capacity);
+        addArc(v, u, reverseCapacity);
+    }
+
+    /**
+     * Adds one arc.
+     * @param u         Start vertex.
+     * @param v         End vertex.
+     * @param capacity  Capacity of the arc.
+     */
+    private void addArc(int u, int v, double capacity) {
+        arcTargets[arcCount] = v;
+        capacities[arcCount] = capacity;
+        next[arcCount] = heads[u];
+        heads[u] = arcCount;
+        arcCount++;
+    }
+
+    /**
+     * Computes maximum flow between source s and sink t.
+     * @param s     source vertex.
+     * @param t     sink vertex.
+     * @return  value of maximum flow.
+     */
+    public double computeMaxFlow(int s, int t) {
+        double totalFlow = 0;
+        if (s == t) {
+            return totalFlow;
+        }
+        int[] pathArcs = new int[vertexCount];
+        while (bfs(s, t)) {
+            System.arraycopy(heads, 0, currentArcs, 0, vertexCount);
+            double flow;
+            while ((flow = sendFlow(s, t, pathArcs)) > 0) {
+                totalFlow += flow;
+            }
+        }
+        return totalFlow;
+    }
+
+    /**
+     * Breath-First Search computes levels of vertices in residual graph.
+     * @param s     source vertex.
+     * @param t     sink vertex.
+     * @return  true if flow can be sent from s to t.
+     */
+    private boolean bfs(int s, int t) {
+        Arrays.fill(levels, -1);
+        levels[s] = 0;
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = s;
+        while (head < tail) {
+            int u = queue[head++];
+            for (int a = heads[u]; a != -1; a = next[a]) {
+                int v = arcTargets[a];
+                if (levels[v] < 0 && capacities[a] - flows[a] > EPSILON) {
+                    levels[v] = levels[u] + 1;
+                    queue[tail++] = v;
+                }
+            }
+        }
+        return levels[t] >= 0;
+    }
+
+    /**
+     * Iterative DFS finding one augmenting path in level graph and sending flow through it.
+     * @param s         source vertex.
+     * @param t         sink vertex.
+     * @param pathArcs  array for arcs of the path.
+     * @return  flow sent through found path, 0 if there is no path.
+     */
+    private double sendFlow(int s, int t, int[] pathArcs) {
+        int depth = 0;
+        int u = s;
+        while (u != t) {
+            int a = currentArcs[u];
+            while (a != -1 && (levels[arcTargets[a]] != levels[u] + 1 || capacities[a] - flows[a] <= EPSILON)) {
+                a = next[a];
+            }
+            currentArcs[u] = a;
+            if (a == -1) {
+                levels[u] = -1;
+                if (depth == 0) {
+                    return 0;
+                }
+                depth--;
+                u = arcTargets[pathArcs[depth] ^ 1];
+                currentArcs[u] = next[currentArcs[u]];
+            } else {
+                pathArcs[depth++] = a;
+                u = arcTargets[a];
+            }
+        }
+        double flow = Double.MAX_VALUE;
+        for (int i = 0; i < depth; i++) {
+            int a = pathArcs[i];
+            flow = Math.min(flow, capacities[a] - flows[a]);
+        }
+        for (int i = 0; i < depth; i++) {
+            int a = pathArcs[i];
+            flows[a] += flow;
+            flows[a ^ 1] -= flow;
+        }
+        return flow;
+    }
+
+    /**
+     * Marks all not yet marked vertices reachable from given vertex in residual graph.
+     * @param start     vertex where search starts.
+     * @param marked    marked vertices, newly reached vertices are marked too.
+     * @param reached   array where newly reached vertices are stored.
+     * @return  number of newly reached vertices.
+     */
+    public int markReachable(int start, boolean[] marked, int[] reached) {
+        if (marked[start]) {
+            return 0;
+        }
+        int head = 0;
+        int tail = 0;
+        marked[start] = true;
+        reached[tail++] = start;
+        while (head < tail) {
+            int u = reached[head++];
+            for (int a = heads[u]; a != -1; a = next[a]) {
+                int v = arcTargets[a];
+                if (!marked[v] && capacities[a] - flows[a] > EPSILON) {
+                    marked[v] = true;
+                    reached[tail++] = v;
+                }
+            }
+        }
+        return tail;
+    }
+
+    /**
+     * Gets vertices from which sink t is reachable in residual graph.
+     * @param t     sink vertex.
+     * @return  array where vertices reaching the sink are marked.
+     */
+    public boolean[] getSinkSide(int t) {
+        boolean[] marked = new boolean[vertexCount];
+        int head = 0;
+        int tail = 0;
+        marked[t] = true;
+        queue[tail++] = t;
+        while (head < tail) {
+            int u = queue[head++];
+            for (int a = heads[u]; a != -1; a = next[a]) {
+                int v = arcTargets[a];
+                int reverseArc = a ^ 1;
+                if (!marked[v] && capacities[reverseArc] - flows[reverseArc] > EPSILON) {
+                    marked[v] = true;
+                    queue[tail++] = v;
+                }
+            }
+        }
+        return marked;
+    }
+
+    /**
+     * Gets number of vertices of the network.
+     * @return number of vertices.
+     */
+    public int getVertexCount() {
+        return vertexCount;
+    }
+}
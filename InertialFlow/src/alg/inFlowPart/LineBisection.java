@@ -0,0 +1,293 @@
+package alg.inFlowPart;
+
+import bp.roadnetworkpartitioning.CompactGraph;
+
+import java.util.Arrays;
+
+/**
+ * Bisection of graph components by Inertial Flow along one line direction.
+ * Order of vertices on the line is computed once, flow state is created
+ * for every bisection, so more instances can be evaluated concurrently.
+ * @author Lucie Roy
+ * @version 18-10-2026
+ */
+public class LineBisection {
+
+    /** Result of one bisection. */
+    public static class Result {
+        /** Part (0 or 1) of each vertex of the component. */
+        private final int[] sides;
+        /** Weight of the first part. */
+        private final double firstWeight;
+        /** Weight of the second part. */
+        private final double secondWeight;
+        /** Weight of the cut edges. */
+        private final double cutWeight;
+
+        /**
+         * Constructor of bisection result.
+         * @param sides         Part (0 or 1) of each vertex of the component.
+         * @param firstWeight   Weight of the first part.
+         * @param secondWeight  Weight of the second part.
+         * @param cutWeight     Weight of the cut edges.
+         */
+        private Result(int[] sides, double firstWeight, double secondWeight, double cutWeight) {
+            this.sides = sides;
+            this.firstWeight = firstWeight;
+            this.secondWeight = secondWeight;
+            this.cutWeight = cutWeight;
+        }
+
+        /**
+         * Gets part (0 or 1) of each vertex of the component.
+         * @return part of each vertex of the component.
+         */
+        public int[] getSides() {
+            return sides;
+        }
+
+        /**
+         * Gets how much the heavier part (relatively to its ideal weight) exceeds its ideal weight.
+         * @param ratio     Ideal share of the first part on weight of the component.
+         * @return  excess weight of the part, negative or zero if both parts are within ideal weight.
+         */
+        public double getExcessWeight(double ratio) {
+            double totalWeight = firstWeight + secondWeight;
+            return Math.max(firstWeight - ratio * totalWeight, secondWeight - (1 - ratio) * totalWeight);
+        }
+
+        /**
+         * Gets weight of the cut edges.
+         * @return weight of the cut edges.
+         */
+        public double getCutWeight() {
+            return cutWeight;
+        }
+    }
+
+    /** Max. value of quantized projection, projections are packed with vertex index into one long. */
+    private static final double MAX_PROJECTION_KEY = Integer.MAX_VALUE;
+    /** Number of sorted keys from which parallel sort is used. */
+    private static final int PARALLEL_SORT_THRESHOLD = 1 << 16;
+    /** Rank of each vertex of the whole graph (by dense index) in order of projections on the line. */
+    private final int[] ranks;
+    /** Balance parameter determining number of sources and sinks vertices. */
+    private final double balance;
+    /** Tolerance parameter increasing graph weight. */
+    private final double tolerance;
+
+    /**
+     * Constructor projecting all vertices onto line with given direction.
+     * @param compactGraph  Compact representation of the whole divided graph.
+     * @param dx            X-coordinate of line direction.
+     * @param dy            Y-coordinate of line direction.
+     * @param balance       Balance parameter determining number of sources and sinks vertices.
+     * @param tolerance     Tolerance parameter increasing graph weight.
+     */
+    public LineBisection(CompactGraph compactGraph, double dx, double dy, double balance, double tolerance) {
+        this.balance = balance;
+        this.tolerance = tolerance;
+        this.ranks = projectAndSortVertices(compactGraph, dx, dy);
+    }
+
+    /**
+     * Projects orthogonally vertices onto the line.
+     * Vertices are sorted by order of appearances on the line (by x-coordinate of projection,
+     * by y-coordinate for vertical line). Projection is quantized to 31 bits and packed together
+     * with the vertex index into one long, so ordering is a single primitive sort.
+     * @param compactGraph  Compact representation of the whole divided graph.
+     * @param dx            X-coordinate of line direction.
+     * @param dy            Y-coordinate of line direction.
+     * @return  rank of each vertex in line order.
+     */
+    private static int[] projectAndSortVertices(CompactGraph compactGraph, double dx, double dy) {
+        int n = compactGraph.getVertexCount();
+        double[] x = compactGraph.getXCoordinates();
+        double[] y = compactGraph.getYCoordinates();
+        if (dx < 0 || (dx == 0 && dy < 0)) {
+            dx = -dx;
+            dy = -dy;
+        }
+        double[] projections = new double[n];
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+        for (int v = 0; v < n; v++) {
+            projections[v] = x[v] * dx + y[v] * dy;
+            min = Math.min(min, projections[v]);
+            max = Math.max(max, projections[v]);
+        }
+        double scale = max > min ? MAX_PROJECTION_KEY / (max - min) : 0;
+        long[] keys = new long[n];
+        for (int v = 0; v < n; v++) {
+            keys[v] = ((long) ((projections[v] - min) * scale) << 32) | v;
+        }
+        sortKeys(keys, n);
+        int[] ranks = new int[n];
+        for (int i = 0; i < n; i++) {
+            ranks[(int) keys[i]] = i;
+        }
+        return ranks;
+    }
+
+    /**
+     * Sorts keys, parallel sort is used for large arrays.
+     * @param keys  Keys to be sorted.
+     * @param size  Number of keys at the beginning of the array to be sorted.
+     */
+    private static void sortKeys(long[] keys, int size) {
+        if (size >= PARALLEL_SORT_THRESHOLD) {
+            Arrays.parallelSort(keys, 0, size);
+        } else {
+            Arrays.sort(keys, 0, size);
+        }
+    }
+
+    /**
+     * Divides graph component into two parts.
+     * @param graph     Subgraph induced by vertices of the component.
+     * @param vertices  Dense indices of vertices of the component in the whole graph.
+     * @param ratio     Ideal share of the first part on weight of the component.
+     * @return  result of the bisection.
+     */
+    public Result bisect(CompactGraph graph, int[] vertices, double ratio) {
+        int[] component = sortByRanks(vertices);
+        int[] superNodes = new int[component.length];
+        double[] superNodeWeights = createSuperNodes(graph, component, superNodes);
+        DinicMaxFlow maxFlow = buildNetwork(graph, superNodes, superNodeWeights.length);
+        double cutWeight = maxFlow.computeMaxFlow(0, superNodeWeights.length - 1);
+        double graphValue = 0;
+        for (double superNodeWeight : superNodeWeights) {
+            graphValue += superNodeWeight;
+        }
+        boolean[] sourceSide = findBetterHalf(ratio * graphValue, maxFlow, superNodeWeights);
+        double firstWeight = 0;
+        for (int i = 0; i < superNodeWeights.length; i++) {
+            if (sourceSide[i]) {
+                firstWeight += superNodeWeights[i];
+            }
+        }
+        int[] sides = new int[component.length];
+        for (int v = 0; v < sides.length; v++) {
+            sides[v] = sourceSide[superNodes[v]] ? 0 : 1;
+        }
+        return new Result(sides, firstWeight, graphValue - firstWeight, cutWeight);
+    }
+
+    /**
+     * Sorts vertices of the component by their ranks in line order.
+     * @param vertices  Dense indices of vertices of the component in the whole graph.
+     * @return  indices of vertices of the component (in the subgraph) in line order.
+     */
+    private int[] sortByRanks(int[] vertices) {
+        long[] keys = new long[vertices.length];
+        for (int i = 0; i < vertices.length; i++) {
+            keys[i] = ((long) ranks[vertices[i]] << 32) | i;
+        }
+        sortKeys(keys, keys.length);
+        int[] component = new int[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            component[i] = (int) keys[i];
+        }
+        return component;
+    }
+
+    /**
+     * Assigns super node of the auxiliary flow network to each vertex of the component.
+     * First vertices in line order are contracted into the source (0), last ones into the sink
+     * (the last super node), every other vertex has its own super node.
+     * @param graph         Subgraph induced by vertices of the component.
+     * @param component     Indices of vertices of the subgraph in line order.
+     * @param superNodes    Array where super node of each vertex of the subgraph is stored.
+     * @return  weights of super nodes.
+     */
+    private double[] createSuperNodes(CompactGraph graph, int[] component, int[] superNodes) {
+        int size = component.length;
+        int verticesCount = (int) (balance * size);
+        int sink = size - 2 * verticesCount + 1;
+        double[] superNodeWeights = new double[sink + 1];
+        double[] vertexWeights = graph.getVertexWeights();
+        for (int i = 0; i < size; i++) {
+            int v = component[i];
+            int superNode = i < verticesCount ? 0 : (i < size - verticesCount ? i - verticesCount + 1 : sink);
+            superNodes[v] = superNode;
+            superNodeWeights[superNode] += vertexWeights[v];
+        }
+        return superNodeWeights;
+    }
+
+    /**
+     * Builds auxiliary flow network in one pass over the edges of the component.
+     * Every edge can be used in both directions with its weight as capacity.
+     * @param graph             Subgraph induced by vertices of the component.
+     * @param superNodes        Super node of each vertex of the subgraph.
+     * @param superNodesCount   Number of super nodes.
+     * @return  flow network.
+     */
+    private DinicMaxFlow buildNetwork(CompactGraph graph, int[] superNodes, int superNodesCount) {
+        int[] offsets = graph.getNeighbourOffsets();
+        int[] neighbours = graph.getNeighbours();
+        double[] weights = graph.getNeighbourWeights();
+        DinicMaxFlow maxFlow = new DinicMaxFlow(superNodesCount, 2 * superNodes.length);
+        for (int v = 0; v < superNodes.length; v++) {
+            int superNode = superNodes[v];
+            for (int i = offsets[v]; i < offsets[v + 1]; i++) {
+                int u = neighbours[i];
+                int neighbourNode = superNodes[u];
+                if (u > v && neighbourNode != superNode) {
+                    maxFlow.addEdge(superNode, neighbourNode, weights[i], weights[i]);
+                }
+            }
+        }
+        return maxFlow;
+    }
+
+    /**
+     * Finds better part with ideal weight.
+     * Source side of the minimum cut are super nodes reachable from the source in residual graph.
+     * Super nodes that can reach neither the source nor the sink are added in line order
+     * together with everything they reach in residual graph (so the cut stays minimal)
+     * while the part weight does not exceed its ideal weight plus tolerance.
+     * @param idealValue        Ideal weight of the part.
+     * @param maxFlow           Network with computed maximum flow.
+     * @param superNodeWeights  Weights of super nodes.
+     * @return  super nodes of the part with ideal weight.
+     */
+    private boolean[] findBetterHalf(double idealValue, DinicMaxFlow maxFlow, double[] superNodeWeights) {
+        int n = maxFlow.getVertexCount();
+        boolean[] sourceSide = new boolean[n];
+        boolean[] sinkSide = maxFlow.getSinkSide(n - 1);
+        int[] reached = new int[n];
+        int count = maxFlow.markReachable(0, sourceSide, reached);
+        double value1 = getValue(reached, count, superNodeWeights);
+        for (int i = 1; i < n - 1; i++) {
+            if (sourceSide[i] || sinkSide[i]) {
+                continue;
+            }
+            count = maxFlow.markReachable(i, sourceSide, reached);
+            double value2 = getValue(reached, count, superNodeWeights);
+            if (value1 + value2 > idealValue + tolerance) {
+                for (int j = 0; j < count; j++) {
+                    sourceSide[reached[j]] = false;
+                }
+                break;
+            }
+            value1 += value2;
+        }
+        return sourceSide;
+    }
+
+    /**
+     * Computes weight of given super nodes.
+     * @param reached           Array with super nodes.
+     * @param count             Number of super nodes in the array.
+     * @param superNodeWeights  Weights of super nodes.
+     * @return  weight of super nodes.
+     */
+    private double getValue(int[] reached, int count, double[] superNodeWeights) {
+        double value = 0;
+        for (int i = 0; i < count; i++) {
+            value += superNodeWeights[reached[i]];
+        }
+        return value;
+    }
+}
@@ -0,0 +1,226 @@
+package alg.metisPart;
+
+import bp.roadnetworkpartitioning.IndexedHeap;
+
+/**
+ * Fiduccia-Mattheyses refinement of bisection of one level of METIS hierarchy.
+ * Boundary vertices of each part are kept in priority queue ordered by gain
+ * (decrease of cut weight when vertex changes its part). Vertices are moved one by one,
+ * gains of neighbours are updated incrementally and after the pass moves are rolled back
+ * to the best prefix.
+ * @author Lucie Roy
+ * @version 18-10-2026
+ */
+public class FMRefinement {
+    /** Allowed part weight relatively to its ideal weight. */
+    private static final double IMBALANCE = 1.03;
+    /** Max. number of passes. */
+    private static final int MAX_PASSES = 10;
+    /** Min. number of moves without improvement after which pass ends. */
+    private static final int MIN_MOVES_WITHOUT_IMPROVEMENT = 50;
+    /** Two weights closer than this are considered equal. */
+    private static final double EPSILON = 1e-9;
+    /** Refined graph. */
+    private final MetisGraph graph;
+    /** Part (0 or 1) of each vertex. */
+    private final int[] sides;
+    /** Max. allowed weight of each part. */
+    private final double[] maxWeights = new double[2];
+    /** Weight of each part. */
+    private final double[] partWeights = new double[2];
+    /** Weight of edges of each vertex going to the same part. */
+    private final double[] internalDegrees;
+    /** Weight of edges of each vertex going to the other part. */
+    private final double[] externalDegrees;
+    /** Boundary vertices of each part, key is negative gain. */
+    private final IndexedHeap[] heaps = new IndexedHeap[2];
+    /** Vertices already moved in current pass. */
+    private final boolean[] locked;
+    /** Weight of cut edges. */
+    private double cut = 0;
+
+    /**
+     * Constructor of refinement.
+     * @param graph     Refined graph.
+     * @param sides     Part (0 or 1) of each vertex, refined in place.
+     * @param ratio     Ideal share of the first part on weight of the graph.
+     */
+    private FMRefinement(MetisGraph graph, int[] sides, double ratio) {
+        this.graph = graph;
+        this.sides = sides;
+        int n = graph.getVertexCount();
+        double total = graph.getTotalWeight();
+        double maxVertexWeight = 0;
+        for (double weight : graph.getVwgt()) {
+            maxVertexWeight = Math.max(maxVertexWeight, weight);
+        }
+        maxWeights[0] = Math.max(ratio * total * IMBALANCE, ratio * total + maxVertexWeight);
+        maxWeights[1] = Math.max((1 - ratio) * total * IMBALANCE, (1 - ratio) * total + maxVertexWeight);
+        this.internalDegrees = new double[n];
+        this.externalDegrees = new double[n];
+        this.heaps[0] = new IndexedHeap(n);
+        this.heaps[1] = new IndexedHeap(n);
+        this.locked = new boolean[n];
+    }
+
+    /**
+     * Refines bisection of the graph.
+     * @param graph     Refined graph.
+     * @param sides     Part (0 or 1) of each vertex, refined in place.
+     * @param ratio     Ideal share of the first part on weight of the graph.
+     */
+    public static void refine(MetisGraph graph, int[] sides, double ratio) {
+        FMRefinement refinement = new FMRefinement(graph, sides, ratio);
+        for (int pass = 0; pass < MAX_PASSES; pass++) {
+            if (!refinement.pass()) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * Computes part weights, degrees and cut weight.
+     */
+    private void computeDegrees() {
+        int[] xadj = graph.getXadj();
+        int[] adjncy = graph.getAdjncy();
+        double[] adjwgt = graph.getAdjwgt();
+        double[] vwgt = graph.getVwgt();
+        partWeights[0] = 0;
+        partWeights[1] = 0;
+        cut = 0;
+        for (int v = 0; v < sides.length; v++) {
+            partWeights[sides[v]] += vwgt[v];
+            internalDegrees[v] = 0;
+            externalDegrees[v] = 0;
+            for (int e = xadj[v]; e < xadj[v + 1]; e++) {
+                if (sides[adjncy[e]] == sides[v]) {
+                    internalDegrees[v] += adjwgt[e];
+                } else {
+                    externalDegrees[v] += adjwgt[e];
+                }
+            }
+            cut += externalDegrees[v];
+        }
+        cut /= 2;
+    }
+
+    /**
+     * Gets how much parts exceed their max. allowed weights.
+     * @return  excess weight, 0 if both parts are within their max. weights.
+     */
+    private double getExcess() {
+        return Math.max(0, Math.max(partWeights[0] - maxWeights[0], partWeights[1] - maxWeights[1]));
+    }
+
+    /**
+     * One pass of FM refinement.
+     * @return true if the pass improved the bisection.
+     */
+    private boolean pass() {
+        computeDegrees();
+        int n = sides.length;
+        heaps[0].clear();
+        heaps[1].clear();
+        for (int v = 0; v < n; v++) {
+            locked[v] = false;
+            if (externalDegrees[v] > 0) {
+                heaps[sides[v]].put(v, internalDegrees[v] - externalDegrees[v]);
+            }
+        }
+        double[] vwgt = graph.getVwgt();
+        int[] moves = new int[n];
+        int movesCount = 0;
+        int bestMovesCount = 0;
+        double initialCut = cut;
+        double initialExcess = getExcess();
+        double bestCut = cut;
+        double bestExcess = initialExcess;
+        int limit = Math.max(MIN_MOVES_WITHOUT_IMPROVEMENT, n / 100);
+        while (movesCount - bestMovesCount < limit) {
+            int from = pickSide(vwgt);
+            if (from < 0) {
+                break;
+            }
+            int v = heaps[from].poll();
+            move(v, vwgt);
+            moves[movesCount++] = v;
+            double excess = getExcess();
+            if (excess < bestExcess - EPSILON || (excess < bestExcess + EPSILON && cut < bestCut - EPSILON)) {
+                bestCut = cut;
+                bestExcess = excess;
+                bestMovesCount = movesCount;
+            }
+        }
+        for (int i = movesCount - 1; i >= bestMovesCount; i--) {
+            sides[moves[i]] = 1 - sides[moves[i]];
+        }
+        return bestExcess < initialExcess - EPSILON || bestCut < initialCut - EPSILON;
+    }
+
+    /**
+     * Picks part whose best boundary vertex is moved next. Move must keep the other part
+     * within its max. weight unless it reduces excess weight, the higher gain wins.
+     * @param vwgt  weights of vertices.
+     * @return  part from which vertex is moved, -1 if no move is possible.
+     */
+    private int pickSide(double[] vwgt) {
+        int best = -1;
+        for (int from = 0; from < 2; from++) {
+            if (heaps[from].isEmpty()) {
+                continue;
+            }
+            int v = heaps[from].peek();
+            int to = 1 - from;
+            boolean fits = partWeights[to] + vwgt[v] <= maxWeights[to];
+            boolean reducesExcess = partWeights[from] > maxWeights[from] && partWeights[to] + vwgt[v] < partWeights[from];
+            if (!fits && !reducesExcess) {
+                continue;
+            }
+            if (best < 0 || heaps[from].peekKey() < heaps[best].peekKey()
+                    || (heaps[from].peekKey() == heaps[best].peekKey() && partWeights[from] > partWeights[best])) {
+                best = from;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Moves vertex to the other part and updates gains of its neighbours.
+     * @param v     moved vertex.
+     * @param vwgt  weights of vertices.
+     */
+    private void move(int v, double[] vwgt) {
+        int[] xadj = graph.getXadj();
+        int[] adjncy = graph.getAdjncy();
+        double[] adjwgt = graph.getAdjwgt();
+        int from = sides[v];
+        int to = 1 - from;
+        sides[v] = to;
+        locked[v] = true;
+        partWeights[from] -= vwgt[v];
+        partWeights[to] += vwgt[v];
+        cut -= externalDegrees[v] - internalDegrees[v];
+        double degree = externalDegrees[v];
+        externalDegrees[v] = internalDegrees[v];
+        internalDegrees[v] = degree;
+        for (int e = xadj[v]; e < xadj[v + 1]; e++) {
+            int u = adjncy[e];
+            if (sides[u] == to) {
+                internalDegrees[u] += adjwgt[e];
+                externalDegrees[u] -= adjwgt[e];
+            } else {
+                internalDegrees[u] -= adjwgt[e];
+                externalDegrees[u] += adjwgt[e];
+            }
+            if (locked[u]) {
+                continue;
+            }
+            if (externalDegrees[u] > EPSILON) {
+                heaps[sides[u]].put(u, internalDegrees[u] - externalDegrees[u]);
+            } else {
+                heaps[sides[u]].remove(u);
+            }
+        }
+    }
+}
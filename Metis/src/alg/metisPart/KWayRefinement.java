@@ -0,0 +1,97 @@
+package alg.metisPart;
+
+/**
+ * Greedy k-way refinement of partition of one level of METIS hierarchy.
+ * Boundary vertices are visited one by one and each is moved to the neighbouring part
+ * with the highest gain if the move reduces cut (or balances parts) and keeps the
+ * target part within its max. weight. Parts exceeding their max. weight give up
+ * vertices even with negative gain.
+ * @author Lucie Roy
+ * @version 18-10-2026
+ */
+public class KWayRefinement {
+    /** Allowed part weight relatively to its ideal weight. */
+    private static final double IMBALANCE = 1.03;
+    /** Max. number of passes. */
+    private static final int MAX_PASSES = 10;
+    /** Gains closer to zero than this are considered zero. */
+    private static final double EPSILON = 1e-9;
+
+    /**
+     * Private constructor, class has only static methods.
+     */
+    private KWayRefinement() {
+    }
+
+    /**
+     * Refines k-way partition of the graph.
+     * @param graph         Refined graph.
+     * @param partOf        Part of each vertex, refined in place.
+     * @param partsCount    Number of parts.
+     */
+    public static void refine(MetisGraph graph, int[] partOf, int partsCount) {
+        int n = graph.getVertexCount();
+        int[] xadj = graph.getXadj();
+        int[] adjncy = graph.getAdjncy();
+        double[] adjwgt = graph.getAdjwgt();
+        double[] vwgt = graph.getVwgt();
+        double maxVertexWeight = 0;
+        double[] partWeights = new double[partsCount];
+        for (int v = 0; v < n; v++) {
+            partWeights[partOf[v]] += vwgt[v];
+            maxVertexWeight = Math.max(maxVertexWeight, vwgt[v]);
+        }
+        double target = graph.getTotalWeight() / partsCount;
+        double maxWeight = Math.max(target * IMBALANCE, target + maxVertexWeight);
+        double[] connections = new double[partsCount];
+        int[] touched = new int[partsCount];
+        for (int pass = 0; pass < MAX_PASSES; pass++) {
+            int moves = 0;
+            for (int v = 0; v < n; v++) {
+                int from = partOf[v];
+                int touchedCount = 0;
+                boolean boundary = false;
+                for (int e = xadj[v]; e < xadj[v + 1]; e++) {
+                    int part = partOf[adjncy[e]];
+                    if (part != from) {
+                        boundary = true;
+                    }
+                    if (connections[part] == 0) {
+                        touched[touchedCount++] = part;
+                    }
+                    connections[part] += adjwgt[e];
+                }
+                if (boundary) {
+                    boolean overweight = partWeights[from] > maxWeight;
+                    int to = -1;
+                    double bestGain = Double.NEGATIVE_INFINITY;
+                    for (int i = 0; i < touchedCount; i++) {
+                        int part = touched[i];
+                        if (part == from || partWeights[part] + vwgt[v] > maxWeight) {
+                            continue;
+                        }
+                        double gain = connections[part] - connections[from];
+                        boolean improves = gain > EPSILON
+                                || (gain > -EPSILON && partWeights[part] + vwgt[v] < partWeights[from]);
+                        if ((improves || overweight) && gain > bestGain) {
+                            bestGain = gain;
+                            to = part;
+                        }
+                    }
+                    if (to >= 0) {
+                        partOf[v] = to;
+                        partWeights[from] -= vwgt[v];
+                        partWeights[to] += vwgt[v];
+                        moves++;
+                    }
+                }
+                for (int i = 0; i < touchedCount; i++) {
+                    connections[touched[i]] = 0;
+                }
+            }
+            if (moves == 0) {
+                break;
+            }
+        }
+    }
+}
@@ -3,6 +3,7 @@ package alg.metisPart;
 import bp.roadnetworkpartitioning.*;
 
 import java.util.*;
+import java.util.concurrent.ForkJoinTask;
 
 /**
  * Class with METIS algorithm implementation.
@@ -11,552 +12,360 @@ import java.util.*;
  */
 public class MetisAlgorithm extends APartitionAlgorithm {
 
+    /** Default max. number of vertices of the coarsest graph. */
+    private static final int DEFAULT_COARSEST_SIZE = 100;
+    /** Coarsening stops when one level keeps more than this share of vertices. */
+    private static final double MIN_COARSENING_RATIO = 0.95;
+    /** Default number of attempts of initial partitioning. */
+    private static final int DEFAULT_ATTEMPTS = 4;
+    /** Default seed of random generators of initial partitioning. */
+    private static final long DEFAULT_SEED = 0;
+    /** Min. number of vertices of the coarsest graph per part in k-way mode. */
+    private static final int K_WAY_VERTICES_PER_PART = 20;
+    /** Max. number of vertices of the coarsest graph. */
+    private int coarsestSize = DEFAULT_COARSEST_SIZE;
+    /** True if graph is partitioned directly into k parts, false for recursive bisection. */
+    private boolean kWay = false;
+    /** Number of attempts of initial partitioning. */
+    private int attempts = DEFAULT_ATTEMPTS;
+    /** Seed of random generator of the first attempt of initial partitioning. */
+    private long seed = DEFAULT_SEED;
+
     @Override
     protected GraphPartition createGraphPartition() {
         GraphPartition graphPartition = null;
         if (getGraph() != null) {
-            List<Graph> graphComponents = new ArrayList<>();
-            graphPartition = new GraphPartition(graphComponents);
-            graphComponents.add(getGraph());
-            while(graphComponents.size() < getPartsCount()) {
-                Set<MetisVertex> coarsenGraph = coarsenGraph(graphComponents.get(0));
-                List<Set<MetisVertex>> graphParts = partitionGraph(coarsenGraph);
-                List<Graph> graphs = uncoarsenGraph(graphParts);
-                graphComponents.remove(0);
-                graphComponents.addAll(graphs);
-            }
+            readParameters();
+            CompactGraph compactGraph = getCompactGraph();
+            int[] partOf = kWay ? partitionKWay(compactGraph, getPartsCount())
+                    : RecursiveBisection.partition(compactGraph, getPartsCount(), this::bisect);
+            graphPartition = new GraphPartition(compactGraph, partOf, getPartsCount());
         }
         return graphPartition;
     }
 
-    @Override
-    public Map<String, String> getAllCustomParameters() {
-        return null;
-    }
-
-    @Override
-    public Map<String, String> getAllCustomParametersDescriptions() {
-        return null;
-    }
-
     /**
-     * Coarsens graph by Heavy Edge Matching.
-     * @param graph coarsening graph.
-     * @return graph with fewer vertices and edges.
+     * Divides graph component into two parts by coarsening, partitioning and uncoarsening.
+     * @param graph     Subgraph induced by vertices of the component.
+     * @param vertices  Dense indices of vertices of the component in the whole graph.
+     * @param ratio     Ideal share of the first part on weight of the component.
+     * @return  part (0 or 1) of each vertex of the component.
      */
-    private Set<MetisVertex> coarsenGraph(Graph graph) {
-        Set<MetisVertex> vertices = new HashSet<>();
-        for (Vertex vertex : graph.getVertices().values()) {
-            List<Vertex> containingVertices = new ArrayList<>();
-            containingVertices.add(vertex);
-            vertices.add(new MetisVertex(containingVertices, vertex.getValue()));
-        }
-        while (vertices.size() > 100) {
-            MetisVertex[] sortedVertices = sortVertices(vertices);
-            List<MetisVertex> matchedVertices = new ArrayList<>();
-            for (MetisVertex sortedVertex : sortedVertices) {
-                if (!matchedVertices.contains(sortedVertex)) {
-                    double maxWeight = -1;
-                    MetisVertex maxVertex = null;
-                    for (Map.Entry<MetisVertex, Double> neighbour : sortedVertex.getNeighbourVertices(vertices).entrySet()) {
-                        if (!matchedVertices.contains(neighbour.getKey())) {
-                            if (neighbour.getValue() >= maxWeight) {
-                                maxWeight = neighbour.getValue();
-                                maxVertex = neighbour.getKey();
-                            }
-
-                        }
-                    }
-                    if (maxVertex != null) {
-                        matchedVertices.add(maxVertex);
-                        matchedVertices.add(sortedVertex);
-                        reduceGraph(vertices, sortedVertex, maxVertex, maxWeight);
-
-                    }
-                }
-                if (vertices.size() <= 100) {
-                    break;
-                }
-            }
-        }
-        return vertices;
+    private int[] bisect(CompactGraph graph, int[] vertices, double ratio) {
+        return bisect(MetisGraph.fromCompactGraph(graph), ratio);
     }
 
     /**
-     * Sorts vertices by their degree.
-     * @param vertices all graph vertices.
-     * @return sorted array of vertices.
+     * Divides graph into two parts by coarsening, partitioning and uncoarsening.
+     * @param graph     Divided graph.
+     * @param ratio     Ideal share of the first part on weight of the graph.
+     * @return  part (0 or 1) of each vertex of the graph.
      */
-    private MetisVertex[] sortVertices(Set<MetisVertex> vertices) {
-        MetisVertex[] sortedVertices = vertices.toArray(new MetisVertex[0]);
-        Map<MetisVertex, Integer> vertexDegree = new HashMap<>();
-        for (MetisVertex vertex : vertices) {
-            vertexDegree.put(vertex, vertex.getVertexDegree());
-        }
-        quickSort(sortedVertices, vertexDegree);
-        return sortedVertices;
+    private int[] bisect(MetisGraph graph, double ratio) {
+        List<MetisGraph> levels = coarsenGraph(graph, coarsestSize);
+        int[] sides = partitionGraph(levels.get(levels.size() - 1), ratio);
+        return uncoarsenGraph(levels, sides, ratio);
     }
 
     /**
-     * QuickSort using preprocessed degree of each vertex.
-     * @param sortedVertices array to be sorted.
-     * @param vertexDegree   degree of each vertex.
+     * Divides graph directly into k parts. Graph is coarsened once, the coarsest graph
+     * is divided by recursive bisection and the partition is refined by greedy k-way
+     * refinement on every level during uncoarsening.
+     * @param compactGraph  Divided graph.
+     * @param partsCount    Number of parts.
+     * @return  part of each vertex of the graph.
      */
-    private void quickSort(MetisVertex[] sortedVertices, Map<MetisVertex, Integer> vertexDegree) {
-        int begin = 0;
-        int end = sortedVertices.length - 1;
-        int[] stack = new int[end - begin + 1];
-        int top = -1;
-
-        stack[++top] = begin;
-        stack[++top] = end;
-        while (top >= 0) {
-            end = stack[top--];
-            begin = stack[top--];
-            int p = partition(sortedVertices, begin, end, vertexDegree);
-            if (p - 1 > begin) {
-                stack[++top] = begin;
-                stack[++top] = p - 1;
-            }
-            if (p + 1 < end) {
-                stack[++top] = p + 1;
-                stack[++top] = end;
-            }
+    private int[] partitionKWay(CompactGraph compactGraph, int partsCount) {
+        List<MetisGraph> levels = coarsenGraph(MetisGraph.fromCompactGraph(compactGraph),
+                Math.max(coarsestSize, K_WAY_VERTICES_PER_PART * partsCount));
+        MetisGraph coarsest = levels.get(levels.size() - 1);
+        int[] partOf = new int[coarsest.getVertexCount()];
+        int[] vertices = new int[partOf.length];
+        for (int v = 0; v < vertices.length; v++) {
+            vertices[v] = v;
         }
-    }
-
-    /**
-     * Method used for partition in quick sort.
-     * @param sortedVertices    Array of sorted vertices.
-     * @param begin             Number of index to begin.
-     * @param end               Number of index to end.
-     * @param vertexDegree      Stores number of edges for each vertex.
-     * @return index to continue.
-     */
-    private int partition(MetisVertex[] sortedVertices, int begin, int end, Map<MetisVertex, Integer> vertexDegree) {
-        MetisVertex pivot = sortedVertices[end];
-        int i = (begin - 1);
-
-        for (int j = begin; j < end; j++) {
-            if (vertexDegree.get(sortedVertices[j]) <= vertexDegree.get(pivot)) {
-                i++;
-
-                MetisVertex swapTemp = sortedVertices[i];
-                sortedVertices[i] = sortedVertices[j];
-                sortedVertices[j] = swapTemp;
-            }
+        partitionRecursively(coarsest, vertices, 0, partsCount, partOf);
+        KWayRefinement.refine(coarsest, partOf, partsCount);
+        for (int level = levels.size() - 2; level >= 0; level--) {
+            partOf = levels.get(level).projectPartition(partOf);
+            KWayRefinement.refine(levels.get(level), partOf, partsCount);
         }
-
-        MetisVertex swapTemp = sortedVertices[i + 1];
-        sortedVertices[i + 1] = sortedVertices[end];
-        sortedVertices[end] = swapTemp;
-
-        return i + 1;
-    }
-
-    /**
-     * Reduces graph by creating one joined vertex from two vertices.
-     * @param vertices     vertices of creating graph.
-     * @param v            vertex.
-     * @param maxVertex    matched vertex.
-     * @param weight       weight of the edges between joined vertices.
-     */
-    private void reduceGraph(Set<MetisVertex> vertices, MetisVertex v,
-                             MetisVertex maxVertex, double weight) {
-        List<Vertex> containingVertices = new ArrayList<>();
-        containingVertices.addAll(v.getContainingVertices());
-        containingVertices.addAll(maxVertex.getContainingVertices());
-        weight += v.getWeight() + maxVertex.getWeight();
-        vertices.remove(v);
-        vertices.remove(maxVertex);
-        vertices.add(new MetisVertex(containingVertices, weight));
+        return partOf;
     }
 
     /**
-     * Partition the given graph in half.
-     * @param metisVertices coarsen graph.
-     * @return partition of graph.
+     * Divides the coarsest graph into given number of parts by recursive bisection.
+     * @param graph         Divided (sub)graph.
+     * @param vertices      Vertices of the coarsest graph, vertex i of the subgraph is vertices[i].
+     * @param firstPart     Number of the first part.
+     * @param partsCount    Number of parts.
+     * @param partOf        Part of each vertex of the coarsest graph.
      */
-    private List<Set<MetisVertex>> partitionGraph(Set<MetisVertex> metisVertices) {
-        List<Set<MetisVertex>> graphComponents = new ArrayList<>();
-        double totalVWeight = countTotalVWeight(metisVertices);
-        double halfTotalVWeight = totalVWeight / 2;
-        double quarterTotalVWeight = totalVWeight / 4;
-        int currentScore = Integer.MAX_VALUE;
-        Set<MetisVertex> bestPart = new HashSet<>();
-        MetisVertex[] vertices = metisVertices.toArray(new MetisVertex[0]);
-        for (int i = 0; i < 4; i++) {
-            boolean hasNeighbours = false;
-            MetisVertex vertex = null;
-            while (!hasNeighbours) {
-                int index = new Random(System.nanoTime()).nextInt(metisVertices.size());
-                vertex = vertices[index];
-                if (vertex.getAllStartingEdges().size() > 0) {
-                    hasNeighbours = true;
-                }
-                if (vertex.getAllEndingEdges().size() > 0) {
-                    hasNeighbours = true;
-                }
-            }
-            double verticesWeight = vertex.getWeight();
-            for (Edge startingEdge : vertex.getAllStartingEdges()) {
-                verticesWeight += startingEdge.getWeight()/2;
-            }
-            for (Edge endingEdge : vertex.getAllEndingEdges()) {
-                verticesWeight += endingEdge.getWeight()/2;
-            }
-            Set<MetisVertex> part = new HashSet<>();
-            part.add(vertex);
-            List<MetisVertex> vList = new ArrayList<>();
-            while (verticesWeight < halfTotalVWeight) {
-                addNeighbours(part, vList, vertex, metisVertices);
-                boolean added = false;
-                if (vList.size() == 0) {
-                    break;
-                }
-                for (int j = 0; j < vList.size(); j++) {
-                    vertex = vList.get(j);
-                    double tempVerticesWeight = verticesWeight +  vertex.getWeight();
-                    for (Edge startingEdge : vertex.getAllStartingEdges()) {
-                        tempVerticesWeight += startingEdge.getWeight() / 2;
-                    }
-                    for (Edge endingEdge : vertex.getAllEndingEdges()) {
-                        tempVerticesWeight += endingEdge.getWeight() / 2;
-                    }
-                    if (tempVerticesWeight < halfTotalVWeight) {
-                        verticesWeight = tempVerticesWeight;
-                        part.add(vertex);
-                        vList.remove(j);
-                        added = true;
-                        break;
-                    }
-                }
-                if (!added) {
-                    break;
-                }
-            }
-            if (verticesWeight > quarterTotalVWeight) {
-                addNeighbours(part, vList, vertex, metisVertices);
-                int score = adjustCutVertices(part, vList);
-                if (score < currentScore) {
-                    currentScore = score;
-                    bestPart = new HashSet<>(part);
-                }
+    private void partitionRecursively(MetisGraph graph, int[] vertices, int firstPart, int partsCount, int[] partOf) {
+        if (partsCount == 1 || vertices.length == 0) {
+            for (int v : vertices) {
+                partOf[v] = firstPart;
             }
+            return;
         }
-        Set<MetisVertex> vertices1 = new HashSet<>();
-        Set<MetisVertex> vertices2 = new HashSet<>();
-        for (MetisVertex v: metisVertices) {
-            if(bestPart.contains(v)){
-                vertices1.add(v);
+        int firstPartsCount = partsCount / 2;
+        int[] sides = bisect(graph, (double) firstPartsCount / partsCount);
+        int firstSize = 0;
+        for (int side : sides) {
+            if (side == 0) {
+                firstSize++;
             }
-            else{
-                vertices2.add(v);
+        }
+        int[] local1 = new int[firstSize];
+        int[] local2 = new int[sides.length - firstSize];
+        int[] vertices1 = new int[firstSize];
+        int[] vertices2 = new int[sides.length - firstSize];
+        int i1 = 0;
+        int i2 = 0;
+        for (int i = 0; i < sides.length; i++) {
+            if (sides[i] == 0) {
+                local1[i1] = i;
+                vertices1[i1++] = vertices[i];
+            } else {
+                local2[i2] = i;
+                vertices2[i2++] = vertices[i];
             }
         }
-        graphComponents.add(vertices1);
-        graphComponents.add(vertices2);
-        return graphComponents;
+        partitionRecursively(graph.inducedSubgraph(local1), vertices1, firstPart, firstPartsCount, partOf);
+        partitionRecursively(graph.inducedSubgraph(local2), vertices2, firstPart + firstPartsCount,
+                partsCount - firstPartsCount, partOf);
     }
 
-    /**
-     * Adjust number of cut edge.
-     * @param part      Checking part.
-     * @param vList     List with checked vertices.
-     * @return  number of cut edges.
-     */
-    private int adjustCutVertices(Set<MetisVertex> part, List<MetisVertex> vList) {
-        int cutEdges = 0;
-        for(MetisVertex vertex: vList) {
-            for (Edge edge: vertex.getAllStartingEdges()) {
-                for (MetisVertex metisVertex : part) {
-                    if (metisVertex.getContainingVertices().contains(edge.getEndpoint())) {
-                        cutEdges++;
-                        break;
-                    }
-                }
-            }
-            for (Edge edge: vertex.getAllEndingEdges()) {
-                for (MetisVertex metisVertex : part) {
-                    if (metisVertex.getContainingVertices().contains(edge.getStartpoint())) {
-                        cutEdges++;
-                        break;
-                    }
-                }
-            }
-        }
-        return cutEdges;
+    @Override
+    public Map<String, String> getAllCustomParameters() {
+        Map<String, String> customParameters = new TreeMap<>();
+        customParameters.put("Coarsest size", String.valueOf(DEFAULT_COARSEST_SIZE));
+        customParameters.put("K-way", "false");
+        customParameters.put("Attempts", String.valueOf(DEFAULT_ATTEMPTS));
+        customParameters.put("Seed", String.valueOf(DEFAULT_SEED));
+        return customParameters;
     }
 
-    /**
-     * Sorts vertices and their points on the line by insertion sort.
-     * @param vertexOrder   list of sorted vertices.
-     * @param v             current vertex.
-     * @param metisVertices current half of the graph.
-     */
-    private void insertionSort(List<MetisVertex> vertexOrder, MetisVertex v, Set<MetisVertex> part, Set<MetisVertex> metisVertices) {
-        int edgeCut = getVertexEdgeCut(v, part, metisVertices);
-        if(vertexOrder.size() == 0){
-            vertexOrder.add(v);
-            return;
-        }
-        if(vertexOrder.size() == 1){
-            if(getVertexEdgeCut(vertexOrder.get(0), part, metisVertices) < edgeCut){
-                vertexOrder.add(v);
-            } else{
-                vertexOrder.add(0, v);
-            }
-            return;
-        }
-        for(int i = vertexOrder.size()-1; i > -1; i--){
-            if(getVertexEdgeCut(vertexOrder.get(i), part, metisVertices) <= edgeCut){
-                vertexOrder.add(i+1, v);
-                return;
-            }
-        }
+    @Override
+    public Map<String, String> getAllCustomParametersDescriptions() {
+        Map<String, String> customParametersDescription = new TreeMap<>();
+        customParametersDescription.put("Coarsest size (int)", "Max. number of vertices of the coarsest graph. Type int, > 1.");
+        customParametersDescription.put("K-way (boolean)", "If true, graph is coarsened once and divided " +
+                "directly into k parts, otherwise by recursive bisection. Type boolean.");
+        customParametersDescription.put("Attempts (int)", "Number of initial partitions of the coarsest graph " +
+                "grown in parallel, the best one is used. Type int, > 0.");
+        customParametersDescription.put("Seed (long)", "Seed of random choice of start vertices of initial " +
+                "partitions, the same seed gives the same partition. Type long.");
+        return customParametersDescription;
     }
 
     /**
-     * Gets number of cut edges connected to vertex v.
-     * @param v             vertex.
-     * @param part          part where vertex v belongs.
-     * @param metisVertices current half of the graph.
-     * @return number of cut edges connected to vertex v.
+     * Reads max. number of vertices of the coarsest graph, mode, number of attempts and seed from parameters.
      */
-    private int getVertexEdgeCut(MetisVertex v, Set<MetisVertex> part, Set<MetisVertex> metisVertices){
-        int edgeCut = 0;
-        for (MetisVertex vertex: v.getNeighbourVertices(metisVertices).keySet()) {
-            if(!part.contains(vertex)){
-                edgeCut++;
+    private void readParameters() {
+        if (getParameters() != null && getParameters().containsKey("K-way")) {
+            kWay = Boolean.parseBoolean(getParameters().get("K-way").trim());
+        }
+        if (getParameters() != null && getParameters().containsKey("Coarsest size")) {
+            try {
+                int inputCoarsestSize = Integer.parseInt(getParameters().get("Coarsest size"));
+                if (inputCoarsestSize > 1) {
+                    coarsestSize = inputCoarsestSize;
+                }
+            } catch (Exception e) {
+                System.out.println("Could not parse " + getParameters().get("Coarsest size") + "to int.");
             }
         }
-        return edgeCut;
-    }
-
-    /**
-     * Gets neighbours of the part.
-     * @param part          the part.
-     * @param vList         list of vertices.
-     * @param metisVertices current half of the graph.
-     */
-    private void addNeighbours(Set<MetisVertex> part, List<MetisVertex> vList, MetisVertex vertex, Set<MetisVertex> metisVertices){
-        for (MetisVertex metisVertex: vertex.getNeighbourVertices(metisVertices).keySet()) {
-            if(!part.contains(metisVertex)) {
-                if( !vList.contains(metisVertex)) {
-                    insertionSort(vList, metisVertex, part, metisVertices);
+        if (getParameters() != null && getParameters().containsKey("Attempts")) {
+            try {
+                int inputAttempts = Integer.parseInt(getParameters().get("Attempts").trim());
+                if (inputAttempts > 0) {
+                    attempts = inputAttempts;
                 }
+            } catch (Exception e) {
+                System.out.println("Could not parse " + getParameters().get("Attempts") + "to int.");
+            }
+        }
+        if (getParameters() != null && getParameters().containsKey("Seed")) {
+            try {
+                seed = Long.parseLong(getParameters().get("Seed").trim());
+            } catch (Exception e) {
+                System.out.println("Could not parse " + getParameters().get("Seed") + "to long.");
             }
         }
     }
 
     /**
-     * Counts total weight of the graph.
-     * @param metisVertices     vertices of the coarse graph.
-     * @return  total weight of the graph.
+     * Coarsens graph by Heavy Edge Matching until it has at most given number of vertices
+     * or matching stops reducing the graph.
+     * @param graph     the finest graph.
+     * @param maxSize   max. number of vertices of the coarsest graph.
+     * @return all levels of hierarchy, the finest first.
      */
-    private double countTotalVWeight(Set<MetisVertex> metisVertices){
-        double total = 0.0;
-        for (MetisVertex vertex: metisVertices) {
-            total += vertex.getWeight();
-            for (Edge startingEdge : vertex.getAllStartingEdges()) {
-                total += startingEdge.getWeight()/2;
-            }
-            for (Edge endingEdge : vertex.getAllEndingEdges()) {
-                total += endingEdge.getWeight()/2;
-            }
+    private List<MetisGraph> coarsenGraph(MetisGraph graph, int maxSize) {
+        List<MetisGraph> levels = new ArrayList<>();
+        levels.add(graph);
+        while (graph.getVertexCount() > maxSize) {
+            MetisGraph coarseGraph = graph.coarsen();
+            if (coarseGraph.getVertexCount() == graph.getVertexCount()) {
+                break;
+            }
+            levels.add(coarseGraph);
+            if (coarseGraph.getVertexCount() > MIN_COARSENING_RATIO * graph.getVertexCount()) {
+                break;
+            }
+            graph = coarseGraph;
         }
-        return total;
+        return levels;
     }
 
     /**
-     * Uncoarsens graph.
-     * @param parts     partition of coarsen graph.
-     * @return  partition of original graph.
+     * Partitions the coarsest graph into two parts by Greedy Graph Growing.
+     * Several attempts, each growing the part from a different random vertex, run in parallel.
+     * Attempt i uses random generator seeded by seed + i, so the result is reproducible.
+     * Every grown part is refined by Fiduccia-Mattheyses algorithm and the part with the lowest cut is used.
+     * @param graph     the coarsest graph.
+     * @param ratio     ideal share of the first part on weight of the graph.
+     * @return part (0 or 1) of each vertex.
      */
-    private List<Graph> uncoarsenGraph(List<Set<MetisVertex>> parts){
-        List<Graph> verticesParts = new ArrayList<>();
-        Map<Vertex, Integer> verticesPartsDynamic = new HashMap<>();
-        int length = 0;
-        int p = 0;
-        for(Set<MetisVertex> part: parts){
-            Map<Integer, Vertex> vertices = new HashMap<>();
-            for(MetisVertex vertex: part){
-                for(Vertex v: vertex.getContainingVertices()){
-                    vertices.put(v.getId(), v);
-                    verticesPartsDynamic.put(v, p);
-                }
+    private int[] partitionGraph(MetisGraph graph, double ratio) {
+        int n = graph.getVertexCount();
+        double target = graph.getTotalWeight() * ratio;
+        int[] xadj = graph.getXadj();
+        int[] candidates = new int[n];
+        int candidatesCount = 0;
+        for (int v = 0; v < n; v++) {
+            if (xadj[v + 1] > xadj[v]) {
+                candidates[candidatesCount++] = v;
             }
-            length += vertices.size();
-            verticesParts.add(new Graph(vertices, null));
-            p++;
         }
-        double gMax;
-        do {
-            gMax = 0;
-            List<Double> gv = new ArrayList<>();
-            List<Vertex> av = new ArrayList<>();
-            List<Vertex> bv = new ArrayList<>();
-            for(int n = 0; n < length/2; n++) {
-                List<Map<Vertex, Double>> list = new ArrayList<>(computeBorderDValues(verticesPartsDynamic).values());
-                double max = 0;
-                Vertex a = null;
-                Vertex b = null;
-                if (list.size() == 0) {
-                    break;
-                }
-                for (Map.Entry<Vertex, Double> i : list.get(0).entrySet()) {
-                    for (Map.Entry<Vertex, Double> j : list.get(1).entrySet()) {
-                        if (verticesNotExchanged(i, j, av, bv)){
-                            double g = i.getValue() + j.getValue() - 2 * getCValue(i.getKey(), j.getKey());
-                            if(g >= max){
-                                max = g;
-                                a = i.getKey();
-                                b = j.getKey();
-                            }
-                        }
+        int[] bestSides = null;
+        if (candidatesCount > 0) {
+            int count = candidatesCount;
+            List<ForkJoinTask<int[]>> tasks = new ArrayList<>();
+            for (int i = 0; i < attempts; i++) {
+                Random random = new Random(seed + i);
+                tasks.add(ForkJoinTask.adapt(() -> growPart(graph, candidates[random.nextInt(count)], target, ratio)));
+            }
+            ForkJoinTask.invokeAll(tasks);
+            double bestCut = Double.POSITIVE_INFINITY;
+            for (ForkJoinTask<int[]> task : tasks) {
+                int[] sides = task.join();
+                if (sides != null) {
+                    double cut = computeCut(graph, sides);
+                    if (cut < bestCut) {
+                        bestCut = cut;
+                        bestSides = sides;
                     }
                 }
-                if (a != null) {
-                    gv.add(max);
-                    av.add(a);
-                    bv.add(b);
-                    int[] abValue = getAandBPartNumbers(a, b, verticesParts);
-                    verticesPartsDynamic.put(a, abValue[1]);
-                    verticesPartsDynamic.put(b, abValue[0]);
-                }
-            }
-            int k = 0;
-            double sum = 0;
-            for(int l = 0; l < gv.size(); l++){
-                sum += gv.get(l);
-                if(sum > gMax){
-                    gMax = sum;
-                    k = l;
-                }
             }
-            if (gMax > 0) {
-                for(int i = 0; i < k; i++){
-                    Vertex a = av.get(i);
-                    Vertex b = bv.get(i);
-                    int[] abValue = getAandBPartNumbers(a, b, verticesParts);
-                    verticesParts.get(abValue[1]).getVertices().put(a.getId(), a);
-                    verticesParts.get(abValue[0]).getVertices().put(b.getId(), b);
+        }
+        if (bestSides == null) {
+            bestSides = new int[n];
+            double weight = 0;
+            for (int v = 0; v < n; v++) {
+                if (weight < target) {
+                    weight += graph.getVwgt()[v];
+                } else {
+                    bestSides[v] = 1;
                 }
             }
-        }while (gMax > 0);
-
-        return verticesParts;
-    }
-
-    /**
-     * Checks if vertices were not exchanged yet.
-     * @param a     Vertex A.
-     * @param b     Vertex B.
-     * @param av    List of exchanged vertices from one part.
-     * @param bv    List of exchanged vertices from another part.
-     * @return  true if not exchanged.
-     */
-    private boolean verticesNotExchanged(Map.Entry<Vertex, Double> a, Map.Entry<Vertex, Double> b,
-                                                   List<Vertex> av, List<Vertex> bv) {
-        int index = -1;
-        for (int i = 0; i < av.size(); i++) {
-            if ((av.get(i) == a.getKey()) || (av.get(i) == b.getKey())) {
-                index = i;
-            }
+            FMRefinement.refine(graph, bestSides, ratio);
         }
-        return (index == -1) || ((bv.get(index) != a.getKey()) && (bv.get(index) != b.getKey()));
+        return bestSides;
     }
 
     /**
-     * Gets part numbers of given vertices A abd B.
-     * @param a                 Vertex A.
-     * @param b                 Vertex B.
-     * @param verticesParts     Divided vertices into parts.
-     * @return part number of A and B.
+     * Grows part from start vertex and refines the bisection. Neighbours of the part are kept
+     * in priority queue ordered by gain (weight of edges to the part minus weight of other edges),
+     * the neighbour with the highest gain that fits into the target weight is added until
+     * no such neighbour exists. Neighbour that does not fit is dropped because weight of the part only grows.
+     * @param graph     the coarsest graph.
+     * @param start     start vertex.
+     * @param target    ideal weight of the part.
+     * @param ratio     ideal share of the part on weight of the graph.
+     * @return  part (0 or 1) of each vertex, null if the part did not reach half of the target weight.
      */
-    private int[] getAandBPartNumbers(Vertex a, Vertex b, List<Graph> verticesParts) {
-        int[] abValue = {-1, -1};
-        int i = 0;
-        for(Graph graph: verticesParts){
-            if(graph.getVertices().containsKey(a.getId())){
-                abValue[0] = i;
-            }
-            if(graph.getVertices().containsKey(b.getId())){
-                abValue[1] = i;
+    private int[] growPart(MetisGraph graph, int start, double target, double ratio) {
+        int n = graph.getVertexCount();
+        int[] xadj = graph.getXadj();
+        int[] adjncy = graph.getAdjncy();
+        double[] adjwgt = graph.getAdjwgt();
+        double[] vwgt = graph.getVwgt();
+        int[] sides = new int[n];
+        Arrays.fill(sides, 1);
+        boolean[] dropped = new boolean[n];
+        IndexedHeap frontier = new IndexedHeap(n);
+        frontier.put(start, 0);
+        double weight = 0;
+        while (!frontier.isEmpty()) {
+            int vertex = frontier.poll();
+            if (weight + vwgt[vertex] > target) {
+                dropped[vertex] = true;
+                continue;
+            }
+            sides[vertex] = 0;
+            weight += vwgt[vertex];
+            for (int e = xadj[vertex]; e < xadj[vertex + 1]; e++) {
+                int u = adjncy[e];
+                if (sides[u] == 0 || dropped[u]) {
+                    continue;
+                }
+                if (frontier.contains(u)) {
+                    frontier.put(u, frontier.getKey(u) - 2 * adjwgt[e]);
+                } else {
+                    double key = 0;
+                    for (int f = xadj[u]; f < xadj[u + 1]; f++) {
+                        key += sides[adjncy[f]] == 0 ? -adjwgt[f] : adjwgt[f];
+                    }
+                    frontier.put(u, key);
+                }
             }
-            i++;
         }
-        return abValue;
-    }
-
-    /**
-     * Computes border difference values for each part.
-     * @param verticesParts    Divided vertices into parts.
-     * @return border difference values for each part.
-     */
-    private Map<Integer, Map<Vertex, Double>> computeBorderDValues(Map<Vertex, Integer> verticesParts){
-        Map<Integer, Map<Vertex, Double>> borderDValues = new HashMap<>();
-        for(Map.Entry<Vertex, Integer> vertexPart: verticesParts.entrySet()){
-            Vertex vertex = vertexPart.getKey();
-            int partNumber = vertexPart.getValue();
-            double[] edgesWeights = {0.0, 0.0};
-            setEdgesWeights(edgesWeights, vertexPart, verticesParts);
-            if(edgesWeights[0] > 0 ){
-                borderDValues.computeIfAbsent(partNumber, value -> new HashMap<>());
-                double dValue = edgesWeights[0] - edgesWeights[1];
-                borderDValues.get(partNumber).put(vertex, dValue);
-            }
+        if (weight <= target / 2) {
+            return null;
         }
-        return borderDValues;
+        FMRefinement.refine(graph, sides, ratio);
+        return sides;
     }
 
     /**
-     * Sets total weights of inner edges and connecting edges of two parts going out or in given vertex.
-     * @param edgesWeights      array where first value is total weight of connecting edges and second is
-     *                          total weight of inner edges.
-     * @param vertexPart            The vertex.
-     * @param verticesParts     Map where key is vertex and value is number of its part.
+     * Computes weight of edges between the parts.
+     * @param graph     the graph.
+     * @param sides     part (0 or 1) of each vertex.
+     * @return  weight of cut edges.
      */
-    private void setEdgesWeights(double[] edgesWeights, Map.Entry<Vertex, Integer> vertexPart, Map<Vertex, Integer> verticesParts){
-        Vertex vertex = vertexPart.getKey();
-        int partNumber = vertexPart.getValue();
-        for(Edge edge: vertex.getStartingEdges()){
-            if((verticesParts.get(edge.getEndpoint()) != null) && (verticesParts.get(edge.getEndpoint())!= partNumber)){
-                edgesWeights[0] += edge.getWeight();
-            }
-            else{
-                edgesWeights[1] += edge.getWeight();
-            }
-        }
-        for(Edge edge: vertex.getEndingEdges()){
-            if((verticesParts.get(edge.getStartpoint()) != null) && (verticesParts.get(edge.getStartpoint()) != partNumber)){
-                edgesWeights[0] += edge.getWeight();
-            }
-            else{
-                edgesWeights[1] += edge.getWeight();
+    private double computeCut(MetisGraph graph, int[] sides) {
+        int[] xadj = graph.getXadj();
+        int[] adjncy = graph.getAdjncy();
+        double[] adjwgt = graph.getAdjwgt();
+        double cut = 0;
+        for (int v = 0; v < sides.length; v++) {
+            if (sides[v] == 0) {
+                for (int e = xadj[v]; e < xadj[v + 1]; e++) {
+                    if (sides[adjncy[e]] != 0) {
+                        cut += adjwgt[e];
+                    }
+                }
             }
         }
+        return cut;
     }
 
     /**
-     * Gets C value. It is sum of weight of all edges between vertex v1 and vertex v2.
-     * @param v1    vertex v1.
-     * @param v2    vertex v2.
-     * @return sum of weight of all edges between vertex v1 and vertex v2.
+     * Uncoarsens graph. Partition of the coarsest level is already refined,
+     * it is refined by Fiduccia-Mattheyses algorithm after projection onto each finer level.
+     * @param levels    all levels of hierarchy, the finest first.
+     * @param sides     part (0 or 1) of each vertex of the coarsest graph.
+     * @param ratio     ideal share of the first part on weight of the graph.
+     * @return  part of each vertex of the finest graph.
      */
-    private double getCValue(Vertex v1, Vertex v2){
-        double edgesWeight = 0;
-        for(Edge edge: v1.getStartingEdges()){
-            if(edge.getEndpoint().equals(v2)){
-                edgesWeight += edge.getWeight();
-            }
-        }
-        for(Edge edge: v2.getStartingEdges()){
-            if(edge.getEndpoint().equals(v1)){
-                edgesWeight += edge.getWeight();
-            }
+    private int[] uncoarsenGraph(List<MetisGraph> levels, int[] sides, double ratio){
+        for (int level = levels.size() - 2; level >= 0; level--) {
+            sides = levels.get(level).projectPartition(sides);
+            FMRefinement.refine(levels.get(level), sides, ratio);
         }
-        return edgesWeight;
+        return sides;
     }
 
     @Override
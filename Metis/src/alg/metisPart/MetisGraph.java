@@ -0,0 +1,263 @@
+package alg.metisPart;
+
+import bp.roadnetworkpartitioning.CompactGraph;
+
+import java.util.Arrays;
+
+/**
+ * One level of METIS multilevel hierarchy stored in CSR form.
+ * Neighbours of vertex v are adjncy[xadj[v]] .. adjncy[xadj[v + 1] - 1],
+ * edge direction is ignored and parallel edges are merged.
+ * @author Lucie Roy
+ * @version 18-10-2026
+ */
+public class MetisGraph {
+    /** Offsets of neighbours of each vertex (length is number of vertices + 1). */
+    private final int[] xadj;
+    /** Neighbours of vertices. */
+    private final int[] adjncy;
+    /** Weights of edges to neighbours. */
+    private final double[] adjwgt;
+    /** Weights of vertices. */
+    private final double[] vwgt;
+    /** Vertex of coarser graph each vertex was contracted into, null if graph was not coarsened. */
+    private int[] coarseMap = null;
+
+    /**
+     * Constructor of graph from CSR arrays.
+     * @param xadj      Offsets of neighbours of each vertex.
+     * @param adjncy    Neighbours of vertices.
+     * @param adjwgt    Weights of edges to neighbours.
+     * @param vwgt      Weights of vertices.
+     */
+    public MetisGraph(int[] xadj, int[] adjncy, double[] adjwgt, double[] vwgt) {
+        this.xadj = xadj;
+        this.adjncy = adjncy;
+        this.adjwgt = adjwgt;
+        this.vwgt = vwgt;
+    }
+
+    /**
+     * Creates the finest level from compact graph.
+     * @param graph     Compact graph.
+     * @return  the finest level of hierarchy.
+     */
+    public static MetisGraph fromCompactGraph(CompactGraph graph) {
+        return new MetisGraph(graph.getNeighbourOffsets(), graph.getNeighbours(), graph.getNeighbourWeights(),
+                graph.getVertexWeights());
+    }
+
+    /**
+     * Coarsens graph by one pass of Heavy Edge Matching. Vertices are visited in order of
+     * increasing degree, each unmatched vertex is matched with unmatched neighbour connected
+     * by the heaviest edge (or stays alone). Matched pairs are contracted into one vertex.
+     * @return coarser graph, map from this graph to it is available by getCoarseMap().
+     */
+    public MetisGraph coarsen() {
+        int n = getVertexCount();
+        long[] order = new long[n];
+        for (int v = 0; v < n; v++) {
+            order[v] = ((long) (xadj[v + 1] - xadj[v]) << 32) | v;
+        }
+        Arrays.sort(order);
+        int[] match = new int[n];
+        Arrays.fill(match, -1);
+        int[] cmap = new int[n];
+        int[] representatives = new int[n];
+        int coarseCount = 0;
+        for (long key : order) {
+            int v = (int) key;
+            if (match[v] >= 0) {
+                continue;
+            }
+            int maxVertex = v;
+            double maxWeight = -1;
+            for (int e = xadj[v]; e < xadj[v + 1]; e++) {
+                int u = adjncy[e];
+                if (match[u] < 0 && u != v && adjwgt[e] > maxWeight) {
+                    maxWeight = adjwgt[e];
+                    maxVertex = u;
+                }
+            }
+            match[v] = maxVertex;
+            match[maxVertex] = v;
+            cmap[v] = coarseCount;
+            cmap[maxVertex] = coarseCount;
+            representatives[coarseCount++] = v;
+        }
+        coarseMap = cmap;
+        return contract(match, representatives, coarseCount);
+    }
+
+    /**
+     * Creates coarser graph where matched vertices are contracted into one vertex.
+     * @param match             Vertex matched with each vertex (vertex itself if it is not matched).
+     * @param representatives   One fine vertex of each coarse vertex.
+     * @param coarseCount       Number of vertices of coarser graph.
+     * @return  coarser graph.
+     */
+    private MetisGraph contract(int[] match, int[] representatives, int coarseCount) {
+        int[] coarseXadj = new int[coarseCount + 1];
+        int[] coarseAdjncy = new int[adjncy.length];
+        double[] coarseAdjwgt = new double[adjncy.length];
+        double[] coarseVwgt = new double[coarseCount];
+        int[] slot = new int[coarseCount];
+        Arrays.fill(slot, -1);
+        int count = 0;
+        for (int c = 0; c < coarseCount; c++) {
+            int start = count;
+            int v = representatives[c];
+            count = addNeighbours(v, c, slot, coarseAdjncy, coarseAdjwgt, count);
+            coarseVwgt[c] = vwgt[v];
+            if (match[v] != v) {
+                count = addNeighbours(match[v], c, slot, coarseAdjncy, coarseAdjwgt, count);
+                coarseVwgt[c] += vwgt[match[v]];
+            }
+            for (int i = start; i < count; i++) {
+                slot[coarseAdjncy[i]] = -1;
+            }
+            coarseXadj[c + 1] = count;
+        }
+        return new MetisGraph(coarseXadj, Arrays.copyOf(coarseAdjncy, count), Arrays.copyOf(coarseAdjwgt, count),
+                coarseVwgt);
+    }
+
+    /**
+     * Adds neighbours of fine vertex to neighbours of coarse vertex, edges to the same coarse vertex are merged.
+     * @param v         Fine vertex.
+     * @param c         Coarse vertex containing the fine vertex.
+     * @param slot      Position of already added coarse neighbours, -1 if not added.
+     * @param adjncy    Coarse neighbours.
+     * @param adjwgt    Weights of edges to coarse neighbours.
+     * @param count     Number of added coarse neighbours.
+     * @return  new number of added coarse neighbours.
+     */
+    private int addNeighbours(int v, int c, int[] slot, int[] adjncy, double[] adjwgt, int count) {
+        for (int e = xadj[v]; e < xadj[v + 1]; e++) {
+            int u = coarseMap[this.adjncy[e]];
+            if (u == c) {
+                continue;
+            }
+            if (slot[u] >= 0) {
+                adjwgt[slot[u]] += this.adjwgt[e];
+            } else {
+                slot[u] = count;
+                adjncy[count] = u;
+                adjwgt[count] = this.adjwgt[e];
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Creates subgraph induced by given vertices, vertex i of the subgraph is vertex vertices[i] of this graph.
+     * @param vertices  Vertices of the subgraph sorted ascending.
+     * @return  induced subgraph.
+     */
+    public MetisGraph inducedSubgraph(int[] vertices) {
+        int[] localIndices = new int[getVertexCount()];
+        Arrays.fill(localIndices, -1);
+        for (int i = 0; i < vertices.length; i++) {
+            localIndices[vertices[i]] = i;
+        }
+        int[] subXadj = new int[vertices.length + 1];
+        double[] subVwgt = new double[vertices.length];
+        int m = 0;
+        for (int i = 0; i < vertices.length; i++) {
+            int v = vertices[i];
+            subVwgt[i] = vwgt[v];
+            for (int e = xadj[v]; e < xadj[v + 1]; e++) {
+                if (localIndices[adjncy[e]] >= 0) {
+                    m++;
+                }
+            }
+            subXadj[i + 1] = m;
+        }
+        int[] subAdjncy = new int[m];
+        double[] subAdjwgt = new double[m];
+        int p = 0;
+        for (int v : vertices) {
+            for (int e = xadj[v]; e < xadj[v + 1]; e++) {
+                if (localIndices[adjncy[e]] >= 0) {
+                    subAdjncy[p] = localIndices[adjncy[e]];
+                    subAdjwgt[p++] = adjwgt[e];
+                }
+            }
+        }
+        return new MetisGraph(subXadj, subAdjncy, subAdjwgt, subVwgt);
+    }
+
+    /**
+     * Projects partition of coarser graph onto this graph.
+     * @param coarseSides   Part of each vertex of coarser graph (bisection or k-way partition).
+     * @return  part of each vertex of this graph.
+     */
+    public int[] projectPartition(int[] coarseSides) {
+        int[] sides = new int[getVertexCount()];
+        for (int v = 0; v < sides.length; v++) {
+            sides[v] = coarseSides[coarseMap[v]];
+        }
+        return sides;
+    }
+
+    /**
+     * Gets number of vertices.
+     * @return number of vertices.
+     */
+    public int getVertexCount() {
+        return vwgt.length;
+    }
+
+    /**
+     * Gets offsets of neighbours of each vertex.
+     * @return offsets of neighbours.
+     */
+    public int[] getXadj() {
+        return xadj;
+    }
+
+    /**
+     * Gets neighbours of vertices.
+     * @return neighbours of vertices.
+     */
+    public int[] getAdjncy() {
+        return adjncy;
+    }
+
+    /**
+     * Gets weights of edges to neighbours.
+     * @return weights of edges.
+     */
+    public double[] getAdjwgt() {
+        return adjwgt;
+    }
+
+    /**
+     * Gets weights of vertices.
+     * @return weights of vertices.
+     */
+    public double[] getVwgt() {
+        return vwgt;
+    }
+
+    /**
+     * Gets vertex of coarser graph each vertex was contracted into.
+     * @return map to coarser graph, null if graph was not coarsened.
+     */
+    public int[] getCoarseMap() {
+        return coarseMap;
+    }
+
+    /**
+     * Gets total weight of vertices.
+     * @return total weight of vertices.
+     */
+    public double getTotalWeight() {
+        double total = 0;
+        for (double weight : vwgt) {
+            total += weight;
+        }
+        return total;
+    }
+}
@@ -0,0 +1,112 @@
+package alg.spartsimPart;
+
+import java.util.Arrays;
+
+/**
+ * Binary max-heap of frontier vertices of one growing region. The caller inserts one entry
+ * per edge between the region and a free vertex, keyed by weight of that edge, so a vertex
+ * connected to the region by several edges has several entries. Entries are never updated
+ * or removed before they are polled, entries of vertices already claimed by any region are
+ * skipped by the caller when they are polled. Entries with equal weights are polled in order
+ * of insertion, so region grows evenly (breadth-first) around its seed. This tie-breaking is
+ * why IndexedHeap is not used here: it orders equal keys arbitrarily, which makes regions on
+ * uniform grids grow in long strips. Size of the heap is given by edges of the frontier,
+ * not by number of vertices of the graph as for IndexedHeap.
+ * @author Lucie Roy
+ * @version 18-10-2026
+ */
+public class FrontierHeap {
+    /** Initial capacity of the heap. */
+    private static final int INITIAL_CAPACITY = 16;
+    /** Dense indices of vertices in heap order. */
+    private int[] vertices = new int[INITIAL_CAPACITY];
+    /** Connection weights of entries in heap order. */
+    private double[] weights = new double[INITIAL_CAPACITY];
+    /** Insertion order of entries in heap order, earlier entry wins between equal weights. */
+    private long[] orders = new long[INITIAL_CAPACITY];
+    /** Number of entries in the heap. */
+    private int size = 0;
+    /** Number of entries inserted so far. */
+    private long insertions = 0;
+
+    /**
+     * Checks if heap is empty.
+     * @return true if heap is empty.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Inserts vertex with given connection weight.
+     * @param vertex    Dense index of vertex.
+     * @param weight    Weight of connection of the vertex to the region.
+     */
+    public void add(int vertex, double weight) {
+        if (size == vertices.length) {
+            vertices = Arrays.copyOf(vertices, 2 * size);
+            weights = Arrays.copyOf(weights, 2 * size);
+            orders = Arrays.copyOf(orders, 2 * size);
+        }
+        long order = insertions++;
+        int position = size++;
+        while (position > 0) {
+            int parent = (position - 1) / 2;
+            if (!precedes(weight, order, weights[parent], orders[parent])) {
+                break;
+            }
+            vertices[position] = vertices[parent];
+            weights[position] = weights[parent];
+            orders[position] = orders[parent];
+            position = parent;
+        }
+        vertices[position] = vertex;
+        weights[position] = weight;
+        orders[position] = order;
+    }
+
+    /**
+     * Removes entry with the highest connection weight.
+     * @return dense index of vertex of the entry.
+     */
+    public int poll() {
+        int vertex = vertices[0];
+        size--;
+        int lastVertex = vertices[size];
+        double lastWeight = weights[size];
+        long lastOrder = orders[size];
+        int position = 0;
+        while (true) {
+            int child = 2 * position + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && precedes(weights[child + 1], orders[child + 1], weights[child], orders[child])) {
+                child++;
+            }
+            if (!precedes(weights[child], orders[child], lastWeight, lastOrder)) {
+                break;
+            }
+            vertices[position] = vertices[child];
+            weights[position] = weights[child];
+            orders[position] = orders[child];
+            position = child;
+        }
+        vertices[position] = lastVertex;
+        weights[position] = lastWeight;
+        orders[position] = lastOrder;
+        return vertex;
+    }
+
+    /**
+     * Compares two entries.
+     * @param weight1   Connection weight of the first entry.
+     * @param order1    Insertion order of the first entry.
+     * @param weight2   Connection weight of the second entry.
+     * @param order2    Insertion order of the second entry.
+     * @return  true if the first entry is polled before the second one.
+     */
+    private static boolean precedes(double weight1, long order1, double weight2, long order2) {
+        return weight1 > weight2 || (weight1 == weight2 && order1 < order2);
+    }
+}
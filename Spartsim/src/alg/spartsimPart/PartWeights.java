@@ -0,0 +1,83 @@
+package alg.spartsimPart;
+
+import bp.roadnetworkpartitioning.IndexedHeap;
+
+/**
+ * Weights of parts maintained incrementally as vertices move between parts.
+ * Parts are kept in two heaps, so the lightest and the heaviest part are found
+ * in constant time and every move costs logarithmic time in number of parts.
+ * @author Lucie Roy
+ * @version 18-10-2026
+ */
+public class PartWeights {
+    /** Weight of each part. */
+    private final double[] weights;
+    /** Parts ordered by weight, the lightest first. */
+    private final IndexedHeap minHeap;
+    /** Parts ordered by negative weight, the heaviest first. */
+    private final IndexedHeap maxHeap;
+
+    /**
+     * Constructor of weights of empty parts.
+     * @param partsCount    Number of parts.
+     */
+    public PartWeights(int partsCount) {
+        this.weights = new double[partsCount];
+        this.minHeap = new IndexedHeap(partsCount);
+        this.maxHeap = new IndexedHeap(partsCount);
+        for (int part = 0; part < partsCount; part++) {
+            minHeap.put(part, 0);
+            maxHeap.put(part, 0);
+        }
+    }
+
+    /**
+     * Adds weight to part.
+     * @param part      Number of part, negative number (no part) is ignored.
+     * @param weight    Added weight, negative if weight is removed.
+     */
+    public void add(int part, double weight) {
+        if (part < 0) {
+            return;
+        }
+        weights[part] += weight;
+        minHeap.put(part, weights[part]);
+        maxHeap.put(part, -weights[part]);
+    }
+
+    /**
+     * Moves weight of vertex from one part to another.
+     * @param weight    Weight of the vertex.
+     * @param from      Part the vertex leaves, negative if vertex was free.
+     * @param to        Part the vertex joins.
+     */
+    public void move(double weight, int from, int to) {
+        add(from, -weight);
+        add(to, weight);
+    }
+
+    /**
+     * Gets weight of part.
+     * @param part  Number of part.
+     * @return  weight of the part.
+     */
+    public double getWeight(int part) {
+        return weights[part];
+    }
+
+    /**
+     * Gets the lightest part.
+     * @return number of the lightest part.
+     */
+    public int getMinPart() {
+        return minHeap.peek();
+    }
+
+    /**
+     * Gets the heaviest part.
+     * @return number of the heaviest part.
+     */
+    public int getMaxPart() {
+        return maxHeap.peek();
+    }
+}
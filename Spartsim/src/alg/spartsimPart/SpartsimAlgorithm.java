@@ -20,14 +20,15 @@ public class SpartsimAlgorithm extends APartitionAlgorithm {
     protected GraphPartition createGraphPartition() {
         GraphPartition graphPartition = null;
         if (getGraph() != null) {
-            Map<Vertex, Integer> verticesParts = new HashMap<>();
-            List<Graph> parts = new ArrayList<>(getPartsCount());
-            int[] stop = initialise(parts, verticesParts);
-            growRegions(parts, verticesParts, stop);
-            balancePartitioning(parts, verticesParts);
-            List<Graph> subGraphs = computeConnectedSubgraphs(parts);
-            attach(subGraphs);
-            graphPartition = new GraphPartition(subGraphs);
+            int[] partOf = new int[getCompactGraph().getVertexCount()];
+            Arrays.fill(partOf, -1);
+            int[] stop = initialise(partOf);
+            growRegions(partOf, stop);
+            balancePartitioning(partOf);
+            int[] componentOf = new int[partOf.length];
+            int componentsCount = computeConnectedSubgraphs(partOf, componentOf);
+            attach(partOf, componentOf, componentsCount);
+            graphPartition = new GraphPartition(getCompactGraph(), partOf, getPartsCount());
         }
         return graphPartition;
     }
@@ -58,33 +59,39 @@ public class SpartsimAlgorithm extends APartitionAlgorithm {
 
     /**
      * Initialise partition by adding first vertex to each part.
-     * @param parts             list of parts.
-     * @param verticesParts     map where key is vertex and value is part number.
+     * @param partOf            part of each vertex by its dense index, -1 if vertex is free.
      * @return  array indicating if part has grown during last growing.
      */
-    private int[] initialise(List<Graph> parts, Map<Vertex, Integer> verticesParts){
+    private int[] initialise(int[] partOf){
         int[] stop = new int[getPartsCount()];
         for (int i = 0; i < getPartsCount(); i++) {
-            parts.add(new Graph(new HashMap<>(), null));
-            Vertex baseVertex = getBestCandidateVertex(verticesParts);
-            parts.get(i).getVertices().put(baseVertex.getId(), baseVertex);
-            verticesParts.put(baseVertex, i);
+            Vertex baseVertex = getBestCandidateVertex(partOf);
+            partOf[indexOf(baseVertex)] = i;
             stop[i] = 1;
         }
         return stop;
     }
 
     /**
-     * Grows regions (parts).
-     * @param parts             list of parts.
-     * @param verticesParts     map where key is vertex and value is part number.
+     * Grows regions (parts). Each part keeps edges to its free neighbours in a heap ordered
+     * by weight of the edge, so one growing step costs amortised logarithmic time.
+     * @param partOf            part of each vertex by its dense index, -1 if vertex is free.
      * @param stop              array indicating if part has grown during last growing.
      */
-    private void growRegions(List<Graph> parts, Map<Vertex, Integer> verticesParts, int[] stop){
+    private void growRegions(int[] partOf, int[] stop){
+        FrontierHeap[] frontiers = new FrontierHeap[getPartsCount()];
+        for (int i = 0; i < frontiers.length; i++) {
+            frontiers[i] = new FrontierHeap();
+        }
+        for (int v = 0; v < partOf.length; v++) {
+            if (partOf[v] >= 0) {
+                addFreeNeighbours(v, partOf, frontiers[partOf[v]]);
+            }
+        }
         while (!isZero(stop)) {
             for (int i = 0; i < getPartsCount(); i++) {
                 if (stop[i] != 0) {
-                    boolean hasGrown = grow(i, parts.get(i), verticesParts);
+                    boolean hasGrown = grow(i, partOf, frontiers[i]);
                     if (!hasGrown) {
                         stop[i] = 0;
                     }
@@ -95,26 +102,32 @@ public class SpartsimAlgorithm extends APartitionAlgorithm {
 
     /**
      * Balance partitioning so maximum difference between two parts is epsilon (one of the parameters).
-     * @param parts             list of parts.
-     * @param verticesParts     map where key is vertex and value is part number.
+     * Weights of parts are computed once and then updated with every moved vertex.
+     * @param partOf            part of each vertex by its dense index, -1 if vertex is free.
      */
-    private void balancePartitioning(List<Graph> parts, Map<Vertex, Integer> verticesParts){
+    private void balancePartitioning(int[] partOf){
+        DijkstraSearch search = new DijkstraSearch(getCompactGraph());
+        PartWeights partWeights = new PartWeights(getPartsCount());
+        double[] vertexWeights = getCompactGraph().getVertexWeights();
+        for (int v = 0; v < partOf.length; v++) {
+            partWeights.add(partOf[v], vertexWeights[v]);
+        }
         boolean balanced = false;
         int enoughIterations = 50;
         int i = 0;
-        graphValue = getGraph().getWeightValue();
+        graphValue = getCompactGraph().getTotalWeight();
         double partValue = graphValue / getPartsCount();
         if (getParameters() != null && getParameters().containsKey("epsilon")) {
             epsilon = Double.parseDouble(getParameters().get("epsilon"));
         }
         while (!balanced && (i < enoughIterations)) {
-            Graph maxPart = getMaxPart(parts);
-            Graph minPart = getMinPart(parts);
-            if (((maxPart.getWeightValue() - epsilon) < partValue)
-                    && (partValue < (minPart.getWeightValue() + epsilon))) {
+            int maxPart = partWeights.getMaxPart();
+            int minPart = partWeights.getMinPart();
+            if (((partWeights.getWeight(maxPart) - epsilon) < partValue)
+                    && (partValue < (partWeights.getWeight(minPart) + epsilon))) {
                 balanced = true;
             } else {
-                trade(parts, maxPart, minPart, verticesParts);
+                trade(maxPart, minPart, partOf, partWeights, search);
             }
             i++;
         }
@@ -122,101 +135,146 @@ public class SpartsimAlgorithm extends APartitionAlgorithm {
 
     /**
      * Finds all possible part connection and connects most suitable parts,
-     * so it has given part count.
-     * @param subparts  All parts and subparts previously created.
+     * so it has given part count. Connected subparts are merged by union-find
+     * and their neighbourhoods are kept in part adjacency graph.
+     * @param partOf            part of each vertex by its dense index, -1 if vertex is free,
+     *                          on return number of final part.
+     * @param componentOf       connected subpart of each vertex by its dense index, -1 if vertex is free.
+     * @param componentsCount   number of connected subparts.
      */
-    private void attach(List<Graph> subparts){
-        if(subparts.size() == getPartsCount()){
-            return;
+    private void attach(int[] partOf, int[] componentOf, int componentsCount){
+        double[] vertexWeights = getCompactGraph().getVertexWeights();
+        double[] weights = new double[componentsCount];
+        for (int v = 0; v < componentOf.length; v++) {
+            if (componentOf[v] >= 0) {
+                weights[componentOf[v]] += vertexWeights[v];
+            }
+        }
+        List<Set<Integer>> neighbours = getPartNeighbours(componentOf, componentsCount);
+        int[] mergedInto = new int[componentsCount];
+        for (int c = 0; c < componentsCount; c++) {
+            mergedInto[c] = c;
         }
-        int partsCount = subparts.size();
+        int partsCount = componentsCount;
         double partValue = graphValue/ getPartsCount();
         while (partsCount > getPartsCount()){
             double smallestDiff = graphValue;
-            Graph smallestPart = null;
-            Graph smallestNeighbour = null;
-            for (int i = 0; i < subparts.size(); i++) {
-                Graph part = subparts.get(i);
-                if (((part.getWeightValue() - epsilon) < partValue) && (partValue < (part.getWeightValue() + epsilon))) {
+            int smallestPart = -1;
+            int smallestNeighbour = -1;
+            for (int part = 0; part < componentsCount; part++) {
+                if (mergedInto[part] != part
+                        || (((weights[part] - epsilon) < partValue) && (partValue < (weights[part] + epsilon)))) {
                     continue;
                 }
-                for (Graph neighbour : getPartNeighbours(part, subparts)) {
-                    if(subparts.contains(neighbour)) {
-                        double value = part.getWeightValue() + neighbour.getWeightValue();
-                        if (Math.abs(partValue - value) <= smallestDiff) {
-                            smallestDiff = Math.abs(partValue - value);
-                            smallestPart = part;
-                            smallestNeighbour = neighbour;
-                        }
+                for (int neighbour : neighbours.get(part)) {
+                    double value = weights[part] + weights[neighbour];
+                    if (Math.abs(partValue - value) <= smallestDiff) {
+                        smallestDiff = Math.abs(partValue - value);
+                        smallestPart = part;
+                        smallestNeighbour = neighbour;
                     }
                 }
             }
-            if (smallestPart != null) {
-                smallestPart.getVertices().putAll(smallestNeighbour.getVertices());
-                subparts.remove(smallestNeighbour);
-                partsCount = subparts.size();
+            if (smallestPart < 0) {
+                for (int part = 0; part < componentsCount; part++) {
+                    if (mergedInto[part] != part) {
+                        continue;
+                    }
+                    if (smallestPart < 0 || weights[part] < weights[smallestPart]) {
+                        smallestNeighbour = smallestPart;
+                        smallestPart = part;
+                    } else if (smallestNeighbour < 0 || weights[part] < weights[smallestNeighbour]) {
+                        smallestNeighbour = part;
+                    }
+                }
+            }
+            weights[smallestPart] += weights[smallestNeighbour];
+            mergedInto[smallestNeighbour] = smallestPart;
+            for (int neighbour : neighbours.get(smallestNeighbour)) {
+                neighbours.get(neighbour).remove(smallestNeighbour);
+                if (neighbour != smallestPart) {
+                    neighbours.get(neighbour).add(smallestPart);
+                    neighbours.get(smallestPart).add(neighbour);
+                }
+            }
+            neighbours.get(smallestNeighbour).clear();
+            partsCount--;
+        }
+        int[] partNumbers = new int[componentsCount];
+        int partNumber = 0;
+        for (int c = 0; c < componentsCount; c++) {
+            if (mergedInto[c] == c) {
+                partNumbers[c] = partNumber++;
+            }
+        }
+        for (int v = 0; v < componentOf.length; v++) {
+            if (componentOf[v] >= 0) {
+                partOf[v] = partNumbers[findRoot(componentOf[v], mergedInto)];
             }
         }
     }
 
     /**
-     * Gets all neighbour parts of one given part.
-     * @param part     given part.
-     * @param subParts  all parts and subparts.
-     * @return list of all neighbour parts.
+     * Finds subpart the given subpart was merged into, merged subparts are shortcut on the way.
+     * @param c             the subpart.
+     * @param mergedInto    subpart each subpart was merged into, subpart itself if it was not merged.
+     * @return  subpart that was not merged into another one.
      */
-    private List<Graph> getPartNeighbours(Graph part, List<Graph> subParts) {
-        List<Graph> neighbours = new ArrayList<>();
-        for (Vertex vertex: part.getVertices().values()) {
-            for (Edge edge: vertex.getStartingEdges()) {
-                Vertex v = edge.getEndpoint();
-                if(!part.getVertices().containsValue(v)){
-                    Graph neighbourPart = getNeighbourPart(subParts, v);
-                    if(!neighbours.contains(neighbourPart)){
-                        neighbours.add(neighbourPart);
-                    }
-                }
-            }
-            for(Edge edge: vertex.getEndingEdges()){
-                Vertex neighbour = edge.getStartpoint();
-                if(!part.getVertices().containsValue(neighbour)){
-                    Graph neighbourPart = getNeighbourPart(subParts, neighbour);
-                    if(!neighbours.contains(neighbourPart)){
-                        neighbours.add(neighbourPart);
-                    }
-                }
-
-            }
+    private int findRoot(int c, int[] mergedInto) {
+        int root = c;
+        while (mergedInto[root] != root) {
+            root = mergedInto[root];
         }
-        return neighbours;
+        while (mergedInto[c] != root) {
+            int next = mergedInto[c];
+            mergedInto[c] = root;
+            c = next;
+        }
+        return root;
     }
 
     /**
-     * Gets part where given vertex belongs.
-     * @param subParts      all parts.
-     * @param v             given vertex.
-     * @return  part where given vertex belongs.
+     * Gets neighbour subparts of all subparts in one pass over edges.
+     * @param componentOf       connected subpart of each vertex by its dense index, -1 if vertex is free.
+     * @param componentsCount   number of connected subparts.
+     * @return neighbour subparts of each subpart.
      */
-    private Graph getNeighbourPart(List<Graph> subParts, Vertex v) {
-        for (Graph subPart : subParts) {
-            if (subPart.getVertices().containsKey(v.getId())) {
-                return subPart;
+    private List<Set<Integer>> getPartNeighbours(int[] componentOf, int componentsCount) {
+        List<Set<Integer>> neighbours = new ArrayList<>(componentsCount);
+        for (int c = 0; c < componentsCount; c++) {
+            neighbours.add(new HashSet<>());
+        }
+        int[] offsets = getCompactGraph().getNeighbourOffsets();
+        int[] adjacent = getCompactGraph().getNeighbours();
+        for (int v = 0; v < componentOf.length; v++) {
+            if (componentOf[v] < 0) {
+                continue;
+            }
+            for (int i = offsets[v]; i < offsets[v + 1]; i++) {
+                int c = componentOf[adjacent[i]];
+                if (c >= 0 && c != componentOf[v]) {
+                    neighbours.get(componentOf[v]).add(c);
+                }
             }
         }
-        return null;
+        return neighbours;
     }
 
     /**
      * Trades vertices between parts so it balances the partition.
-     * @param parts             all parts.
-     * @param maxPart           maximal part.
-     * @param minPart           minimal part.
-     * @param verticesParts     mapping of vertices and their part number.
+     * @param maxPart           index of maximal part.
+     * @param minPart           index of minimal part.
+     * @param partOf            part of each vertex by its dense index, -1 if vertex is free.
+     * @param partWeights       weights of parts.
+     * @param search            search used for finding the shortest path between the parts.
      */
-    private void trade(List<Graph> parts, Graph maxPart, Graph minPart, Map<Vertex, Integer> verticesParts) {
-        double difference = (maxPart.getWeightValue() - minPart.getWeightValue())/2;
-        List<Vertex> minPath = new LinkedList<>();
-        findShortestPathBetweenParts(maxPart, minPart, minPath);
+    private void trade(int maxPart, int minPart, int[] partOf, PartWeights partWeights, DijkstraSearch search) {
+        double difference = (partWeights.getWeight(maxPart) - partWeights.getWeight(minPart))/2;
+        List<Vertex> minPath = new ArrayList<>();
+        findShortestPathBetweenParts(maxPart, minPart, partOf, search, minPath);
+        if (minPath.isEmpty()) {
+            return;
+        }
         double moved = 0.0;
         int i = minPath.size() -1;
         while(moved < difference && i > 0){
@@ -234,7 +292,7 @@ public class SpartsimAlgorithm extends APartitionAlgorithm {
                 }
             }
             double vertexWeight = vertex2.getValue();
-            moveVertexIn(vertex2, parts, minPart, verticesParts);
+            moveVertex(vertex2, minPart, partOf, partWeights);
             moved += edgeWeight + vertexWeight;
             i--;
         }
@@ -245,7 +303,7 @@ public class SpartsimAlgorithm extends APartitionAlgorithm {
             Vertex vertex1 = null;
             double edgeWeight = 0;
             for (Edge edge: vertex.getStartingEdges()) {
-                if(maxPart.getVertices().containsValue(edge.getEndpoint())){
+                if(partOf[indexOf(edge.getEndpoint())] == maxPart){
                     vertex1 = edge.getEndpoint();
                     edgeWeight += edge.getWeight();
                 }
@@ -259,287 +317,144 @@ public class SpartsimAlgorithm extends APartitionAlgorithm {
                 vertexWeight += vertex1.getValue();
             }
             moved += edgeWeight + vertexWeight;
-            moveVertexOut(vertex, parts, maxPart, verticesParts, minPath);
+            moveVertexOut(vertex, maxPart, partOf, partWeights, minPath);
             vertexWeight = 0;
             vertex = vertex1;
         }
     }
 
     /**
-     * Moves vertex out of given part.
+     * Moves vertex out of given part into the part preceding the last vertex of the given part on the path.
      * @param vertex            the vertex.
-     * @param parts             all parts.
-     * @param maxPart           given part.
-     * @param verticesParts     mapping of vertices and their part number.
+     * @param maxPart           index of given part.
+     * @param partOf            part of each vertex by its dense index, -1 if vertex is free.
+     * @param partWeights       weights of parts.
+     * @param minPath           the shortest path between the parts.
      */
-    private void moveVertexOut(Vertex vertex, List<Graph> parts, Graph maxPart, Map<Vertex, Integer> verticesParts,
+    private void moveVertexOut(Vertex vertex, int maxPart, int[] partOf, PartWeights partWeights,
                                List<Vertex> minPath) {
         int newPart = -1;
-        for (int i = 0; i < minPath.size() - 1; i++) {
-            if(maxPart.getVertices().containsValue(minPath.get(i))){
-                newPart = verticesParts.get(minPath.get(i-1));
+        for (int i = 1; i < minPath.size() - 1; i++) {
+            if(partOf[indexOf(minPath.get(i))] == maxPart){
+                newPart = partOf[indexOf(minPath.get(i-1))];
             }
         }
         if (newPart > -1) {
-            verticesParts.put(vertex, newPart);
-            maxPart.getVertices().remove(vertex.getId());
-            parts.get(newPart).getVertices().put(vertex.getId(), vertex);
+            moveVertex(vertex, newPart, partOf, partWeights);
         }
     }
 
     /**
      * Moves vertex inside given part.
      * @param vertex        the vertex.
-     * @param parts         all parts.
-     * @param minPart       the given path.
-     * @param verticesParts mapping of vertices and their part number.
+     * @param newPart       index of the given part.
+     * @param partOf        part of each vertex by its dense index, -1 if vertex is free.
+     * @param partWeights   weights of parts.
      */
-    private void moveVertexIn(Vertex vertex, List<Graph> parts, Graph minPart, Map<Vertex, Integer> verticesParts) {
-        int part = verticesParts.get(vertex);
-        int partNumber = getPartNumber(parts, minPart);
-        verticesParts.put(vertex, partNumber);
-        parts.get(part).getVertices().remove(vertex.getId());
-        minPart.getVertices().put(vertex.getId(), vertex);
-    }
-
-    /**
-     * Gets number of given part.
-     * @param parts     list of all parts.
-     * @param minPart   given part.
-     * @return number of given part.
-     */
-    private int getPartNumber(List<Graph> parts, Graph minPart) {
-        int partNumber = -1;
-        for (int i = 0; i < parts.size(); i++) {
-            if (parts.get(i).equals(minPart)) {
-                return i;
-            }
+    private void moveVertex(Vertex vertex, int newPart, int[] partOf, PartWeights partWeights) {
+        int v = indexOf(vertex);
+        int part = partOf[v];
+        if (part == newPart) {
+            return;
         }
-        return partNumber;
+        partOf[v] = newPart;
+        partWeights.move(getCompactGraph().getVertexWeights()[v], part, newPart);
     }
 
     /**
-     * Finds the shortest path between maximal and minimal part.
+     * Finds the shortest path between maximal and minimal part. Dijkstra's search starts from all border
+     * vertices of the maximal part at once and may pass through vertices outside of both parts
+     * and through border vertices of the minimal part.
+     * The path is stored as the border vertex of the minimal part followed by the path from
+     * the border vertex of the maximal part to the vertex preceding it.
      * @param maxPart       index of max part.
      * @param minPart       index of min part.
+     * @param partOf        part of each vertex by its dense index, -1 if vertex is free.
+     * @param search        search used for finding the path.
+     * @param minPath       list where the path is stored, stays empty if there is no path.
      */
-    private void findShortestPathBetweenParts(Graph maxPart, Graph minPart, List<Vertex> minPath) {
-        List<Vertex> maxBorderPart = getBorderVertices(maxPart);
-        List<Vertex> minBorderPart = getBorderVertices(minPart);
+    private void findShortestPathBetweenParts(int maxPart, int minPart, int[] partOf, DijkstraSearch search,
+                                              List<Vertex> minPath) {
+        CompactGraph compactGraph = getCompactGraph();
+        int n = compactGraph.getVertexCount();
+        int[] maxBorder = new int[n];
+        int maxBorderCount = 0;
+        boolean[] minBorder = new boolean[n];
+        for (int v = 0; v < n; v++) {
+            if (partOf[v] == maxPart && isBorderVertex(v, partOf)) {
+                maxBorder[maxBorderCount++] = v;
+            } else if (partOf[v] == minPart && isBorderVertex(v, partOf)) {
+                minBorder[v] = true;
+            }
+        }
+        search.search(maxBorder, maxBorderCount, u -> partOf[u] != maxPart && (partOf[u] != minPart || minBorder[u]));
+        int target = -1;
         double minValue = Double.MAX_VALUE;
-        for (Vertex maxVertex: maxBorderPart) {
-            minValue = dijkstrasSearch(maxVertex, minBorderPart, minPart, maxPart, minPath, minValue);
-        }
-    }
-
-    /**
-     * Implementation of Dijkstra's search.
-     * @param maxVertex     maximal vertex.
-     * @param minBorderPart part with minimal border.
-     * @return minimal value of path.
-     */
-    private double dijkstrasSearch(Vertex maxVertex, List<Vertex> minBorderPart, Graph minPart, Graph maxPart, List<Vertex> minPath, double minValue) {
-        Map<Vertex, Double> distances = new HashMap<>();
-        Map<Vertex, List<Vertex>> shortestPaths = new HashMap<>();
-        distances.put(maxVertex, 0.0);
-
-        Set<Vertex> settledNodes = new HashSet<>();
-        Set<Vertex> unsettledNodes = new HashSet<>();
-
-        unsettledNodes.add(maxVertex);
-        while (unsettledNodes.size() != 0) {
-            Vertex currentNode = getLowestDistanceNode(unsettledNodes, distances);
-            unsettledNodes.remove(currentNode);
-            Map<Vertex, Double> neighbours = getAllVertexNeighbours(currentNode);
-            for (Map.Entry< Vertex, Double> neighbour: neighbours.entrySet()) {
-                Vertex adjacentNode = neighbour.getKey();
-                double edgeWeight = neighbour.getValue();
-                if (!settledNodes.contains(adjacentNode) && !maxPart.getVertices().containsKey(adjacentNode.getId()) && (!minPart.getVertices().containsKey(adjacentNode.getId()) || minBorderPart.contains(adjacentNode))) {
-                    calculateMinimumDistance(adjacentNode, edgeWeight, currentNode, distances, shortestPaths);
-                    unsettledNodes.add(adjacentNode);
-                }
-            }
-            settledNodes.add(currentNode);
-        }
-        for (Vertex vertex: minBorderPart) {
-            if(distances.containsKey(vertex)){
-                double value = distances.get(vertex);
-                if(minValue > value){
-                    minValue = value;
-                    minPath.clear();
-                    minPath.add(vertex);
-                    minPath.addAll(shortestPaths.get(vertex));
-                }
-            }
-        }
-        return  minValue;
-    }
-
-    /**
-     * Gets vertex with the lowest distance.
-     * @param unsettledNodes    Set of vertices.
-     * @param distances         Map of distances where key is vertex and value is distance.
-     * @return  vertex with the lowest distance.
-     */
-    private static Vertex getLowestDistanceNode(Set<Vertex> unsettledNodes, Map<Vertex, Double> distances) {
-        Vertex lowestDistanceNode = null;
-        double lowestDistance = Double.MAX_VALUE;
-        for (Vertex node: unsettledNodes) {
-            double nodeDistance = distances.get(node);
-            if (nodeDistance < lowestDistance) {
-                lowestDistance = nodeDistance;
-                lowestDistanceNode = node;
-            }
-        }
-        return lowestDistanceNode;
-    }
-
-    /**
-     * Calculates minimum distance.
-     * @param evaluationNode    Vertex for evaluation.
-     * @param edgeWeigh         Weight of edge between these two vertices.
-     * @param sourceNode        Source vertex.
-     * @param distances         Distances between vertices.
-     * @param shortestPaths     Shortest paths between vertices.
-     */
-    private static void calculateMinimumDistance(Vertex evaluationNode, double edgeWeigh, Vertex sourceNode,
-                                                 Map<Vertex, Double> distances, Map<Vertex, List<Vertex>> shortestPaths) {
-        double sourceDistance = distances.get(sourceNode);
-        if ((distances.get(evaluationNode) == null)|| (sourceDistance + edgeWeigh < distances.get(evaluationNode))) {
-            distances.put(evaluationNode, sourceDistance + edgeWeigh);
-            List<Vertex> shortestPath;
-            if(shortestPaths.containsKey(sourceNode)){
-                shortestPath = new LinkedList<>(shortestPaths.get(sourceNode));
-            } else{
-                shortestPath = new LinkedList<>();
-            }
-            shortestPath.add(sourceNode);
-            shortestPaths.put(evaluationNode, shortestPath);
-        }
-    }
-
-    /**
-     * Gets border vertices of part.
-     * @param part          part.
-     * @return  border vertices.
-     */
-    private List<Vertex> getBorderVertices(Graph part) {
-        List<Vertex> borderPart = new ArrayList<>();
-        for (Vertex vertex: part.getVertices().values()) {
-            boolean included = false;
-            for (Edge edge: vertex.getStartingEdges()) {
-                Vertex v = edge.getEndpoint();
-                if(!part.getVertices().containsKey(v.getId())){
-                    borderPart.add(vertex);
-                    included = true;
-                }
-            }
-            for(Edge edge: vertex.getEndingEdges()){
-                Vertex neighbour = edge.getStartpoint();
-                if(!part.getVertices().containsKey(neighbour.getId()) && !included){
-                    borderPart.add(vertex);
-                }
+        for (int v = 0; v < n; v++) {
+            if (minBorder[v] && search.getDistance(v) < minValue) {
+                minValue = search.getDistance(v);
+                target = v;
             }
         }
-        return borderPart;
-    }
-
-    /**
-     * Gets index of part with minimal value.
-     * @param parts     all parts.
-     * @return index of min part.
-     */
-    private Graph getMinPart(List<Graph> parts) {
-        double minValue = Double.MAX_VALUE;
-        Graph minPart = null;
-        for (Graph part : parts) {
-            double value = part.getWeightValue();
-            if (value < minValue) {
-                minValue = value;
-                minPart = part;
+        if (target >= 0) {
+            int[] path = search.getPath(target);
+            minPath.add(compactGraph.getVertex(target));
+            for (int i = 0; i < path.length - 1; i++) {
+                minPath.add(compactGraph.getVertex(path[i]));
             }
         }
-        return  minPart;
     }
 
     /**
-     * Gets index of part with maximal value.
-     * @param parts     all parts.
-     * @return index of max part.
+     * Checks if vertex has a neighbour in other part.
+     * @param v         dense index of the vertex.
+     * @param partOf    part of each vertex by its dense index, -1 if vertex is free.
+     * @return  true if vertex is on border of its part.
      */
-    private Graph getMaxPart(List<Graph> parts) {
-        double maxValue = 0;
-        Graph maxPart = null;
-        for (Graph part : parts) {
-            double value = part.getWeightValue();
-            if (value > maxValue) {
-                maxValue = value;
-                maxPart = part;
+    private boolean isBorderVertex(int v, int[] partOf) {
+        int[] offsets = getCompactGraph().getNeighbourOffsets();
+        int[] neighbours = getCompactGraph().getNeighbours();
+        for (int i = offsets[v]; i < offsets[v + 1]; i++) {
+            if (partOf[neighbours[i]] != partOf[v]) {
+                return true;
             }
         }
-        return  maxPart;
+        return false;
     }
 
     /**
-     * Computes connected subgraphs.
-     * @param parts  parts to be computed.
-     * @return list of connected graphs.
+     * Computes connected subparts of all parts by one breadth-first sweep over the graph.
+     * @param partOf        part of each vertex by its dense index, -1 if vertex is free.
+     * @param componentOf   array where connected subpart of each vertex is stored, -1 if vertex is free.
+     * @return number of connected subparts.
      */
-    private List<Graph> computeConnectedSubgraphs(List<Graph> parts) {
-        List<Graph> subgraphs = new ArrayList<>();
-        for (Graph part: parts) {
-            List<Vertex> visitedVertices = new ArrayList<>();
-            int i = 0;
-            Vertex[] vertices = new Vertex[part.getVertices().size()];
-            for (Vertex vertex : part.getVertices().values()) {
-                vertices[i] = vertex;
-                i++;
-            }
-            i = 0;
-            while(vertices.length > visitedVertices.size()){
-                for(; i < vertices.length; i++){
-                    if(!visitedVertices.contains(vertices[i])){
-                        break;
+    private int computeConnectedSubgraphs(int[] partOf, int[] componentOf) {
+        int[] offsets = getCompactGraph().getNeighbourOffsets();
+        int[] neighbours = getCompactGraph().getNeighbours();
+        int[] queue = new int[partOf.length];
+        Arrays.fill(componentOf, -1);
+        int componentsCount = 0;
+        for (int s = 0; s < partOf.length; s++) {
+            if (partOf[s] < 0 || componentOf[s] >= 0) {
+                continue;
+            }
+            int head = 0;
+            int tail = 0;
+            queue[tail++] = s;
+            componentOf[s] = componentsCount;
+            while (head < tail) {
+                int v = queue[head++];
+                for (int i = offsets[v]; i < offsets[v + 1]; i++) {
+                    int u = neighbours[i];
+                    if (componentOf[u] < 0 && partOf[u] == partOf[s]) {
+                        componentOf[u] = componentsCount;
+                        queue[tail++] = u;
                     }
                 }
-                Graph visitedVerticesPart = bfs(vertices[i], part);
-                subgraphs.add(visitedVerticesPart);
-                visitedVertices.addAll(visitedVerticesPart.getVertices().values());
             }
+            componentsCount++;
         }
-        return subgraphs;
-    }
-
-    /**
-     * Breath-First search used for finding connectivity of one part.
-     * @param s     source vertex.
-     * @param part  part where source vertex belongs.
-     * @return  connected subpart of the part.
-     */
-    private Graph bfs(Vertex s, Graph part) {
-        Graph visitedVerticesPart = new Graph(new HashMap<>(), null);
-        LinkedList<Vertex> queue = new LinkedList<>();
-        visitedVerticesPart.getVertices().put(s.getId(), s);
-        queue.add(s);
-        ListIterator<Edge> i;
-        while (queue.size() != 0) {
-            s = queue.poll();
-            for (i = s.getStartingEdges().listIterator(); i.hasNext();) {
-                Vertex v = i.next().getEndpoint();
-                if (!visitedVerticesPart.getVertices().containsValue(v) && part.getVertices().containsValue(v)) {
-                    queue.add(v);
-                    visitedVerticesPart.getVertices().put(v.getId(), v);
-                }
-            }
-            for (i = s.getEndingEdges().listIterator(); i.hasNext();) {
-                Vertex v = i.next().getStartpoint();
-                if (!visitedVerticesPart.getVertices().containsValue(v) && part.getVertices().containsValue(v)) {
-                    queue.add(v);
-                    visitedVerticesPart.getVertices().put(v.getId(), v);
-                }
-            }
-        }
-        return visitedVerticesPart;
+        return componentsCount;
     }
 
     /**
@@ -557,95 +472,53 @@ public class SpartsimAlgorithm extends APartitionAlgorithm {
     }
 
     /**
-     * Grows given part with index i.
+     * Grows given part with index i by its free neighbour with the heaviest edge to the part.
+     * Entries of neighbours claimed by any part in the meantime are skipped.
      * @param i                 index i.
-     * @param part              growing part.
-     * @param verticesParts     vertices partition
+     * @param partOf            part of each vertex by its dense index, -1 if vertex is free.
+     * @param frontier          free neighbours of the part.
      * @return  true if success.
      */
-    private boolean grow(int i, Graph part, Map<Vertex, Integer> verticesParts) {
-        int maxVertexID = -1;
-        double maxValue = 0;
-        boolean hasGrown = false;
-        for (Vertex vertex: part.getVertices().values()) {
-            Map<Integer, Double> neighbours = getVertexFreeNeighbours(vertex, verticesParts);
-            for (Map.Entry<Integer, Double> neighbour: neighbours.entrySet()) {
-                double value = Math.abs(neighbour.getValue());
-                if(value >= maxValue){
-                    maxVertexID = neighbour.getKey();
-                    maxValue = value;
-                    hasGrown = true;
-                }
+    private boolean grow(int i, int[] partOf, FrontierHeap frontier) {
+        while (!frontier.isEmpty()) {
+            int v = frontier.poll();
+            if (partOf[v] < 0) {
+                partOf[v] = i;
+                addFreeNeighbours(v, partOf, frontier);
+                return true;
             }
         }
-        if(hasGrown){
-            Vertex maxVertex = getGraph().getVertices().get(maxVertexID);
-            part.getVertices().put(maxVertexID, maxVertex);
-            verticesParts.put(maxVertex, i);
-        }
-        return hasGrown;
+        return false;
     }
 
     /**
-     * Gets all vertex's neighbours.
-     * @param vertex the vertex.
-     * @return all vertex's neighbours.
+     * Adds one entry for every free neighbour of vertex to frontier of its part,
+     * keyed by weight of the edge between them.
+     * @param v             dense index of the vertex.
+     * @param partOf        part of each vertex by its dense index, -1 if vertex is free.
+     * @param frontier      free neighbours of the part.
      */
-    private Map<Vertex, Double> getAllVertexNeighbours(Vertex vertex){
-        Map<Vertex, Double> neighbours = new HashMap<>();
-        for (Edge edge: vertex.getStartingEdges()) {
-            Vertex v = edge.getEndpoint();
-            neighbours.put(v, edge.getWeight());
-        }
-        for (Edge edge: vertex.getEndingEdges()) {
-            Vertex neighbour = edge.getStartpoint();
-            if (neighbours.containsKey(neighbour)) {
-                neighbours.put(neighbour, neighbours.get(neighbour) + edge.getWeight());
-            }
-            else {
-                neighbours.put(neighbour, edge.getWeight());
+    private void addFreeNeighbours(int v, int[] partOf, FrontierHeap frontier) {
+        int[] offsets = getCompactGraph().getNeighbourOffsets();
+        int[] neighbours = getCompactGraph().getNeighbours();
+        double[] weights = getCompactGraph().getNeighbourWeights();
+        for (int j = offsets[v]; j < offsets[v + 1]; j++) {
+            if (partOf[neighbours[j]] < 0) {
+                frontier.add(neighbours[j], Math.abs(weights[j]));
             }
         }
-        return neighbours;
-    }
-
-    /**
-     * Gets vertex's free neighbours.
-     * @param vertex            the vertex.
-     * @param verticesParts     vertices partition.
-     * @return vertex's free neighbours.
-     */
-    private Map<Integer, Double> getVertexFreeNeighbours(Vertex vertex, Map<Vertex, Integer> verticesParts) {
-        Map<Integer, Double> neighbours = new HashMap<>();
-        for (Edge edge: vertex.getStartingEdges()) {
-            Vertex neighbour = edge.getEndpoint();
-            if(!verticesParts.containsKey(neighbour)){
-                neighbours.put(neighbour.getId(), edge.getWeight());
-            }
-        }
-        for (Edge edge: vertex.getEndingEdges()) {
-            Vertex neighbour = edge.getStartpoint();
-            if(!verticesParts.containsKey(neighbour)){
-                if(neighbours.containsKey(neighbour.getId())){
-                    neighbours.put(neighbour.getId(), neighbours.get(neighbour.getId()) + edge.getWeight());
-                }else{
-                    neighbours.put(neighbour.getId(), edge.getWeight());
-                }
-            }
-        }
-        return neighbours;
     }
 
     /**
      * Gets the best candidate for starting vertex.
-     * @param verticesParts     vertices partition.
+     * @param partOf            part of each vertex by its dense index, -1 if vertex is free.
      * @return  the best candidate for starting vertex.
      */
-    private Vertex getBestCandidateVertex(Map<Vertex, Integer> verticesParts) {
+    private Vertex getBestCandidateVertex(int[] partOf) {
         int maxDegree = 0;
         Vertex bestVertex = null;
         for(Vertex vertex: getGraph().getVertices().values()){
-            if(((vertex.getStartingEdges().size() + vertex.getEndingEdges().size()) > maxDegree) && (!verticesParts.containsKey(vertex))){
+            if(((vertex.getStartingEdges().size() + vertex.getEndingEdges().size()) > maxDegree) && (partOf[indexOf(vertex)] < 0)){
                 maxDegree = vertex.getStartingEdges().size() + vertex.getEndingEdges().size();
                 bestVertex = vertex;
             }
@@ -653,4 +526,13 @@ public class SpartsimAlgorithm extends APartitionAlgorithm {
         return bestVertex;
     }
 
+    /**
+     * Gets dense index of vertex in compact graph.
+     * @param vertex    the vertex.
+     * @return  dense index of the vertex.
+     */
+    private int indexOf(Vertex vertex) {
+        return getCompactGraph().indexOf(vertex.getId());
+    }
+
 }
@@ -32,6 +32,7 @@ public abstract class APartitionAlgorithm {
         long time = System.currentTimeMillis();
         this.graphPartition = createGraphPartition();
         this.graphPartition.setTime(System.currentTimeMillis() - time);
+        this.graphPartition.setCompactGraph(getCompactGraph());
         return this.graphPartition;
     }
 
@@ -122,6 +123,14 @@ public abstract class APartitionAlgorithm {
         return this.graph;
     }
 
+    /**
+     * Gets compact (CSR) representation of graph to be divided.
+     * @return compact representation of the graph or null if there is no graph.
+     */
+    public final CompactGraph getCompactGraph(){
+        return this.graph == null ? null : this.graph.getCompactGraph();
+    }
+
     /**
      * Sets number of parts a graph to be divided.
      * @param partsCount    number of parts a graph to be divided.
@@ -0,0 +1,237 @@
+package bp.roadnetworkpartitioning;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Byte input of text graph readers. Input is read by blocks from a channel (or taken from
+ * a buffer already present in memory, e.g. a chunk of memory-mapped file) and parsed in place,
+ * numbers are converted directly from their digits without creating strings.
+ * @author Lucie Roy
+ * @version 18-10-2026
+ */
+public class ByteInput {
+    /** Size of the read buffer. */
+    private static final int BUFFER_SIZE = 1 << 16;
+    /** Max. number of significant digits of number converted without rounding error. */
+    private static final int MAX_EXACT_DIGITS = 15;
+    /** Powers of ten exactly representable as double. */
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22};
+
+    /** Name of the format used in error messages. */
+    private final String format;
+    /** Channel the input is read from, null if the whole input is in the buffer. */
+    private final ReadableByteChannel channel;
+    /** Buffer with part of the input. */
+    private final ByteBuffer buffer;
+    /** Number of bytes before the buffer, used in error messages. */
+    private long offset = 0;
+    /** Last read string or number. */
+    protected byte[] text = new byte[64];
+    /** Length of the last read string or number. */
+    protected int textLength = 0;
+
+    /**
+     * Constructor of input read from a channel.
+     * @param channel   Channel with the input.
+     * @param format    Name of the format used in error messages.
+     */
+    protected ByteInput(ReadableByteChannel channel, String format) {
+        this.format = format;
+        this.channel = channel;
+        this.buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        this.buffer.limit(0);
+    }
+
+    /**
+     * Constructor of input already present in memory.
+     * Bytes from position to limit of the buffer are read.
+     * @param buffer    Buffer with the input.
+     * @param format    Name of the format used in error messages.
+     */
+    protected ByteInput(ByteBuffer buffer, String format) {
+        this.format = format;
+        this.channel = null;
+        this.buffer = buffer;
+    }
+
+    /**
+     * Gets position of the input in the buffer.
+     * @return  position of the next byte in the buffer.
+     */
+    int position() {
+        return buffer.position();
+    }
+
+    /**
+     * Reads next byte.
+     * @return  the byte, -1 at the end of input.
+     * @throws IOException  if input cannot be read.
+     */
+    protected int read() throws IOException {
+        if (!buffer.hasRemaining() && !fill()) {
+            return -1;
+        }
+        return buffer.get() & 0xFF;
+    }
+
+    /**
+     * Returns the last read byte back to the buffer.
+     * @param c     the last read byte, -1 at the end of input.
+     */
+    protected void unread(int c) {
+        if (c >= 0) {
+            buffer.position(buffer.position() - 1);
+        }
+    }
+
+    /**
+     * Reads next block of input into the buffer.
+     * @return  true if at least one byte was read.
+     * @throws IOException  if input cannot be read.
+     */
+    private boolean fill() throws IOException {
+        if (channel == null) {
+            return false;
+        }
+        offset += buffer.limit();
+        buffer.clear();
+        int count = 0;
+        while (count == 0) {
+            count = channel.read(buffer);
+        }
+        buffer.flip();
+        return count > 0;
+    }
+
+    /**
+     * Reads number. Numbers with at most 15 significant digits and small exponent are converted
+     * exactly by one multiplication or division, other numbers by Double.parseDouble.
+     * The number is also stored as the last read string.
+     * @return  the number.
+     * @throws IOException  if input cannot be read or there is no number.
+     */
+    protected double readNumber() throws IOException {
+        textLength = 0;
+        boolean negative = false;
+        long mantissa = 0;
+        int digits = 0;
+        int exponent = 0;
+        boolean hasDigits = false;
+        int c = read();
+        if (c == '-' || c == '+') {
+            negative = c == '-';
+            appendText(c);
+            c = read();
+        }
+        while (c >= '0' && c <= '9') {
+            appendText(c);
+            hasDigits = true;
+            if (mantissa != 0 || c != '0') {
+                mantissa = mantissa * 10 + (c - '0');
+                digits++;
+            }
+            c = read();
+        }
+        if (c == '.') {
+            appendText(c);
+            c = read();
+            while (c >= '0' && c <= '9') {
+                appendText(c);
+                hasDigits = true;
+                if (mantissa != 0 || c != '0') {
+                    mantissa = mantissa * 10 + (c - '0');
+                    digits++;
+                }
+                exponent--;
+                c = read();
+            }
+        }
+        if (!hasDigits) {
+            unread(c);
+            throw malformed("number expected");
+        }
+        if (c == 'e' || c == 'E') {
+            appendText(c);
+            c = read();
+            boolean negativeExponent = c == '-';
+            if (c == '-' || c == '+') {
+                appendText(c);
+                c = read();
+            }
+            int explicitExponent = 0;
+            while (c >= '0' && c <= '9') {
+                appendText(c);
+                explicitExponent = Math.min(explicitExponent * 10 + (c - '0'), 100000);
+                c = read();
+            }
+            exponent += negativeExponent ? -explicitExponent : explicitExponent;
+        }
+        unread(c);
+        if (digits > MAX_EXACT_DIGITS || Math.abs(exponent) >= POWERS_OF_TEN.length) {
+            return Double.parseDouble(textToString());
+        }
+        double value = exponent >= 0 ? mantissa * POWERS_OF_TEN[exponent] : mantissa / POWERS_OF_TEN[-exponent];
+        return negative ? -value : value;
+    }
+
+    /**
+     * Appends byte to the last read string or number.
+     * @param c     the byte.
+     */
+    protected void appendText(int c) {
+        if (textLength == text.length) {
+            byte[] newText = new byte[text.length * 2];
+            System.arraycopy(text, 0, newText, 0, textLength);
+            text = newText;
+        }
+        text[textLength++] = (byte) c;
+    }
+
+    /**
+     * Checks if the last read string equals given bytes.
+     * @param expected  the bytes.
+     * @return  true if the string equals given bytes.
+     */
+    protected boolean textEquals(byte[] expected) {
+        if (textLength != expected.length) {
+            return false;
+        }
+        for (int i = 0; i < textLength; i++) {
+            if (text[i] != expected[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Converts the last read string to String.
+     * @return  the last read string.
+     */
+    protected String textToString() {
+        return new String(text, 0, textLength, StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * Creates exception describing malformed input at current position.
+     * @param message   description of the problem.
+     * @return  the exception.
+     */
+    protected IOException malformed(String message) {
+        return new IOException("Malformed " + format + " near byte " + (offset + buffer.position()) + ": " + message);
+    }
+
+    /**
+     * Converts ASCII string to bytes.
+     * @param s     the string.
+     * @return  bytes of the string.
+     */
+    protected static byte[] bytes(String s) {
+        return s.getBytes(StandardCharsets.US_ASCII);
+    }
+}
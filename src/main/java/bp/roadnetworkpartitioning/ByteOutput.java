@@ -0,0 +1,162 @@
+package bp.roadnetworkpartitioning;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Byte output of text graph writers. Text is formatted directly into a reusable byte buffer,
+ * numbers are formatted without creating strings whenever it is possible.
+ * @author Lucie Roy
+ * @version 18-10-2026
+ */
+public class ByteOutput {
+    /** Size of the output buffer. */
+    private static final int BUFFER_SIZE = 1 << 16;
+    /** Max. number of decimal places of numbers formatted without Double.toString. */
+    private static final int MAX_DECIMALS = 9;
+    /** Powers of ten used for formatting of numbers. */
+    private static final long[] POWERS_OF_TEN = {
+            1L, 10L, 100L, 1000L, 10000L, 100000L, 1000000L, 10000000L, 100000000L, 1000000000L};
+    /** Max. absolute value of scaled number, which is exactly representable as double. */
+    private static final double MAX_EXACT_VALUE = 1L << 53;
+
+    /** Stream the output is written to. */
+    private final OutputStream out;
+    /** Output buffer. */
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    /** Number of bytes in the buffer. */
+    private int count = 0;
+
+    /**
+     * Constructor of output.
+     * @param out   Stream the output is written to.
+     */
+    protected ByteOutput(OutputStream out) {
+        this.out = out;
+    }
+
+    /**
+     * Writes the buffer to the stream and flushes the stream.
+     * @throws IOException  if output cannot be written.
+     */
+    protected void flush() throws IOException {
+        out.write(buffer, 0, count);
+        count = 0;
+        out.flush();
+    }
+
+    /**
+     * Makes space in the buffer.
+     * @param size  Number of bytes which will be appended.
+     * @throws IOException  if output cannot be written.
+     */
+    private void ensureSpace(int size) throws IOException {
+        if (count + size > buffer.length) {
+            out.write(buffer, 0, count);
+            count = 0;
+        }
+    }
+
+    /**
+     * Appends one ASCII character.
+     * @param c     Appended character.
+     * @throws IOException  if output cannot be written.
+     */
+    protected void appendByte(int c) throws IOException {
+        ensureSpace(1);
+        buffer[count++] = (byte) c;
+    }
+
+    /**
+     * Appends bytes.
+     * @param bytes     Appended bytes (shorter than the buffer).
+     * @throws IOException  if output cannot be written.
+     */
+    protected void append(byte[] bytes) throws IOException {
+        ensureSpace(bytes.length);
+        System.arraycopy(bytes, 0, buffer, count, bytes.length);
+        count += bytes.length;
+    }
+
+    /**
+     * Appends integer.
+     * @param value     Appended integer.
+     * @throws IOException  if output cannot be written.
+     */
+    protected void append(long value) throws IOException {
+        ensureSpace(20);
+        if (value < 0) {
+            if (value == Long.MIN_VALUE) {
+                append(bytes(Long.toString(value)));
+                return;
+            }
+            buffer[count++] = '-';
+            value = -value;
+        }
+        int end = count + digits(value);
+        for (int i = end - 1; i >= count; i--) {
+            buffer[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        count = end;
+    }
+
+    /**
+     * Appends double. Number which is exactly given by at most 9 decimal places is written
+     * as fixed-point number, so it is parsed back to the same double, other numbers are
+     * written by Double.toString.
+     * @param value     Appended double.
+     * @throws IOException  if output cannot be written.
+     */
+    protected void append(double value) throws IOException {
+        double abs = Math.abs(value);
+        for (int decimals = 0; decimals <= MAX_DECIMALS; decimals++) {
+            double scaled = abs * POWERS_OF_TEN[decimals];
+            if (!(scaled < MAX_EXACT_VALUE)) {
+                break;
+            }
+            long digits = Math.round(scaled);
+            if (digits / (double) POWERS_OF_TEN[decimals] == abs) {
+                ensureSpace(30);
+                if (value < 0) {
+                    buffer[count++] = '-';
+                }
+                append(digits / POWERS_OF_TEN[decimals]);
+                buffer[count++] = '.';
+                long fraction = digits % POWERS_OF_TEN[decimals];
+                int end = count + Math.max(1, decimals);
+                for (int i = end - 1; i >= count; i--) {
+                    buffer[i] = (byte) ('0' + fraction % 10);
+                    fraction /= 10;
+                }
+                count = end;
+                return;
+            }
+        }
+        append(bytes(Double.toString(value)));
+    }
+
+    /**
+     * Counts decimal digits of non-negative number.
+     * @param value     Non-negative number.
+     * @return  number of digits.
+     */
+    private static int digits(long value) {
+        int digits = 1;
+        while (value >= 10) {
+            value /= 10;
+            digits++;
+        }
+        return digits;
+    }
+
+    /**
+     * Converts ASCII string to bytes.
+     * @param s     the string.
+     * @return  bytes of the string.
+     */
+    protected static byte[] bytes(String s) {
+        return s.getBytes(StandardCharsets.US_ASCII);
+    }
+}
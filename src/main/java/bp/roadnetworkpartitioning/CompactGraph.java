@@ -0,0 +1,512 @@
+package bp.roadnetworkpartitioning;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Instance of this class represents immutable graph stored in compressed sparse row (CSR) form.
+ * Vertices are addressed by dense indices 0..n-1 ordered by their (external) ID,
+ * edges are addressed by indices 0..m-1 ordered by their start vertex.
+ * Arrays returned by getters are shared with the instance and must not be modified.
+ * @author Lucie Roy
+ * @version 18-10-2026
+ */
+public class CompactGraph {
+
+    /** External IDs of vertices sorted ascending, index is dense vertex index. */
+    private final int[] vertexIds;
+    /** X-coordinates of vertices. */
+    private final double[] xCoordinates;
+    /** Y-coordinates of vertices. */
+    private final double[] yCoordinates;
+    /** Values of vertices. */
+    private final double[] vertexValues;
+    /** Weights of vertices (value and halves of weights of all incident edges). */
+    private final double[] vertexWeights;
+    /** Offsets of edges starting in each vertex, edges of vertex v are in [offsets[v], offsets[v + 1]). */
+    private final int[] edgeOffsets;
+    /** Dense index of endpoint of each edge. */
+    private final int[] edgeTargets;
+    /** External IDs of edges. */
+    private final int[] edgeIds;
+    /** Lengths of edges. */
+    private final double[] edgeLengths;
+    /** Capacities of edges. */
+    private final double[] edgeCapacities;
+    /** Weights of edges (length multiplied by capacity). */
+    private final double[] edgeWeights;
+    /** Offsets of neighbours of each vertex when edge direction is ignored. */
+    private int[] neighbourOffsets = null;
+    /** Dense indices of neighbours when edge direction is ignored. */
+    private int[] neighbours = null;
+    /** Total weight of all edges between vertex and its neighbour regardless of direction. */
+    private double[] neighbourWeights = null;
+    /** Graph this instance was created from or materialised graph. */
+    private Graph graph = null;
+    /** Graph this instance is subgraph of, null if it is not a subgraph. */
+    private CompactGraph parent = null;
+    /** Dense indices of vertices in parent graph. */
+    private int[] parentIndices = null;
+
+    /**
+     * Constructor of compact graph from already prepared arrays.
+     * @param vertexIds         External IDs of vertices sorted ascending.
+     * @param xCoordinates      X-coordinates of vertices.
+     * @param yCoordinates      Y-coordinates of vertices.
+     * @param vertexValues      Values of vertices.
+     * @param edgeOffsets       Offsets of edges starting in each vertex (length n + 1).
+     * @param edgeTargets       Dense index of endpoint of each edge.
+     * @param edgeIds           External IDs of edges.
+     * @param edgeLengths       Lengths of edges.
+     * @param edgeCapacities    Capacities of edges.
+     */
+    CompactGraph(int[] vertexIds, double[] xCoordinates, double[] yCoordinates, double[] vertexValues,
+                 int[] edgeOffsets, int[] edgeTargets, int[] edgeIds, double[] edgeLengths, double[] edgeCapacities) {
+        this.vertexIds = vertexIds;
+        this.xCoordinates = xCoordinates;
+        this.yCoordinates = yCoordinates;
+        this.vertexValues = vertexValues;
+        this.edgeOffsets = edgeOffsets;
+        this.edgeTargets = edgeTargets;
+        this.edgeIds = edgeIds;
+        this.edgeLengths = edgeLengths;
+        this.edgeCapacities = edgeCapacities;
+        this.edgeWeights = new double[edgeTargets.length];
+        this.vertexWeights = vertexValues.clone();
+        for (int v = 0; v < vertexIds.length; v++) {
+            for (int e = edgeOffsets[v]; e < edgeOffsets[v + 1]; e++) {
+                double weight = edgeLengths[e] * edgeCapacities[e];
+                edgeWeights[e] = weight;
+                vertexWeights[v] += weight / 2;
+                vertexWeights[edgeTargets[e]] += weight / 2;
+            }
+        }
+    }
+
+    /**
+     * Constructor of compact graph with already computed weights.
+     * @param vertexIds         External IDs of vertices sorted ascending.
+     * @param xCoordinates      X-coordinates of vertices.
+     * @param yCoordinates      Y-coordinates of vertices.
+     * @param vertexValues      Values of vertices.
+     * @param vertexWeights     Weights of vertices.
+     * @param edgeOffsets       Offsets of edges starting in each vertex (length n + 1).
+     * @param edgeTargets       Dense index of endpoint of each edge.
+     * @param edgeIds           External IDs of edges.
+     * @param edgeLengths       Lengths of edges.
+     * @param edgeCapacities    Capacities of edges.
+     * @param edgeWeights       Weights of edges.
+     */
+    private CompactGraph(int[] vertexIds, double[] xCoordinates, double[] yCoordinates, double[] vertexValues,
+                         double[] vertexWeights, int[] edgeOffsets, int[] edgeTargets, int[] edgeIds,
+                         double[] edgeLengths, double[] edgeCapacities, double[] edgeWeights) {
+        this.vertexIds = vertexIds;
+        this.xCoordinates = xCoordinates;
+        this.yCoordinates = yCoordinates;
+        this.vertexValues = vertexValues;
+        this.vertexWeights = vertexWeights;
+        this.edgeOffsets = edgeOffsets;
+        this.edgeTargets = edgeTargets;
+        this.edgeIds = edgeIds;
+        this.edgeLengths = edgeLengths;
+        this.edgeCapacities = edgeCapacities;
+        this.edgeWeights = edgeWeights;
+    }
+
+    /**
+     * Creates compact graph from given graph.
+     * Edges whose endpoint is not a vertex of the graph are left out.
+     * @param graph     Graph to be converted.
+     * @return  compact representation of the graph.
+     */
+    public static CompactGraph fromGraph(Graph graph) {
+        Map<Integer, Vertex> vertices = graph.getVertices();
+        int n = vertices.size();
+        int[] vertexIds = new int[n];
+        int i = 0;
+        for (int id : vertices.keySet()) {
+            vertexIds[i++] = id;
+        }
+        Arrays.sort(vertexIds);
+        double[] xCoordinates = new double[n];
+        double[] yCoordinates = new double[n];
+        double[] vertexValues = new double[n];
+        int[] edgeOffsets = new int[n + 1];
+        int m = 0;
+        for (int v = 0; v < n; v++) {
+            Vertex vertex = vertices.get(vertexIds[v]);
+            xCoordinates[v] = vertex.getX();
+            yCoordinates[v] = vertex.getY();
+            vertexValues[v] = vertex.getValue();
+            for (Edge edge : vertex.getStartingEdges()) {
+                if (Arrays.binarySearch(vertexIds, edge.getEndpoint().getId()) >= 0) {
+                    m++;
+                }
+            }
+            edgeOffsets[v + 1] = m;
+        }
+        int[] edgeTargets = new int[m];
+        int[] edgeIds = new int[m];
+        double[] edgeLengths = new double[m];
+        double[] edgeCapacities = new double[m];
+        int e = 0;
+        for (int v = 0; v < n; v++) {
+            for (Edge edge : vertices.get(vertexIds[v]).getStartingEdges()) {
+                int target = Arrays.binarySearch(vertexIds, edge.getEndpoint().getId());
+                if (target >= 0) {
+                    edgeTargets[e] = target;
+                    edgeIds[e] = edge.getId();
+                    edgeLengths[e] = edge.getLength();
+                    edgeCapacities[e] = edge.getCapacity();
+                    e++;
+                }
+            }
+        }
+        CompactGraph compactGraph = new CompactGraph(vertexIds, xCoordinates, yCoordinates, vertexValues,
+                edgeOffsets, edgeTargets, edgeIds, edgeLengths, edgeCapacities);
+        compactGraph.graph = graph;
+        return compactGraph;
+    }
+
+    /**
+     * Creates subgraph induced by given vertices. Vertices keep their IDs, coordinates, values and weights
+     * (so weights still include halves of edges going out of the subgraph), only edges with both
+     * start and end in the subgraph are kept. Vertex i of the subgraph is vertex vertices[i] of this graph.
+     * @param vertices  Dense indices of vertices of the subgraph sorted ascending.
+     * @return  induced subgraph.
+     */
+    public CompactGraph inducedSubgraph(int[] vertices) {
+        int n = vertices.length;
+        int[] localIndices = new int[getVertexCount()];
+        Arrays.fill(localIndices, -1);
+        for (int i = 0; i < n; i++) {
+            localIndices[vertices[i]] = i;
+        }
+        int[] ids = new int[n];
+        double[] x = new double[n];
+        double[] y = new double[n];
+        double[] values = new double[n];
+        double[] weights = new double[n];
+        int[] offsets = new int[n + 1];
+        int m = 0;
+        for (int i = 0; i < n; i++) {
+            int v = vertices[i];
+            ids[i] = vertexIds[v];
+            x[i] = xCoordinates[v];
+            y[i] = yCoordinates[v];
+            values[i] = vertexValues[v];
+            weights[i] = vertexWeights[v];
+            for (int e = edgeOffsets[v]; e < edgeOffsets[v + 1]; e++) {
+                if (localIndices[edgeTargets[e]] >= 0) {
+                    m++;
+                }
+            }
+            offsets[i + 1] = m;
+        }
+        int[] targets = new int[m];
+        int[] subEdgeIds = new int[m];
+        double[] lengths = new double[m];
+        double[] capacities = new double[m];
+        double[] subEdgeWeights = new double[m];
+        int p = 0;
+        for (int v : vertices) {
+            for (int e = edgeOffsets[v]; e < edgeOffsets[v + 1]; e++) {
+                int target = localIndices[edgeTargets[e]];
+                if (target >= 0) {
+                    targets[p] = target;
+                    subEdgeIds[p] = edgeIds[e];
+                    lengths[p] = edgeLengths[e];
+                    capacities[p] = edgeCapacities[e];
+                    subEdgeWeights[p] = edgeWeights[e];
+                    p++;
+                }
+            }
+        }
+        CompactGraph subgraph = new CompactGraph(ids, x, y, values, weights, offsets, targets, subEdgeIds,
+                lengths, capacities, subEdgeWeights);
+        subgraph.parent = this;
+        subgraph.parentIndices = vertices;
+        return subgraph;
+    }
+
+    /**
+     * Gets graph with Vertex and Edge instances.
+     * If this instance was not created from such graph, the graph is materialised on first call
+     * (for subgraph into new instances with edges of the subgraph only).
+     * @return graph with Vertex and Edge instances.
+     */
+    public synchronized Graph toGraph() {
+        if (graph == null) {
+            int n = getVertexCount();
+            Vertex[] vertexArray = new Vertex[n];
+            Map<Integer, Vertex> vertices = new HashMap<>();
+            for (int v = 0; v < n; v++) {
+                vertexArray[v] = new Vertex(vertexIds[v], xCoordinates[v], yCoordinates[v]);
+                vertexArray[v].setValue(vertexValues[v]);
+                vertices.put(vertexIds[v], vertexArray[v]);
+            }
+            Map<Integer, Edge> edges = new HashMap<>();
+            for (int v = 0; v < n; v++) {
+                for (int e = edgeOffsets[v]; e < edgeOffsets[v + 1]; e++) {
+                    Edge edge = new Edge(edgeIds[e], vertexArray[v], vertexArray[edgeTargets[e]], edgeLengths[e]);
+                    edge.setCapacity(edgeCapacities[e]);
+                    vertexArray[v].getStartingEdges().add(edge);
+                    vertexArray[edgeTargets[e]].getEndingEdges().add(edge);
+                    edges.put(edge.getId(), edge);
+                }
+            }
+            graph = new Graph(vertices, edges);
+            graph.setCompactGraph(this);
+        }
+        return graph;
+    }
+
+    /**
+     * Gets vertex instance with given dense index.
+     * Vertex instances of a subgraph are vertex instances of the graph it was created from.
+     * @param index     Dense index of vertex.
+     * @return  vertex instance.
+     */
+    public Vertex getVertex(int index) {
+        if (parent != null) {
+            return parent.getVertex(parentIndices[index]);
+        }
+        return toGraph().getVertices().get(vertexIds[index]);
+    }
+
+    /**
+     * Gets dense index of vertex with given ID.
+     * @param id    External ID of vertex.
+     * @return  dense index of vertex or -1 if graph does not contain such vertex.
+     */
+    public int indexOf(int id) {
+        int index = Arrays.binarySearch(vertexIds, id);
+        return index >= 0 ? index : -1;
+    }
+
+    /**
+     * Gets number of vertices.
+     * @return number of vertices.
+     */
+    public int getVertexCount() {
+        return vertexIds.length;
+    }
+
+    /**
+     * Gets number of edges.
+     * @return number of edges.
+     */
+    public int getEdgeCount() {
+        return edgeTargets.length;
+    }
+
+    /**
+     * Gets external IDs of vertices, index is dense vertex index.
+     * @return external IDs of vertices.
+     */
+    public int[] getVertexIds() {
+        return vertexIds;
+    }
+
+    /**
+     * Gets x-coordinates of vertices.
+     * @return x-coordinates of vertices.
+     */
+    public double[] getXCoordinates() {
+        return xCoordinates;
+    }
+
+    /**
+     * Gets y-coordinates of vertices.
+     * @return y-coordinates of vertices.
+     */
+    public double[] getYCoordinates() {
+        return yCoordinates;
+    }
+
+    /**
+     * Gets values of vertices.
+     * @return values of vertices.
+     */
+    public double[] getVertexValues() {
+        return vertexValues;
+    }
+
+    /**
+     * Gets weights of vertices. Weight of vertex is its value
+     * and halves of weights of all its starting and ending edges,
+     * so sum of weights of vertices of a part equals Graph.getWeightValue() of the part.
+     * @return weights of vertices.
+     */
+    public double[] getVertexWeights() {
+        return vertexWeights;
+    }
+
+    /**
+     * Gets offsets of starting edges of vertices.
+     * Edges starting in vertex v have indices from offsets[v] (inclusive) to offsets[v + 1] (exclusive).
+     * @return offsets of starting edges (length is number of vertices + 1).
+     */
+    public int[] getEdgeOffsets() {
+        return edgeOffsets;
+    }
+
+    /**
+     * Gets dense indices of endpoints of edges.
+     * @return dense indices of endpoints of edges.
+     */
+    public int[] getEdgeTargets() {
+        return edgeTargets;
+    }
+
+    /**
+     * Gets external IDs of edges.
+     * @return external IDs of edges.
+     */
+    public int[] getEdgeIds() {
+        return edgeIds;
+    }
+
+    /**
+     * Gets lengths of edges.
+     * @return lengths of edges.
+     */
+    public double[] getEdgeLengths() {
+        return edgeLengths;
+    }
+
+    /**
+     * Gets capacities of edges.
+     * @return capacities of edges.
+     */
+    public double[] getEdgeCapacities() {
+        return edgeCapacities;
+    }
+
+    /**
+     * Gets weights of edges.
+     * @return weights of edges.
+     */
+    public double[] getEdgeWeights() {
+        return edgeWeights;
+    }
+
+    /**
+     * Gets total weight of the graph as the sum of weights of its vertices (see getVertexWeights()).
+     * Only edges stored in this graph are counted, so for a component or subgraph it can differ
+     * from Graph.getWeightValue().
+     * @return total weight of the graph.
+     */
+    public double getTotalWeight() {
+        double value = 0;
+        for (double vertexWeight : vertexWeights) {
+            value += vertexWeight;
+        }
+        return value;
+    }
+
+    /**
+     * Gets offsets of neighbours of vertices when edge direction is ignored.
+     * Neighbours of vertex v have indices from offsets[v] (inclusive) to offsets[v + 1] (exclusive).
+     * @return offsets of neighbours (length is number of vertices + 1).
+     */
+    public int[] getNeighbourOffsets() {
+        buildNeighbours();
+        return neighbourOffsets;
+    }
+
+    /**
+     * Gets dense indices of neighbours when edge direction is ignored.
+     * Each neighbour is listed once per vertex.
+     * @return dense indices of neighbours.
+     */
+    public int[] getNeighbours() {
+        buildNeighbours();
+        return neighbours;
+    }
+
+    /**
+     * Gets total weights of all edges between vertex and its neighbour in both directions.
+     * @return weights of connections to neighbours.
+     */
+    public double[] getNeighbourWeights() {
+        buildNeighbours();
+        return neighbourWeights;
+    }
+
+    /**
+     * Builds undirected adjacency where edges u to v and v to u are merged.
+     */
+    private synchronized void buildNeighbours() {
+        if (neighbourOffsets != null) {
+            return;
+        }
+        int n = getVertexCount();
+        int m = getEdgeCount();
+        int[] inOffsets = new int[n + 1];
+        for (int e = 0; e < m; e++) {
+            inOffsets[edgeTargets[e] + 1]++;
+        }
+        for (int v = 0; v < n; v++) {
+            inOffsets[v + 1] += inOffsets[v];
+        }
+        int[] inEdges = new int[m];
+        int[] inSources = new int[m];
+        int[] position = Arrays.copyOf(inOffsets, n);
+        for (int v = 0; v < n; v++) {
+            for (int e = edgeOffsets[v]; e < edgeOffsets[v + 1]; e++) {
+                int p = position[edgeTargets[e]]++;
+                inEdges[p] = e;
+                inSources[p] = v;
+            }
+        }
+        int[] offsets = new int[n + 1];
+        int[] targets = new int[2 * m];
+        double[] weights = new double[2 * m];
+        int[] slot = new int[n];
+        Arrays.fill(slot, -1);
+        int count = 0;
+        for (int v = 0; v < n; v++) {
+            int start = count;
+            for (int e = edgeOffsets[v]; e < edgeOffsets[v + 1]; e++) {
+                count = addNeighbour(v, edgeTargets[e], edgeWeights[e], slot, targets, weights, count);
+            }
+            for (int i = inOffsets[v]; i < inOffsets[v + 1]; i++) {
+                count = addNeighbour(v, inSources[i], edgeWeights[inEdges[i]], slot, targets, weights, count);
+            }
+            for (int i = start; i < count; i++) {
+                slot[targets[i]] = -1;
+            }
+            offsets[v + 1] = count;
+        }
+        neighbours = Arrays.copyOf(targets, count);
+        neighbourWeights = Arrays.copyOf(weights, count);
+        neighbourOffsets = offsets;
+    }
+
+    /**
+     * Adds neighbour to vertex being processed or merges weight with already added one.
+     * @param v         Vertex whose neighbours are collected.
+     * @param u         The neighbour.
+     * @param weight    Weight of edge between them.
+     * @param slot      Position of already added neighbours, -1 if not added.
+     * @param targets   Collected neighbours.
+     * @param weights   Collected weights.
+     * @param count     Number of collected neighbours.
+     * @return  new number of collected neighbours.
+     */
+    private static int addNeighbour(int v, int u, double weight, int[] slot, int[] targets, double[] weights, int count) {
+        if (u == v) {
+            return count;
+        }
+        if (slot[u] >= 0) {
+            weights[slot[u]] += weight;
+            return count;
+        }
+        slot[u] = count;
+        targets[count] = u;
+        weights[count] = weight;
+        return count + 1;
+    }
+}
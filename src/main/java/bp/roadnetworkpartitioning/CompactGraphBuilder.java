@@ -0,0 +1,167 @@
+package bp.roadnetworkpartitioning;
+
+import java.util.Arrays;
+
+/**
+ * Instance of this class collects vertices and edges into growable primitive arrays
+ * and creates compact graph out of them, so graph can be read without creating
+ * Vertex and Edge instances.
+ * @author Lucie Roy
+ * @version 18-10-2026
+ */
+public class CompactGraphBuilder {
+    /** Initial capacity of arrays. */
+    private static final int INITIAL_CAPACITY = 1024;
+    /** Number of added vertices. */
+    private int vertexCount = 0;
+    /** IDs of added vertices. */
+    private int[] vertexIds = new int[INITIAL_CAPACITY];
+    /** X-coordinates of added vertices. */
+    private double[] xCoordinates = new double[INITIAL_CAPACITY];
+    /** Y-coordinates of added vertices. */
+    private double[] yCoordinates = new double[INITIAL_CAPACITY];
+    /** Number of added edges. */
+    private int edgeCount = 0;
+    /** IDs of start vertices of added edges. */
+    private int[] edgeStarts = new int[INITIAL_CAPACITY];
+    /** IDs of end vertices of added edges. */
+    private int[] edgeEnds = new int[INITIAL_CAPACITY];
+    /** Lengths of added edges. */
+    private double[] edgeLengths = new double[INITIAL_CAPACITY];
+    /** Capacities of added edges. */
+    private double[] edgeCapacities = new double[INITIAL_CAPACITY];
+
+    /**
+     * Adds vertex. When more vertices with the same ID are added, the first one is used.
+     * @param id    ID of vertex.
+     * @param x     Coordinate x.
+     * @param y     Coordinate y.
+     */
+    public void addVertex(int id, double x, double y) {
+        if (vertexCount == vertexIds.length) {
+            int capacity = vertexCount * 2;
+            vertexIds = Arrays.copyOf(vertexIds, capacity);
+            xCoordinates = Arrays.copyOf(xCoordinates, capacity);
+            yCoordinates = Arrays.copyOf(yCoordinates, capacity);
+        }
+        vertexIds[vertexCount] = id;
+        xCoordinates[vertexCount] = x;
+        yCoordinates[vertexCount] = y;
+        vertexCount++;
+    }
+
+    /**
+     * Adds edge between two vertices given by their IDs.
+     * Edges whose start or end vertex is never added are left out of the graph.
+     * @param startId   ID of start vertex.
+     * @param endId     ID of end vertex.
+     * @param length    Length of edge, default length 1 is used if it is not positive.
+     * @param capacity  Capacity of edge, default capacity 1 is used if it is not positive (or NaN).
+     */
+    public void addEdge(int startId, int endId, double length, double capacity) {
+        if (edgeCount == edgeStarts.length) {
+            int newCapacity = edgeCount * 2;
+            edgeStarts = Arrays.copyOf(edgeStarts, newCapacity);
+            edgeEnds = Arrays.copyOf(edgeEnds, newCapacity);
+            edgeLengths = Arrays.copyOf(edgeLengths, newCapacity);
+            edgeCapacities = Arrays.copyOf(edgeCapacities, newCapacity);
+        }
+        edgeStarts[edgeCount] = startId;
+        edgeEnds[edgeCount] = endId;
+        edgeLengths[edgeCount] = length > 0 ? length : 1;
+        edgeCapacities[edgeCount] = capacity > 0 ? capacity : 1;
+        edgeCount++;
+    }
+
+    /**
+     * Adds all vertices and edges collected by another builder after vertices and edges of this builder.
+     * @param builder   Builder whose vertices and edges are added.
+     */
+    public void addAll(CompactGraphBuilder builder) {
+        for (int i = 0; i < builder.vertexCount; i++) {
+            addVertex(builder.vertexIds[i], builder.xCoordinates[i], builder.yCoordinates[i]);
+        }
+        for (int i = 0; i < builder.edgeCount; i++) {
+            addEdge(builder.edgeStarts[i], builder.edgeEnds[i], builder.edgeLengths[i], builder.edgeCapacities[i]);
+        }
+    }
+
+    /**
+     * Gets number of added vertices (including duplicates).
+     * @return number of added vertices.
+     */
+    public int getVertexCount() {
+        return vertexCount;
+    }
+
+    /**
+     * Gets number of added edges.
+     * @return number of added edges.
+     */
+    public int getEdgeCount() {
+        return edgeCount;
+    }
+
+    /**
+     * Creates compact graph from added vertices and edges.
+     * Edges get IDs 1..m in order they were added.
+     * @return compact graph.
+     */
+    public CompactGraph build() {
+        long[] order = new long[vertexCount];
+        for (int i = 0; i < vertexCount; i++) {
+            order[i] = ((long) vertexIds[i] << 32) | i;
+        }
+        Arrays.sort(order);
+        int n = 0;
+        int[] ids = new int[vertexCount];
+        double[] x = new double[vertexCount];
+        double[] y = new double[vertexCount];
+        for (int i = 0; i < vertexCount; i++) {
+            int id = (int) (order[i] >> 32);
+            if (n > 0 && ids[n - 1] == id) {
+                continue;
+            }
+            int source = (int) order[i];
+            ids[n] = id;
+            x[n] = xCoordinates[source];
+            y[n] = yCoordinates[source];
+            n++;
+        }
+        ids = Arrays.copyOf(ids, n);
+        x = Arrays.copyOf(x, n);
+        y = Arrays.copyOf(y, n);
+        double[] values = new double[n];
+        Arrays.fill(values, 1.0);
+
+        int[] starts = new int[edgeCount];
+        int[] ends = new int[edgeCount];
+        int[] offsets = new int[n + 1];
+        for (int e = 0; e < edgeCount; e++) {
+            starts[e] = Arrays.binarySearch(ids, edgeStarts[e]);
+            ends[e] = Arrays.binarySearch(ids, edgeEnds[e]);
+            if (starts[e] >= 0 && ends[e] >= 0) {
+                offsets[starts[e] + 1]++;
+            }
+        }
+        for (int v = 0; v < n; v++) {
+            offsets[v + 1] += offsets[v];
+        }
+        int m = offsets[n];
+        int[] targets = new int[m];
+        int[] edgeIds = new int[m];
+        double[] lengths = new double[m];
+        double[] capacities = new double[m];
+        int[] position = Arrays.copyOf(offsets, n);
+        for (int e = 0; e < edgeCount; e++) {
+            if (starts[e] >= 0 && ends[e] >= 0) {
+                int p = position[starts[e]]++;
+                targets[p] = ends[e];
+                edgeIds[p] = e + 1;
+                lengths[p] = edgeLengths[e];
+                capacities[p] = edgeCapacities[e];
+            }
+        }
+        return new CompactGraph(ids, x, y, values, offsets, targets, edgeIds, lengths, capacities);
+    }
+}
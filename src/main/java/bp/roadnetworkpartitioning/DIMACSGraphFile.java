@@ -0,0 +1,348 @@
+package bp.roadnetworkpartitioning;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Reader and writer of graphs in format of the 9th DIMACS Implementation Challenge (Shortest Paths),
+ * in which e.g. the USA road networks are published. Graph file (.gr) contains problem line "p sp n m"
+ * and one line "a u v w" per arc, coordinates file (.co) contains problem line "p aux sp co n" and
+ * one line "v id x y" per vertex, lines starting with "c" are comments. Coordinates are integers
+ * in millionths of degree, so they are divided by 10^6 when read. Arc weight is used as edge length.
+ * Large files are memory-mapped, cut at line breaks and parsed in parallel.
+ * @author Lucie Roy
+ * @version 18-10-2026
+ */
+public class DIMACSGraphFile {
+    /** Extension of graph file. */
+    public static final String GRAPH_EXTENSION = ".gr";
+    /** Extension of coordinates file. */
+    public static final String COORDINATES_EXTENSION = ".co";
+    /** Scale of integer coordinates (millionths of degree). */
+    public static final double COORDINATE_SCALE = 1e6;
+    /** Name of the format used in error messages. */
+    private static final String FORMAT = "DIMACS";
+    /** Minimal size of chunk of file parsed by one task in bytes. */
+    private static final int MIN_CHUNK_SIZE = 1 << 22;
+    /** Number of chunks per worker thread. */
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    /**
+     * Checks if file is DIMACS graph or coordinates file by its name.
+     * @param file  Checked file.
+     * @return  true if file is DIMACS file.
+     */
+    public static boolean isDIMACS(File file) {
+        String name = file.getName().toLowerCase(Locale.ROOT);
+        return name.endsWith(GRAPH_EXTENSION) || name.endsWith(COORDINATES_EXTENSION);
+    }
+
+    /**
+     * Reads graph given by its graph or coordinates file, the other file is found by its name.
+     * @param file  Graph or coordinates file.
+     * @return  created compact graph.
+     * @throws IOException  if files cannot be read or are not valid DIMACS files.
+     */
+    public static CompactGraph read(File file) throws IOException {
+        String name = file.getName();
+        String prefix = name.substring(0, name.lastIndexOf('.'));
+        File graphFile = new File(file.getParentFile(), prefix + GRAPH_EXTENSION);
+        File coordinatesFile = new File(file.getParentFile(), prefix + COORDINATES_EXTENSION);
+        return read(graphFile, coordinatesFile.isFile() ? coordinatesFile : null);
+    }
+
+    /**
+     * Reads graph. Vertices are given by coordinates file, or by number of vertices in graph file
+     * (with coordinates [0, 0]) if coordinates are not known.
+     * @param graphFile         Graph file with arcs.
+     * @param coordinatesFile   Coordinates file, null if coordinates are not known.
+     * @return  created compact graph.
+     * @throws IOException  if files cannot be read or are not valid DIMACS files.
+     */
+    public static CompactGraph read(File graphFile, File coordinatesFile) throws IOException {
+        int parallelism = ForkJoinPool.getCommonPoolParallelism();
+        int chunkSize = parallelism <= 1 ? Integer.MAX_VALUE
+                : (int) Math.max(MIN_CHUNK_SIZE, graphFile.length() / (parallelism * CHUNKS_PER_THREAD));
+        return read(graphFile, coordinatesFile, chunkSize);
+    }
+
+    /**
+     * Reads graph, files are parsed in parallel by chunks of given size.
+     * @param graphFile         Graph file with arcs.
+     * @param coordinatesFile   Coordinates file, null if coordinates are not known.
+     * @param chunkSize         Min. size of chunk of file parsed by one task in bytes.
+     * @return  created compact graph.
+     * @throws IOException  if files cannot be read or are not valid DIMACS files.
+     */
+    static CompactGraph read(File graphFile, File coordinatesFile, int chunkSize) throws IOException {
+        CompactGraphBuilder builder = new CompactGraphBuilder();
+        int[] problem = readFile(graphFile, -1, chunkSize, builder);
+        if (problem[1] != builder.getEdgeCount()) {
+            throw new IOException("Malformed " + FORMAT + ": " + builder.getEdgeCount() + " arcs found, "
+                    + problem[1] + " declared in " + graphFile.getName());
+        }
+        if (coordinatesFile == null) {
+            for (int id = 1; id <= problem[0]; id++) {
+                builder.addVertex(id, 0, 0);
+            }
+            return builder.build();
+        }
+        readFile(coordinatesFile, problem[0], chunkSize, builder);
+        CompactGraph graph = builder.build();
+        if (graph.getVertexCount() != problem[0]) {
+            throw new IOException("Malformed " + FORMAT + ": " + graph.getVertexCount() + " distinct vertices found, "
+                    + problem[0] + " declared in " + coordinatesFile.getName());
+        }
+        return graph;
+    }
+
+    /**
+     * Writes graph to graph file and coordinates file with the same name.
+     * @param graph     Graph to be written.
+     * @param file      Target graph file.
+     * @throws IOException  if files cannot be written.
+     */
+    public static void write(CompactGraph graph, File file) throws IOException {
+        String name = file.getName();
+        int dot = name.lastIndexOf('.');
+        String prefix = dot > 0 ? name.substring(0, dot) : name;
+        write(graph, file, new File(file.getParentFile(), prefix + COORDINATES_EXTENSION));
+    }
+
+    /**
+     * Writes graph. Vertices are numbered from 1 in order of compact graph, arc weight is
+     * length of edge rounded to a positive integer.
+     * @param graph             Graph to be written.
+     * @param graphFile         Target graph file.
+     * @param coordinatesFile   Target coordinates file, null if coordinates should not be written.
+     * @throws IOException  if files cannot be written.
+     */
+    public static void write(CompactGraph graph, File graphFile, File coordinatesFile) throws IOException {
+        int n = graph.getVertexCount();
+        int[] offsets = graph.getEdgeOffsets();
+        int[] targets = graph.getEdgeTargets();
+        double[] lengths = graph.getEdgeLengths();
+        try (OutputStream out = new FileOutputStream(graphFile)) {
+            Output output = new Output(out);
+            output.writeLine("c road network with " + n + " vertices and " + graph.getEdgeCount() + " arcs");
+            output.writeLine("p sp " + n + " " + graph.getEdgeCount());
+            for (int v = 0; v < n; v++) {
+                for (int e = offsets[v]; e < offsets[v + 1]; e++) {
+                    output.writeArc(v + 1, targets[e] + 1, Math.max(1, Math.round(lengths[e])));
+                }
+            }
+            output.flush();
+        }
+        if (coordinatesFile == null) {
+            return;
+        }
+        double[] x = graph.getXCoordinates();
+        double[] y = graph.getYCoordinates();
+        try (OutputStream out = new FileOutputStream(coordinatesFile)) {
+            Output output = new Output(out);
+            output.writeLine("c coordinates of " + n + " vertices in millionths of degree");
+            output.writeLine("p aux sp co " + n);
+            for (int v = 0; v < n; v++) {
+                output.writeVertex(v + 1, Math.round(x[v] * COORDINATE_SCALE), Math.round(y[v] * COORDINATE_SCALE));
+            }
+            output.flush();
+        }
+    }
+
+    /**
+     * Reads graph or coordinates file. Files larger than one chunk are parsed in parallel.
+     * Graph file must be read first, so number of vertices is known when coordinates file is read.
+     * @param file          Read file.
+     * @param n             Number of vertices declared in graph file, -1 if graph file is read.
+     * @param chunkSize     Min. size of chunk of file parsed by one task in bytes.
+     * @param builder       Builder of the graph.
+     * @return  number of vertices and arcs given by problem line (0 arcs for coordinates file).
+     * @throws IOException  if file cannot be read or is not valid.
+     */
+    private static int[] readFile(File file, int n, int chunkSize, CompactGraphBuilder builder) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = null;
+            DelimitedTextReader reader;
+            if (channel.size() > Integer.MAX_VALUE) {
+                reader = new DelimitedTextReader(channel, DelimitedTextReader.WHITESPACE, FORMAT);
+            } else {
+                buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                reader = new DelimitedTextReader(buffer.duplicate(), DelimitedTextReader.WHITESPACE, FORMAT);
+            }
+            int[] problem = readProblem(reader);
+            if (n >= 0 && problem[0] != n) {
+                throw reader.malformed(problem[0] + " vertices declared, " + n + " declared in graph file");
+            }
+            if (buffer == null || buffer.limit() - reader.position() <= chunkSize) {
+                readLines(reader, problem[0], builder);
+            } else {
+                List<ForkJoinTask<CompactGraphBuilder>> tasks = new ArrayList<>();
+                for (ByteBuffer chunk : DelimitedTextReader.splitLines(buffer.position(reader.position()), chunkSize)) {
+                    tasks.add(ForkJoinTask.adapt(() -> {
+                        CompactGraphBuilder chunkBuilder = new CompactGraphBuilder();
+                        readLines(new DelimitedTextReader(chunk, DelimitedTextReader.WHITESPACE, FORMAT), problem[0],
+                                chunkBuilder);
+                        return chunkBuilder;
+                    }));
+                }
+                ParallelTasks.invokeAll(tasks);
+                for (ForkJoinTask<CompactGraphBuilder> task : tasks) {
+                    builder.addAll(task.join());
+                }
+            }
+            if (n >= 0 && builder.getVertexCount() != n) {
+                throw reader.malformed(n + " vertices declared, " + builder.getVertexCount() + " found");
+            }
+            return problem;
+        }
+    }
+
+    /**
+     * Reads comment lines up to problem line and the problem line.
+     * @param reader    Reader of the file.
+     * @return  number of vertices and arcs given by problem line (0 arcs for coordinates file).
+     * @throws IOException  if input cannot be read or there is no problem line before other lines.
+     */
+    private static int[] readProblem(DelimitedTextReader reader) throws IOException {
+        while (reader.hasLine()) {
+            int c = reader.peekField();
+            if (c == 'p') {
+                reader.skipField();
+                int[] problem = new int[2];
+                if (reader.readString().equals("aux")) {
+                    reader.skipField();
+                    reader.skipField();
+                    problem[0] = reader.readInt();
+                } else {
+                    problem[0] = reader.readInt();
+                    problem[1] = reader.readInt();
+                }
+                reader.nextLine();
+                return problem;
+            }
+            if (c >= 0 && c != 'c') {
+                throw reader.malformed("problem line expected");
+            }
+            reader.nextLine();
+        }
+        throw reader.malformed("problem line is missing");
+    }
+
+    /**
+     * Reads lines with arcs and vertices following the problem line.
+     * @param reader    Reader of the file.
+     * @param n         Number of vertices given by problem line.
+     * @param builder   Builder of the graph.
+     * @throws IOException  if input cannot be read or is not valid.
+     */
+    private static void readLines(DelimitedTextReader reader, int n, CompactGraphBuilder builder) throws IOException {
+        while (reader.hasLine()) {
+            int c = reader.peekField();
+            if (c == 'a') {
+                reader.skipField();
+                int start = readVertex(reader, n);
+                int end = readVertex(reader, n);
+                builder.addEdge(start, end, reader.readDouble(), 1);
+            } else if (c == 'v') {
+                reader.skipField();
+                int id = readVertex(reader, n);
+                double x = reader.readDouble() / COORDINATE_SCALE;
+                double y = reader.readDouble() / COORDINATE_SCALE;
+                builder.addVertex(id, x, y);
+            } else if (c == 'p') {
+                throw reader.malformed("more than one problem line");
+            } else if (c >= 0 && c != 'c') {
+                throw reader.malformed("unknown line type '" + (char) c + "'");
+            }
+            reader.nextLine();
+        }
+    }
+
+    /**
+     * Reads number of vertex and checks that it is in range 1..n.
+     * @param reader    Reader of the file.
+     * @param n         Number of vertices given by problem line.
+     * @return  number of the vertex.
+     * @throws IOException  if input cannot be read or vertex is out of range.
+     */
+    private static int readVertex(DelimitedTextReader reader, int n) throws IOException {
+        int id = reader.readInt();
+        if (id < 1 || id > n) {
+            throw reader.malformed("vertex " + id + " out of range 1.." + n);
+        }
+        return id;
+    }
+
+    /**
+     * Output of DIMACS lines.
+     */
+    private static class Output extends ByteOutput {
+        /** Beginning of arc line. */
+        private static final byte[] ARC = bytes("a ");
+        /** Beginning of vertex line. */
+        private static final byte[] VERTEX = bytes("v ");
+
+        /**
+         * Constructor of output.
+         * @param out   Stream the output is written to.
+         */
+        private Output(OutputStream out) {
+            super(out);
+        }
+
+        /**
+         * Writes line of text.
+         * @param line  Written line without line break.
+         * @throws IOException  if output cannot be written.
+         */
+        private void writeLine(String line) throws IOException {
+            append(bytes(line));
+            appendByte('\n');
+        }
+
+        /**
+         * Writes arc line.
+         * @param start     Number of start vertex.
+         * @param end       Number of end vertex.
+         * @param weight    Weight of arc.
+         * @throws IOException  if output cannot be written.
+         */
+        private void writeArc(int start, int end, long weight) throws IOException {
+            append(ARC);
+            append(start);
+            appendByte(' ');
+            append(end);
+            appendByte(' ');
+            append(weight);
+            appendByte('\n');
+        }
+
+        /**
+         * Writes vertex line.
+         * @param id    Number of vertex.
+         * @param x     Scaled x-coordinate.
+         * @param y     Scaled y-coordinate.
+         * @throws IOException  if output cannot be written.
+         */
+        private void writeVertex(int id, long x, long y) throws IOException {
+            append(VERTEX);
+            append(id);
+            appendByte(' ');
+            append(x);
+            appendByte(' ');
+            append(y);
+            appendByte('\n');
+        }
+    }
+}
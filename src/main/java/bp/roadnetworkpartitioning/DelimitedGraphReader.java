@@ -0,0 +1,294 @@
+package bp.roadnetworkpartitioning;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Reader of graph from two delimited text files (e.g. CSV), one with node coordinates
+ * and one with edges, directly into compact graph. When the first line with data is not given,
+ * it is found by a detection pass over the first lines of the file, which also takes columns
+ * not given explicitly from the header line (e.g. "from", "to", "length"). Large edge files are
+ * memory-mapped, cut at line breaks and parsed in parallel.
+ * @author Lucie Roy
+ * @version 18-10-2026
+ */
+public class DelimitedGraphReader {
+    /** Minimal size of chunk of edge file parsed by one task in bytes. */
+    private static final int MIN_CHUNK_SIZE = 1 << 22;
+    /** Number of chunks per worker thread. */
+    private static final int CHUNKS_PER_THREAD = 4;
+    /** Max. number of lines searched for the first line with data. */
+    private static final int MAX_HEADER_LINES = 100;
+    /** Names of columns of node file (ID, x-coordinate, y-coordinate). */
+    private static final String[][] NODE_NAMES = {
+            {"id", "node", "node_id", "nodeid"},
+            {"x", "lon", "lng", "longitude"},
+            {"y", "lat", "latitude"}};
+    /** Names of columns of edge file (start, end, capacity, length). */
+    private static final String[][] EDGE_NAMES = {
+            {"init_node", "from", "from_node", "fromnode", "source", "start", "start_node"},
+            {"term_node", "to", "to_node", "tonode", "target", "end", "end_node"},
+            {"capacity", "cap"},
+            {"length", "len", "distance", "dist"}};
+
+    /** Number of line where data starts in node file, non-positive if it should be detected. */
+    private final int firstLineVertex;
+    /** Number of line where data starts in edge file, non-positive if it should be detected. */
+    private final int firstLineEdge;
+    /** Columns with ID, x-coordinate and y-coordinate in node file, negative if not given. */
+    private final int[] vertexColumns;
+    /** Columns with start, end, capacity and length in edge file, negative if not given. */
+    private final int[] edgeColumns;
+    /** Delimiter of columns in node file. */
+    private final int delimiterVertex;
+    /** Delimiter of columns in edge file. */
+    private final int delimiterEdge;
+
+    /**
+     * Constructor of reader with the same details as used by JSONParser.createJSONFile.
+     * @param details           Array with index 0 - number of line where data starts in node file
+     *                          index 1 - number of line where data starts in edge file,
+     *                          index 2 - number of column where is start point of edge in edge file,
+     *                          index 3 - number of column where is endpoint of edge in edge file,
+     *                          index 4 - number of column where is capacity of edge in edge file,
+     *                          index 5 - number of column where is length of edge in edge file,
+     *                          index 6 - number of column where is ID of node in node file,
+     *                          index 7 - number of column where is x-coordinate of node in node file,
+     *                          index 8 - number of column where is y-coordinate of node in node file.
+     *                          Negative values mean that the value is not given.
+     * @param delimiterEdge     Delimiter of columns in file with graph edges.
+     * @param delimiterVertex   Delimiter of columns in file with vertices coordinates.
+     */
+    public DelimitedGraphReader(int[] details, String delimiterEdge, String delimiterVertex) {
+        this.firstLineVertex = details[0];
+        this.firstLineEdge = details[1];
+        this.edgeColumns = new int[]{details[2], details[3], details[4], details[5]};
+        this.vertexColumns = new int[]{details[6], details[7], details[8]};
+        this.delimiterEdge = toDelimiter(delimiterEdge);
+        this.delimiterVertex = toDelimiter(delimiterVertex);
+    }
+
+    /**
+     * Reads graph.
+     * @param coordinatesFile   File with vertices coordinates.
+     * @param edgesFile         File with graph edges.
+     * @return  created compact graph.
+     * @throws IOException  if files cannot be read.
+     */
+    public CompactGraph read(File coordinatesFile, File edgesFile) throws IOException {
+        int parallelism = ForkJoinPool.getCommonPoolParallelism();
+        int chunkSize = parallelism <= 1 ? Integer.MAX_VALUE
+                : (int) Math.max(MIN_CHUNK_SIZE, edgesFile.length() / (parallelism * CHUNKS_PER_THREAD));
+        return read(coordinatesFile, edgesFile, chunkSize);
+    }
+
+    /**
+     * Reads graph, edge file is parsed in parallel by chunks of given size.
+     * @param coordinatesFile   File with vertices coordinates.
+     * @param edgesFile         File with graph edges.
+     * @param chunkSize         Min. size of chunk of edge file parsed by one task in bytes.
+     * @return  created compact graph.
+     * @throws IOException  if files cannot be read.
+     */
+    CompactGraph read(File coordinatesFile, File edgesFile, int chunkSize) throws IOException {
+        CompactGraphBuilder builder = new CompactGraphBuilder();
+        int[] columns = detectLayout(coordinatesFile, delimiterVertex, firstLineVertex, vertexColumns, NODE_NAMES,
+                new int[]{0, 1, 2}, new int[]{0, 1, 2});
+        readFile(coordinatesFile, delimiterVertex, columns, false, Integer.MAX_VALUE, builder);
+        columns = detectLayout(edgesFile, delimiterEdge, firstLineEdge, edgeColumns, EDGE_NAMES,
+                new int[]{0, 1, -1, 3}, new int[]{0, 1, 3});
+        readFile(edgesFile, delimiterEdge, columns, true, chunkSize, builder);
+        return builder.build();
+    }
+
+    /**
+     * Converts delimiter given by user to delimiter of DelimitedTextReader.
+     * Empty delimiter and whitespace patterns (e.g. "\\s+") mean whitespace, escaped characters
+     * (e.g. "\\t" or "\\|") are unescaped, otherwise the first character is the delimiter.
+     * @param delimiter     Delimiter given by user.
+     * @return  delimiter character or DelimitedTextReader.WHITESPACE.
+     */
+    static int toDelimiter(String delimiter) {
+        if (delimiter == null || delimiter.isBlank() || delimiter.startsWith("\\s")) {
+            return DelimitedTextReader.WHITESPACE;
+        }
+        if (delimiter.equals("\\t")) {
+            return '\t';
+        }
+        if (delimiter.length() > 1 && delimiter.charAt(0) == '\\') {
+            return delimiter.charAt(1);
+        }
+        return delimiter.charAt(0);
+    }
+
+    /**
+     * Finds the first line with data and columns of the file.
+     * @param file          Read file.
+     * @param delimiter     Delimiter of columns.
+     * @param firstLine     Number of the first line with data (from 1), non-positive if it should be detected.
+     * @param given         Columns given by user, negative if not given.
+     * @param names         Possible names of columns in header line.
+     * @param defaults      Columns used when they are neither given nor found in header.
+     * @param required      Indices of columns which must be numeric in line with data.
+     * @return  array with number of lines before data followed by columns.
+     * @throws IOException  if file cannot be read.
+     */
+    private static int[] detectLayout(File file, int delimiter, int firstLine, int[] given, String[][] names,
+                                      int[] defaults, int[] required) throws IOException {
+        int[] layout = new int[given.length + 1];
+        for (int i = 0; i < given.length; i++) {
+            layout[i + 1] = given[i] >= 0 ? given[i] : defaults[i];
+        }
+        if (firstLine > 0) {
+            layout[0] = firstLine - 1;
+            return layout;
+        }
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            DelimitedTextReader reader = new DelimitedTextReader(channel, delimiter, "delimited text");
+            int line = 0;
+            while (reader.hasLine() && line < MAX_HEADER_LINES) {
+                List<String> fields = new ArrayList<>();
+                while (reader.hasField()) {
+                    fields.add(reader.readString());
+                }
+                reader.nextLine();
+                if (isData(fields, layout, required)) {
+                    layout[0] = line;
+                    return layout;
+                }
+                for (int i = 0; i < given.length; i++) {
+                    int column = findColumn(fields, names[i]);
+                    if (given[i] < 0 && column >= 0) {
+                        layout[i + 1] = column;
+                    }
+                }
+                line++;
+            }
+            layout[0] = line;
+            return layout;
+        }
+    }
+
+    /**
+     * Checks if line contains data.
+     * @param fields    Fields of the line.
+     * @param layout    Number of lines before data followed by columns.
+     * @param required  Indices of columns which must be numeric.
+     * @return  true if all required columns are numbers.
+     */
+    private static boolean isData(List<String> fields, int[] layout, int[] required) {
+        for (int i : required) {
+            int column = layout[i + 1];
+            if (column < 0 || column >= fields.size()) {
+                return false;
+            }
+            try {
+                Double.parseDouble(fields.get(column));
+            } catch (NumberFormatException e) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Finds column with one of given names.
+     * @param fields    Fields of header line.
+     * @param names     Possible names of the column in lower case.
+     * @return  index of the column, -1 if not found.
+     */
+    private static int findColumn(List<String> fields, String[] names) {
+        for (int column = 0; column < fields.size(); column++) {
+            String field = fields.get(column).toLowerCase(Locale.ROOT);
+            for (String name : names) {
+                if (name.equals(field)) {
+                    return column;
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Reads vertices or edges of the file. Files larger than one chunk are parsed in parallel.
+     * @param file          Read file.
+     * @param delimiter     Delimiter of columns.
+     * @param layout        Number of lines before data followed by columns.
+     * @param edges         True if file contains edges, false if it contains vertices.
+     * @param chunkSize     Min. size of chunk of file parsed by one task in bytes.
+     * @param builder       Builder of the graph.
+     * @throws IOException  if file cannot be read.
+     */
+    private static void readFile(File file, int delimiter, int[] layout, boolean edges, int chunkSize,
+                                 CompactGraphBuilder builder) throws IOException {
+        int[] columns = new int[layout.length - 1];
+        System.arraycopy(layout, 1, columns, 0, columns.length);
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                DelimitedTextReader reader = new DelimitedTextReader(channel, delimiter, "delimited text");
+                for (int i = 0; i < layout[0] && reader.hasLine(); i++) {
+                    reader.nextLine();
+                }
+                readRows(reader, columns, edges, builder);
+                return;
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            DelimitedTextReader reader = new DelimitedTextReader(buffer.duplicate(), delimiter, "delimited text");
+            for (int i = 0; i < layout[0] && reader.hasLine(); i++) {
+                reader.nextLine();
+            }
+            int start = reader.position();
+            if (buffer.limit() - start <= chunkSize) {
+                readRows(reader, columns, edges, builder);
+                return;
+            }
+            List<ForkJoinTask<CompactGraphBuilder>> tasks = new ArrayList<>();
+            for (ByteBuffer chunk : DelimitedTextReader.splitLines(buffer.position(start), chunkSize)) {
+                tasks.add(ForkJoinTask.adapt(() -> {
+                    CompactGraphBuilder chunkBuilder = new CompactGraphBuilder();
+                    readRows(new DelimitedTextReader(chunk, delimiter, "delimited text"), columns, edges, chunkBuilder);
+                    return chunkBuilder;
+                }));
+            }
+            ParallelTasks.invokeAll(tasks);
+            for (ForkJoinTask<CompactGraphBuilder> task : tasks) {
+                builder.addAll(task.join());
+            }
+        }
+    }
+
+    /**
+     * Reads rows with vertices or edges, rows with missing IDs or coordinates are skipped.
+     * @param reader    Reader positioned at the first row.
+     * @param columns   Columns of ID, x and y or of start, end, capacity and length.
+     * @param edges     True if rows contain edges, false if they contain vertices.
+     * @param builder   Builder of the graph.
+     * @throws IOException  if input cannot be read.
+     */
+    private static void readRows(DelimitedTextReader reader, int[] columns, boolean edges,
+                                 CompactGraphBuilder builder) throws IOException {
+        double[] values = new double[columns.length];
+        while (reader.hasLine()) {
+            reader.readColumns(columns, values);
+            if (values[0] != Math.rint(values[0])) {
+                continue;
+            }
+            if (edges) {
+                if (values[1] == Math.rint(values[1])) {
+                    builder.addEdge((int) values[0], (int) values[1], values[3], values[2]);
+                }
+            } else if (!Double.isNaN(values[1]) && !Double.isNaN(values[2])) {
+                builder.addVertex((int) values[0], values[1], values[2]);
+            }
+        }
+    }
+}
@@ -0,0 +1,327 @@
+package bp.roadnetworkpartitioning;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Tokenizer of line-oriented text files with fields separated by delimiter or by whitespace.
+ * Spaces and tabs around fields are ignored, fields can be quoted by double quotes.
+ * Numeric fields are parsed in place without creating strings.
+ * @author Lucie Roy
+ * @version 18-10-2026
+ */
+public class DelimitedTextReader extends ByteInput {
+    /** Delimiter meaning that fields are separated by any number of spaces and tabs. */
+    public static final int WHITESPACE = -1;
+    /** Delimiter of fields or WHITESPACE. */
+    private final int delimiter;
+
+    /**
+     * Constructor of reader of input read from a channel.
+     * @param channel   Channel with the input.
+     * @param delimiter Delimiter of fields or WHITESPACE.
+     * @param format    Name of the format used in error messages.
+     */
+    public DelimitedTextReader(ReadableByteChannel channel, int delimiter, String format) {
+        super(channel, format);
+        this.delimiter = delimiter;
+    }
+
+    /**
+     * Constructor of reader of input already present in memory.
+     * Bytes from position to limit of the buffer are read.
+     * @param buffer    Buffer with the input.
+     * @param delimiter Delimiter of fields or WHITESPACE.
+     * @param format    Name of the format used in error messages.
+     */
+    public DelimitedTextReader(ByteBuffer buffer, int delimiter, String format) {
+        super(buffer, format);
+        this.delimiter = delimiter;
+    }
+
+    /**
+     * Checks if there is any input left.
+     * @return  true if there is another line.
+     * @throws IOException  if input cannot be read.
+     */
+    public boolean hasLine() throws IOException {
+        int c = read();
+        unread(c);
+        return c >= 0;
+    }
+
+    /**
+     * Gets the first character of the next field without reading it.
+     * @return  the character, -1 if the line has no more fields.
+     * @throws IOException  if input cannot be read.
+     */
+    public int peekField() throws IOException {
+        int c = skipBlanks();
+        return isLineEnd(c) ? -1 : c;
+    }
+
+    /**
+     * Checks if the line has another field.
+     * @return  true if the line has another field.
+     * @throws IOException  if input cannot be read.
+     */
+    public boolean hasField() throws IOException {
+        return peekField() >= 0;
+    }
+
+    /**
+     * Reads numeric field, the number can be quoted.
+     * @return  the number, NaN if field is empty or not a number.
+     * @throws IOException  if input cannot be read.
+     */
+    public double readDouble() throws IOException {
+        int c = peekField();
+        if (c < 0) {
+            return Double.NaN;
+        }
+        if ((c >= '0' && c <= '9') || c == '-' || c == '+' || c == '.') {
+            double value;
+            try {
+                value = readNumber();
+            } catch (IOException e) {
+                value = Double.NaN;
+            }
+            if (isFieldEnd(delimiter == WHITESPACE ? peekByte() : skipBlanks())) {
+                endField();
+                return value;
+            }
+        }
+        if (c == '"') {
+            try {
+                return Double.parseDouble(readString());
+            } catch (NumberFormatException e) {
+                return Double.NaN;
+            }
+        }
+        skipField();
+        return Double.NaN;
+    }
+
+    /**
+     * Reads field with integer.
+     * @return  the integer.
+     * @throws IOException  if input cannot be read or field is not integer.
+     */
+    public int readInt() throws IOException {
+        double value = readDouble();
+        if (value != Math.rint(value) || Math.abs(value) > Integer.MAX_VALUE) {
+            throw malformed("integer expected");
+        }
+        return (int) value;
+    }
+
+    /**
+     * Reads field as string. Quotes around the field are removed.
+     * @return  the field, empty string if the line has no more fields.
+     * @throws IOException  if input cannot be read.
+     */
+    public String readString() throws IOException {
+        textLength = 0;
+        int c = skipBlanks();
+        if (c == '"') {
+            read();
+            c = read();
+            while (c >= 0) {
+                if (c == '"') {
+                    c = read();
+                    if (c != '"') {
+                        break;
+                    }
+                }
+                appendText(c);
+                c = read();
+            }
+            unread(c);
+            c = delimiter == WHITESPACE ? peekByte() : skipBlanks();
+        }
+        int trimmedLength = textLength;
+        while (!isFieldEnd(c)) {
+            appendText(read());
+            if (!isBlank(c)) {
+                trimmedLength = textLength;
+            }
+            c = peekByte();
+        }
+        textLength = trimmedLength;
+        endField();
+        return textToString();
+    }
+
+    /**
+     * Skips field.
+     * @throws IOException  if input cannot be read.
+     */
+    public void skipField() throws IOException {
+        readString();
+    }
+
+    /**
+     * Reads the rest of the line.
+     * @return  the rest of the line without surrounding spaces.
+     * @throws IOException  if input cannot be read.
+     */
+    public String readLine() throws IOException {
+        textLength = 0;
+        int c = skipBlanks();
+        int trimmedLength = 0;
+        while (!isLineEnd(c)) {
+            appendText(read());
+            if (!isBlank(c)) {
+                trimmedLength = textLength;
+            }
+            c = peekByte();
+        }
+        textLength = trimmedLength;
+        nextLine();
+        return textToString();
+    }
+
+    /**
+     * Reads numeric values of given columns of the line and moves to the next line.
+     * @param columns   Indices of wanted columns.
+     * @param values    Array for values of wanted columns, NaN if column is missing or is not a number.
+     * @throws IOException  if input cannot be read.
+     */
+    public void readColumns(int[] columns, double[] values) throws IOException {
+        Arrays.fill(values, Double.NaN);
+        int last = -1;
+        for (int column : columns) {
+            last = Math.max(last, column);
+        }
+        for (int index = 0; index <= last && hasField(); index++) {
+            int first = indexOf(columns, index);
+            if (first < 0) {
+                skipField();
+                continue;
+            }
+            double value = readDouble();
+            for (int i = first; i < columns.length; i++) {
+                if (columns[i] == index) {
+                    values[i] = value;
+                }
+            }
+        }
+        nextLine();
+    }
+
+    /**
+     * Skips the rest of the line including the line break.
+     * @throws IOException  if input cannot be read.
+     */
+    public void nextLine() throws IOException {
+        int c = read();
+        while (c >= 0 && c != '\n') {
+            c = read();
+        }
+    }
+
+    /**
+     * Splits buffer into chunks ending at line breaks, so every chunk can be read by its own reader.
+     * @param buffer        Buffer with the input from its position to its limit.
+     * @param chunkSize     Min. size of chunk in bytes (the last chunk can be smaller).
+     * @return  chunks of the buffer in order.
+     */
+    public static List<ByteBuffer> splitLines(ByteBuffer buffer, int chunkSize) {
+        List<ByteBuffer> chunks = new ArrayList<>();
+        int start = buffer.position();
+        while (start < buffer.limit()) {
+            int end = (int) Math.min(buffer.limit(), (long) start + chunkSize);
+            while (end < buffer.limit() && buffer.get(end - 1) != '\n') {
+                end++;
+            }
+            ByteBuffer chunk = buffer.duplicate();
+            chunk.limit(end);
+            chunk.position(start);
+            chunks.add(chunk);
+            start = end;
+        }
+        return chunks;
+    }
+
+    /**
+     * Finds the first occurrence of value in array.
+     * @param array     the array.
+     * @param value     searched value.
+     * @return  index of the value, -1 if it is not in the array.
+     */
+    private static int indexOf(int[] array, int value) {
+        for (int i = 0; i < array.length; i++) {
+            if (array[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Reads delimiter after field.
+     * @throws IOException  if input cannot be read.
+     */
+    private void endField() throws IOException {
+        int c = skipBlanks();
+        if (delimiter != WHITESPACE && c == delimiter) {
+            read();
+        }
+    }
+
+    /**
+     * Skips spaces and tabs which are not delimiters.
+     * @return  the next character, which is not read.
+     * @throws IOException  if input cannot be read.
+     */
+    private int skipBlanks() throws IOException {
+        int c = read();
+        while (isBlank(c)) {
+            c = read();
+        }
+        unread(c);
+        return c;
+    }
+
+    /**
+     * Gets the next byte without reading it.
+     * @return  the byte, -1 at the end of input.
+     * @throws IOException  if input cannot be read.
+     */
+    private int peekByte() throws IOException {
+        int c = read();
+        unread(c);
+        return c;
+    }
+
+    /**
+     * Checks if character is space or tab which is not delimiter.
+     * @param c     the character.
+     * @return  true if character is blank.
+     */
+    private boolean isBlank(int c) {
+        return (c == ' ' || c == '\t') && c != delimiter;
+    }
+
+    /**
+     * Checks if character ends the line.
+     * @param c     the character.
+     * @return  true if character is line break or end of input.
+     */
+    private static boolean isLineEnd(int c) {
+        return c < 0 || c == '\n' || c == '\r';
+    }
+
+    /**
+     * Checks if character ends field.
+     * @param c     the character.
+     * @return  true if character ends field.
+     */
+    private boolean isFieldEnd(int c) {
+        return isLineEnd(c) || (delimiter == WHITESPACE ? c == ' ' || c == '\t' : c == delimiter);
+    }
+}
@@ -0,0 +1,127 @@
+package bp.roadnetworkpartitioning;
+
+import java.util.Arrays;
+import java.util.function.IntPredicate;
+
+/**
+ * Dijkstra's shortest path search on compact graph. Edge direction is ignored and
+ * length of connection between two neighbours is their total edge weight.
+ * Search may start from several sources at once, distance of vertex is then distance
+ * from the nearest source. Arrays are reused by following searches, only vertices
+ * reached by the previous search are reset.
+ * @author Lucie Roy
+ * @version 18-10-2026
+ */
+public class DijkstraSearch {
+    /** Searched graph. */
+    private final CompactGraph graph;
+    /** Distance of each vertex from the nearest source, infinity if vertex was not reached. */
+    private final double[] distances;
+    /** Predecessor of each vertex on its shortest path, -1 for sources and vertices not reached. */
+    private final int[] predecessors;
+    /** Vertices reached but not settled yet, key is distance. */
+    private final IndexedHeap heap;
+    /** Vertices reached by the last search. */
+    private final int[] reached;
+    /** Number of vertices reached by the last search. */
+    private int reachedCount = 0;
+
+    /**
+     * Constructor of search on given graph.
+     * @param graph     Searched graph.
+     */
+    public DijkstraSearch(CompactGraph graph) {
+        int n = graph.getVertexCount();
+        this.graph = graph;
+        this.distances = new double[n];
+        this.predecessors = new int[n];
+        this.heap = new IndexedHeap(n);
+        this.reached = new int[n];
+        Arrays.fill(distances, Double.POSITIVE_INFINITY);
+        Arrays.fill(predecessors, -1);
+    }
+
+    /**
+     * Finds shortest paths from given sources to all vertices reachable through allowed vertices.
+     * Sources are always allowed.
+     * @param sources       Dense indices of source vertices.
+     * @param sourcesCount  Number of sources used from the beginning of the array.
+     * @param allowed       Test whether path may enter vertex.
+     */
+    public void search(int[] sources, int sourcesCount, IntPredicate allowed) {
+        reset();
+        for (int i = 0; i < sourcesCount; i++) {
+            int source = sources[i];
+            if (distances[source] != 0) {
+                distances[source] = 0;
+                reached[reachedCount++] = source;
+                heap.put(source, 0);
+            }
+        }
+        int[] offsets = graph.getNeighbourOffsets();
+        int[] neighbours = graph.getNeighbours();
+        double[] weights = graph.getNeighbourWeights();
+        while (!heap.isEmpty()) {
+            double distance = heap.peekKey();
+            int v = heap.poll();
+            for (int i = offsets[v]; i < offsets[v + 1]; i++) {
+                int u = neighbours[i];
+                double newDistance = distance + weights[i];
+                if (newDistance < distances[u] && allowed.test(u)) {
+                    if (distances[u] == Double.POSITIVE_INFINITY) {
+                        reached[reachedCount++] = u;
+                    }
+                    distances[u] = newDistance;
+                    predecessors[u] = v;
+                    heap.put(u, newDistance);
+                }
+            }
+        }
+    }
+
+    /**
+     * Resets distances and predecessors of vertices reached by the previous search.
+     */
+    private void reset() {
+        for (int i = 0; i < reachedCount; i++) {
+            distances[reached[i]] = Double.POSITIVE_INFINITY;
+            predecessors[reached[i]] = -1;
+        }
+        reachedCount = 0;
+    }
+
+    /**
+     * Gets distance of vertex from the nearest source.
+     * @param v     Dense index of vertex.
+     * @return  distance, infinity if vertex was not reached.
+     */
+    public double getDistance(int v) {
+        return distances[v];
+    }
+
+    /**
+     * Gets predecessor of vertex on its shortest path.
+     * @param v     Dense index of vertex.
+     * @return  dense index of predecessor, -1 for sources and vertices not reached.
+     */
+    public int getPredecessor(int v) {
+        return predecessors[v];
+    }
+
+    /**
+     * Gets shortest path from the nearest source to given vertex.
+     * @param target    Dense index of reached vertex.
+     * @return  dense indices of vertices of the path, the source first.
+     */
+    public int[] getPath(int target) {
+        int length = 0;
+        for (int v = target; v >= 0; v = predecessors[v]) {
+            length++;
+        }
+        int[] path = new int[length];
+        for (int v = target; v >= 0; v = predecessors[v]) {
+            path[--length] = v;
+        }
+        return path;
+    }
+}
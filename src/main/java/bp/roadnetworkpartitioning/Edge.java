@@ -76,6 +76,8 @@ public class Edge {
      */
     public void setLength(double length){
         this.length = length;
+        this.weight = 0;
+        changed();
     }
 
     /**
@@ -94,6 +96,20 @@ public class Edge {
     public void setCapacity(double capacity){
         if (capacity > 0) {
             this.capacity = capacity;
+            this.weight = 0;
+            changed();
+        }
+    }
+
+    /**
+     * Drops caches of graphs which contain start point or endpoint of the edge.
+     */
+    private void changed() {
+        if (this.startpoint != null) {
+            this.startpoint.changed();
+        }
+        if (this.endpoint != null) {
+            this.endpoint.changed();
         }
     }
 
@@ -0,0 +1,474 @@
+package bp.roadnetworkpartitioning;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Streaming reader of road network stored in GeoJSON FeatureCollection.
+ * Each feature with LineString geometry is one edge from "init_node" to "term_node",
+ * the first and the last point of the line are coordinates of these vertices and
+ * properties "length" and "capacity" are length and capacity of the edge.
+ * Input is read by blocks from a channel and tokenized in place, so formatting of the file
+ * does not matter and no strings are created for keys or numbers.
+ * @author Lucie Roy
+ * @version 18-10-2026
+ */
+public class GeoJSONReader extends ByteInput {
+    /** Key of array of features. */
+    private static final byte[] FEATURES = bytes("features");
+    /** Key of properties of feature. */
+    private static final byte[] PROPERTIES = bytes("properties");
+    /** Key of geometry of feature. */
+    private static final byte[] GEOMETRY = bytes("geometry");
+    /** Key of type of geometry. */
+    private static final byte[] TYPE = bytes("type");
+    /** Key of coordinates of geometry. */
+    private static final byte[] COORDINATES = bytes("coordinates");
+    /** Type of geometry representing edge. */
+    private static final byte[] LINE_STRING = bytes("LineString");
+    /** Key of ID of start vertex. */
+    private static final byte[] INIT_NODE = bytes("init_node");
+    /** Key of ID of end vertex. */
+    private static final byte[] TERM_NODE = bytes("term_node");
+    /** Key of capacity of edge. */
+    private static final byte[] CAPACITY = bytes("capacity");
+    /** Key of length of edge. */
+    private static final byte[] LENGTH = bytes("length");
+
+    /** ID of start vertex of current feature. */
+    private int initNode;
+    /** ID of end vertex of current feature. */
+    private int termNode;
+    /** Length of current feature. */
+    private double length;
+    /** Capacity of current feature. */
+    private double capacity;
+    /** True if geometry of current feature is LineString. */
+    private boolean lineString;
+    /** Coordinates of the first and the last point of current feature (x1, y1, x2, y2). */
+    private final double[] points = new double[4];
+    /** Number of points of current feature. */
+    private int pointsCount;
+
+    /**
+     * Constructor of reader of input read from a channel.
+     * @param channel   Channel with the input.
+     */
+    public GeoJSONReader(ReadableByteChannel channel) {
+        super(channel, "GeoJSON");
+    }
+
+    /**
+     * Constructor of reader of input already present in memory.
+     * Bytes from position to limit of the buffer are read.
+     * @param buffer    Buffer with the input.
+     */
+    public GeoJSONReader(ByteBuffer buffer) {
+        super(buffer, "GeoJSON");
+    }
+
+    /**
+     * Reads GeoJSON file into compact graph.
+     * @param file  File with graph.
+     * @return  created compact graph.
+     * @throws IOException  if file cannot be read or is not valid GeoJSON.
+     */
+    public static CompactGraph read(File file) throws IOException {
+        try (FileChannel fileChannel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            CompactGraphBuilder builder = new CompactGraphBuilder();
+            new GeoJSONReader(fileChannel).readFeatureCollection(builder);
+            return builder.build();
+        }
+    }
+
+    /**
+     * Reads FeatureCollection and adds vertices and edges of its features to the builder.
+     * Top-level array of features is accepted as well.
+     * @param builder   Builder of the graph.
+     * @throws IOException  if input cannot be read or is not valid JSON.
+     */
+    public void readFeatureCollection(CompactGraphBuilder builder) throws IOException {
+        if (peek() == '[') {
+            readFeatures(builder);
+            return;
+        }
+        expect('{');
+        if (peek() == '}') {
+            next();
+            return;
+        }
+        do {
+            readKey();
+            if (textEquals(FEATURES) && peek() == '[') {
+                readFeatures(builder);
+            } else {
+                skipValue();
+            }
+        } while (nextSeparator('}'));
+    }
+
+    /**
+     * Reads input up to the opening bracket of array of features.
+     * Top-level array of features is accepted as well.
+     * @return  true if array of features was found, false if input has no features.
+     * @throws IOException  if input cannot be read or is not valid JSON.
+     */
+    boolean findFeatures() throws IOException {
+        if (peek() == '[') {
+            next();
+            return true;
+        }
+        expect('{');
+        if (peek() == '}') {
+            return false;
+        }
+        do {
+            readKey();
+            if (textEquals(FEATURES) && peek() == '[') {
+                next();
+                return true;
+            }
+            skipValue();
+        } while (nextSeparator('}'));
+        return false;
+    }
+
+    /**
+     * Reads features separated by commas until the end of input.
+     * Used for chunks of array of features cut at feature boundaries.
+     * @param builder   Builder of the graph.
+     * @throws IOException  if input cannot be read or is not valid JSON.
+     */
+    void readFeatureList(CompactGraphBuilder builder) throws IOException {
+        readFeature(builder);
+        int c = next();
+        while (c == ',') {
+            readFeature(builder);
+            c = next();
+        }
+        if (c >= 0) {
+            throw malformed("',' or end of chunk expected");
+        }
+    }
+
+    /**
+     * Reads array of features.
+     * @param builder   Builder of the graph.
+     * @throws IOException  if input cannot be read or is not valid JSON.
+     */
+    private void readFeatures(CompactGraphBuilder builder) throws IOException {
+        expect('[');
+        if (peek() == ']') {
+            next();
+            return;
+        }
+        do {
+            readFeature(builder);
+        } while (nextSeparator(']'));
+    }
+
+    /**
+     * Reads one feature and adds its edge to the builder if it is a LineString with numeric end points.
+     * @param builder   Builder of the graph.
+     * @throws IOException  if input cannot be read or is not valid JSON.
+     */
+    public void readFeature(CompactGraphBuilder builder) throws IOException {
+        initNode = 0;
+        termNode = 0;
+        length = 0;
+        capacity = Double.NaN;
+        lineString = false;
+        pointsCount = 0;
+        if (peek() != '{') {
+            skipValue();
+            return;
+        }
+        next();
+        if (peek() == '}') {
+            next();
+            return;
+        }
+        do {
+            readKey();
+            if (textEquals(PROPERTIES) && peek() == '{') {
+                readProperties();
+            } else if (textEquals(GEOMETRY) && peek() == '{') {
+                readGeometry();
+            } else {
+                skipValue();
+            }
+        } while (nextSeparator('}'));
+        if (lineString && pointsCount > 0 && !Double.isNaN(points[0]) && !Double.isNaN(points[1])
+                && !Double.isNaN(points[2]) && !Double.isNaN(points[3])) {
+            builder.addVertex(initNode, points[0], points[1]);
+            builder.addVertex(termNode, points[2], points[3]);
+            builder.addEdge(initNode, termNode, length, capacity);
+        }
+    }
+
+    /**
+     * Reads properties of feature.
+     * @throws IOException  if input cannot be read or is not valid JSON.
+     */
+    private void readProperties() throws IOException {
+        expect('{');
+        if (peek() == '}') {
+            next();
+            return;
+        }
+        do {
+            readKey();
+            if (textEquals(INIT_NODE)) {
+                initNode = toId(readNumberValue());
+            } else if (textEquals(TERM_NODE)) {
+                termNode = toId(readNumberValue());
+            } else if (textEquals(CAPACITY)) {
+                capacity = readNumberValue();
+            } else if (textEquals(LENGTH)) {
+                length = readNumberValue();
+            } else {
+                skipValue();
+            }
+        } while (nextSeparator('}'));
+    }
+
+    /**
+     * Reads geometry of feature, only the first and the last point of coordinates are kept.
+     * @throws IOException  if input cannot be read or is not valid JSON.
+     */
+    private void readGeometry() throws IOException {
+        expect('{');
+        if (peek() == '}') {
+            next();
+            return;
+        }
+        do {
+            readKey();
+            if (textEquals(TYPE) && peek() == '"') {
+                next();
+                readString();
+                lineString = textEquals(LINE_STRING);
+            } else if (textEquals(COORDINATES) && peek() == '[') {
+                readCoordinates();
+            } else {
+                skipValue();
+            }
+        } while (nextSeparator('}'));
+    }
+
+    /**
+     * Reads array of points, each point is array of at least two numbers.
+     * @throws IOException  if input cannot be read or is not valid JSON.
+     */
+    private void readCoordinates() throws IOException {
+        expect('[');
+        if (peek() == ']') {
+            next();
+            return;
+        }
+        do {
+            if (peek() != '[') {
+                skipValue();
+                continue;
+            }
+            next();
+            double x = readNumberValue();
+            expect(',');
+            double y = readNumberValue();
+            while (nextSeparator(']')) {
+                skipValue();
+            }
+            if (pointsCount == 0) {
+                points[0] = x;
+                points[1] = y;
+            }
+            points[2] = x;
+            points[3] = y;
+            pointsCount++;
+        } while (nextSeparator(']'));
+    }
+
+    /**
+     * Converts number to vertex ID.
+     * @param value     the number.
+     * @return  vertex ID, 0 if number is not given.
+     */
+    private static int toId(double value) {
+        return Double.isNaN(value) ? 0 : (int) value;
+    }
+
+    /**
+     * Reads object key followed by colon, the key is stored as the last read string.
+     * @throws IOException  if input cannot be read or is not valid JSON.
+     */
+    private void readKey() throws IOException {
+        expect('"');
+        readString();
+        expect(':');
+    }
+
+    /**
+     * Reads value expected to be a number. Numbers written as strings are accepted.
+     * @return  the number, NaN if value is null or not a number.
+     * @throws IOException  if input cannot be read or is not valid JSON.
+     */
+    private double readNumberValue() throws IOException {
+        int c = peek();
+        if (c == '-' || (c >= '0' && c <= '9')) {
+            return readNumber();
+        }
+        if (c == '"') {
+            next();
+            readString();
+            try {
+                return Double.parseDouble(textToString().trim());
+            } catch (NumberFormatException e) {
+                return Double.NaN;
+            }
+        }
+        skipValue();
+        return Double.NaN;
+    }
+
+    /**
+     * Reads string after its opening quote, the string is stored as the last read string.
+     * Escaped characters are stored without backslash, unicode escapes are kept as written.
+     * @throws IOException  if input cannot be read or is not valid JSON.
+     */
+    private void readString() throws IOException {
+        textLength = 0;
+        int c = read();
+        while (c != '"') {
+            if (c < 0) {
+                throw malformed("unterminated string");
+            }
+            if (c == '\\') {
+                c = read();
+                if (c < 0) {
+                    throw malformed("unterminated string");
+                }
+            }
+            appendText(c);
+            c = read();
+        }
+    }
+
+    /**
+     * Skips string after its opening quote without storing it.
+     * @throws IOException  if input cannot be read or is not valid JSON.
+     */
+    private void skipString() throws IOException {
+        int c = read();
+        while (c != '"') {
+            if (c == '\\') {
+                c = read();
+            }
+            if (c < 0) {
+                throw malformed("unterminated string");
+            }
+            c = read();
+        }
+    }
+
+    /**
+     * Skips any JSON value including nested objects and arrays.
+     * @throws IOException  if input cannot be read or is not valid JSON.
+     */
+    void skipValue() throws IOException {
+        int c = next();
+        if (c == '"') {
+            skipString();
+            return;
+        }
+        if (c != '{' && c != '[') {
+            if (c < 0 || c == ',' || c == '}' || c == ']' || c == ':') {
+                throw malformed("value expected");
+            }
+            c = read();
+            while (c >= 0 && c != ',' && c != '}' && c != ']' && !isWhitespace(c)) {
+                c = read();
+            }
+            unread(c);
+            return;
+        }
+        int depth = 1;
+        while (depth > 0) {
+            c = read();
+            if (c < 0) {
+                throw malformed("unexpected end of input");
+            } else if (c == '"') {
+                skipString();
+            } else if (c == '{' || c == '[') {
+                depth++;
+            } else if (c == '}' || c == ']') {
+                depth--;
+            }
+        }
+    }
+
+    /**
+     * Reads separator of members of object or array.
+     * @param close     closing character of the object or array.
+     * @return  true if another member follows, false if the object or array ended.
+     * @throws IOException  if input cannot be read or is not valid JSON.
+     */
+    boolean nextSeparator(char close) throws IOException {
+        int c = next();
+        if (c == ',') {
+            return true;
+        }
+        if (c == close) {
+            return false;
+        }
+        throw malformed("',' or '" + close + "' expected");
+    }
+
+    /**
+     * Reads next non-whitespace character and checks it.
+     * @param expected  expected character.
+     * @throws IOException  if input cannot be read or character is different.
+     */
+    private void expect(char expected) throws IOException {
+        if (next() != expected) {
+            throw malformed("'" + expected + "' expected");
+        }
+    }
+
+    /**
+     * Gets next non-whitespace character without reading it.
+     * @return  the character, -1 at the end of input.
+     * @throws IOException  if input cannot be read.
+     */
+    int peek() throws IOException {
+        int c = next();
+        unread(c);
+        return c;
+    }
+
+    /**
+     * Reads next non-whitespace character.
+     * @return  the character, -1 at the end of input.
+     * @throws IOException  if input cannot be read.
+     */
+    private int next() throws IOException {
+        int c = read();
+        while (isWhitespace(c)) {
+            c = read();
+        }
+        return c;
+    }
+
+    /**
+     * Checks if character is JSON whitespace.
+     * @param c     the character.
+     * @return  true if character is whitespace.
+     */
+    private static boolean isWhitespace(int c) {
+        return c == ' ' || c == '\n' || c == '\r' || c == '\t';
+    }
+
+}
@@ -0,0 +1,353 @@
+package bp.roadnetworkpartitioning;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Streaming writer of graph or graph partition to GeoJSON.
+ * Every edge is written as one LineString feature, edge going to another part is written
+ * as a half edge ending in the middle of the original edge (with half length and capacity
+ * and negative ID of its end) and edge coming from another part as a half edge starting in the middle
+ * (with negative ID of its start). Features are formatted directly into a reusable byte buffer.
+ * @author Lucie Roy
+ * @version 18-10-2026
+ */
+public class GeoJSONWriter extends ByteOutput {
+    /** Beginning of the file. */
+    private static final byte[] HEADER = bytes("{\n \"type\": \"FeatureCollection\",\n \"features\": [\n");
+    /** End of the file. */
+    private static final byte[] FOOTER = bytes("\n]\n}\n");
+    /** Separator of features. */
+    private static final byte[] SEPARATOR = bytes(",\n");
+    /** Beginning of feature up to its ID. */
+    private static final byte[] FEATURE_START = bytes("{ \"type\": \"Feature\", \"properties\": { \"fid\": ");
+    /** Key of category. */
+    private static final byte[] CAT = bytes(", \"cat\": ");
+    /** Key of ID of start vertex. */
+    private static final byte[] INIT_NODE = bytes(", \"init_node\": ");
+    /** Key of ID of end vertex. */
+    private static final byte[] TERM_NODE = bytes(", \"term_node\": ");
+    /** Key of capacity. */
+    private static final byte[] CAPACITY = bytes(", \"capacity\": ");
+    /** Key of length. */
+    private static final byte[] LENGTH = bytes(", \"length\": ");
+    /** Key of part. */
+    private static final byte[] PART = bytes(", \"part\": ");
+    /** Geometry up to the first coordinate. */
+    private static final byte[] GEOMETRY = bytes(" }, \"geometry\": { \"type\": \"LineString\", \"coordinates\": [ [ ");
+    /** Separator of coordinates. */
+    private static final byte[] COMMA = bytes(", ");
+    /** Separator of points. */
+    private static final byte[] NEXT_POINT = bytes(" ], [ ");
+    /** End of feature. */
+    private static final byte[] FEATURE_END = bytes(" ] ] } }");
+
+    /** Number of written features. */
+    private int features = 0;
+
+    /**
+     * Constructor of writer.
+     * @param out   Stream the output is written to.
+     */
+    private GeoJSONWriter(OutputStream out) {
+        super(out);
+    }
+
+    /**
+     * Writes whole graph to GeoJSON file.
+     * @param graph     Graph to be written.
+     * @param file      Target file.
+     * @throws IOException  if file cannot be written.
+     */
+    public static void writeGraph(CompactGraph graph, File file) throws IOException {
+        int n = graph.getVertexCount();
+        int[] vertices = new int[n];
+        for (int v = 0; v < n; v++) {
+            vertices[v] = v;
+        }
+        try (OutputStream out = new FileOutputStream(file)) {
+            GeoJSONWriter writer = new GeoJSONWriter(out);
+            writer.start();
+            writer.writeVertices(graph, null, null, vertices, 0, n, false);
+            writer.finish();
+        }
+    }
+
+    /**
+     * Writes graph to GeoJSON file. Edges between the graph and vertices outside of it
+     * (e.g. when the graph is a part of a larger graph) are written as half edges.
+     * @param graph     Graph to be written.
+     * @param file      Target file.
+     * @throws IOException  if file cannot be written.
+     */
+    public static void writeGraph(Graph graph, File file) throws IOException {
+        Map<Integer, Vertex> vertices = graph.getVertices();
+        Map<Integer, Vertex> neighbourhood = new HashMap<>(vertices);
+        for (Vertex vertex : vertices.values()) {
+            for (Edge edge : vertex.getStartingEdges()) {
+                neighbourhood.putIfAbsent(edge.getEndpoint().getId(), edge.getEndpoint());
+            }
+            for (Edge edge : vertex.getEndingEdges()) {
+                neighbourhood.putIfAbsent(edge.getStartpoint().getId(), edge.getStartpoint());
+            }
+        }
+        if (neighbourhood.size() == vertices.size()) {
+            writeGraph(graph.getCompactGraph(), file);
+            return;
+        }
+        CompactGraph compactGraph = CompactGraph.fromGraph(new Graph(neighbourhood, null));
+        int[] ids = compactGraph.getVertexIds();
+        int[] partOf = new int[ids.length];
+        for (int v = 0; v < ids.length; v++) {
+            partOf[v] = vertices.containsKey(ids[v]) ? 0 : -1;
+        }
+        int[] partStarts = new int[2];
+        int[] written = sortByPart(partOf, partStarts);
+        try (OutputStream out = new FileOutputStream(file)) {
+            GeoJSONWriter writer = new GeoJSONWriter(out);
+            writer.start();
+            writer.writeVertices(compactGraph, partOf, new IncomingCutEdges(compactGraph, partOf), written,
+                    0, partStarts[1], false);
+            writer.finish();
+        }
+    }
+
+    /**
+     * Writes whole partition to one GeoJSON file, every feature has property "part" with number of its part.
+     * Vertices which belong to no part are left out.
+     * @param graphPartition    Partition to be written.
+     * @param file              Target file.
+     * @throws IOException  if file cannot be written.
+     */
+    public static void writePartition(GraphPartition graphPartition, File file) throws IOException {
+        CompactGraph graph = graphPartition.getCompactGraph();
+        int[] partOf = graphPartition.getPartOf();
+        int[] partStarts = new int[graphPartition.getPartsCount() + 1];
+        int[] vertices = sortByPart(partOf, partStarts);
+        try (OutputStream out = new FileOutputStream(file)) {
+            GeoJSONWriter writer = new GeoJSONWriter(out);
+            writer.start();
+            writer.writeVertices(graph, partOf, new IncomingCutEdges(graph, partOf), vertices,
+                    0, partStarts[partStarts.length - 1], true);
+            writer.finish();
+        }
+    }
+
+    /**
+     * Writes every part of partition to separate GeoJSON file, parts are written concurrently.
+     * File of part j is named baseName_j with GeoJSON extension.
+     * @param graphPartition    Partition to be written.
+     * @param baseName          Name of files without number of part and extension.
+     * @throws IOException  if any file cannot be written.
+     */
+    public static void writeParts(GraphPartition graphPartition, String baseName) throws IOException {
+        CompactGraph graph = graphPartition.getCompactGraph();
+        int[] partOf = graphPartition.getPartOf();
+        int[] partStarts = new int[graphPartition.getPartsCount() + 1];
+        int[] vertices = sortByPart(partOf, partStarts);
+        IncomingCutEdges cutEdges = new IncomingCutEdges(graph, partOf);
+        List<ForkJoinTask<Void>> tasks = new ArrayList<>();
+        for (int part = 0; part < partStarts.length - 1; part++) {
+            File file = new File(baseName + "_" + part + JSONParser.EXTENSION);
+            int from = partStarts[part];
+            int to = partStarts[part + 1];
+            tasks.add(ForkJoinTask.adapt(() -> {
+                try (OutputStream out = new FileOutputStream(file)) {
+                    GeoJSONWriter writer = new GeoJSONWriter(out);
+                    writer.start();
+                    writer.writeVertices(graph, partOf, cutEdges, vertices, from, to, false);
+                    writer.finish();
+                }
+                return null;
+            }));
+        }
+        ParallelTasks.invokeAll(tasks);
+    }
+
+    /**
+     * Sorts vertices by number of their part, vertices of no part are left out.
+     * @param partOf        Number of part of each vertex.
+     * @param partStarts    Array for start of each part in sorted vertices, its length is number of parts + 1.
+     * @return  vertices sorted by part.
+     */
+    private static int[] sortByPart(int[] partOf, int[] partStarts) {
+        for (int part : partOf) {
+            if (part >= 0) {
+                partStarts[part + 1]++;
+            }
+        }
+        for (int part = 1; part < partStarts.length; part++) {
+            partStarts[part] += partStarts[part - 1];
+        }
+        int[] vertices = new int[partStarts[partStarts.length - 1]];
+        int[] position = partStarts.clone();
+        for (int v = 0; v < partOf.length; v++) {
+            if (partOf[v] >= 0) {
+                vertices[position[partOf[v]]++] = v;
+            }
+        }
+        return vertices;
+    }
+
+    /**
+     * Writes edges starting in given vertices followed by halves of edges coming to them from other parts.
+     * @param graph         Written graph.
+     * @param partOf        Number of part of each vertex, null if graph is not divided.
+     * @param cutEdges      Edges coming to each vertex from another part, null if graph is not divided.
+     * @param vertices      Array with written vertices.
+     * @param from          Index of the first written vertex in the array.
+     * @param to            Index after the last written vertex in the array.
+     * @param writePart     True if number of part should be written.
+     * @throws IOException  if output cannot be written.
+     */
+    private void writeVertices(CompactGraph graph, int[] partOf, IncomingCutEdges cutEdges, int[] vertices,
+                               int from, int to, boolean writePart) throws IOException {
+        int[] ids = graph.getVertexIds();
+        double[] x = graph.getXCoordinates();
+        double[] y = graph.getYCoordinates();
+        int[] offsets = graph.getEdgeOffsets();
+        int[] targets = graph.getEdgeTargets();
+        double[] lengths = graph.getEdgeLengths();
+        double[] capacities = graph.getEdgeCapacities();
+        for (int i = from; i < to; i++) {
+            int v = vertices[i];
+            int part = partOf == null ? 0 : partOf[v];
+            for (int e = offsets[v]; e < offsets[v + 1]; e++) {
+                int u = targets[e];
+                if (partOf == null || partOf[u] == part) {
+                    writeFeature(ids[v], ids[u], capacities[e], lengths[e], x[v], y[v], x[u], y[u], part, writePart);
+                } else {
+                    writeFeature(ids[v], -Math.min(ids[u], ids[v]), capacities[e] / 2, lengths[e] / 2, x[v], y[v],
+                            (x[v] + x[u]) / 2, (y[v] + y[u]) / 2, part, writePart);
+                }
+            }
+            if (cutEdges == null) {
+                continue;
+            }
+            for (int c = cutEdges.offsets[v]; c < cutEdges.offsets[v + 1]; c++) {
+                int u = cutEdges.sources[c];
+                int e = cutEdges.edges[c];
+                writeFeature(-Math.min(ids[u], ids[v]), ids[v], capacities[e] / 2, lengths[e] / 2,
+                        (x[v] + x[u]) / 2, (y[v] + y[u]) / 2, x[v], y[v], part, writePart);
+            }
+        }
+    }
+
+    /**
+     * Writes beginning of FeatureCollection.
+     * @throws IOException  if output cannot be written.
+     */
+    private void start() throws IOException {
+        append(HEADER);
+    }
+
+    /**
+     * Writes end of FeatureCollection and flushes the buffer.
+     * @throws IOException  if output cannot be written.
+     */
+    private void finish() throws IOException {
+        append(FOOTER);
+        flush();
+    }
+
+    /**
+     * Writes one feature.
+     * @param initNode      ID of start vertex.
+     * @param termNode      ID of end vertex.
+     * @param capacity      Capacity of edge.
+     * @param length        Length of edge.
+     * @param x1            X-coordinate of start.
+     * @param y1            Y-coordinate of start.
+     * @param x2            X-coordinate of end.
+     * @param y2            Y-coordinate of end.
+     * @param part          Number of part.
+     * @param writePart     True if number of part should be written.
+     * @throws IOException  if output cannot be written.
+     */
+    private void writeFeature(int initNode, int termNode, double capacity, double length,
+                              double x1, double y1, double x2, double y2, int part, boolean writePart) throws IOException {
+        if (features > 0) {
+            append(SEPARATOR);
+        }
+        features++;
+        append(FEATURE_START);
+        append(features);
+        append(CAT);
+        append(features);
+        append(INIT_NODE);
+        append(initNode);
+        append(TERM_NODE);
+        append(termNode);
+        append(CAPACITY);
+        append(capacity);
+        append(LENGTH);
+        append(length);
+        if (writePart) {
+            append(PART);
+            append(part);
+        }
+        append(GEOMETRY);
+        append(x1);
+        append(COMMA);
+        append(y1);
+        append(NEXT_POINT);
+        append(x2);
+        append(COMMA);
+        append(y2);
+        append(FEATURE_END);
+    }
+
+    /**
+     * Edges going between parts grouped by their end vertex, so halves of edges coming
+     * to a vertex from another part can be written together with edges starting in it.
+     */
+    private static class IncomingCutEdges {
+        /** Start of incoming cut edges of each vertex, the last value is number of cut edges. */
+        private final int[] offsets;
+        /** Start vertex of each cut edge. */
+        private final int[] sources;
+        /** Index of each cut edge in compact graph. */
+        private final int[] edges;
+
+        /**
+         * Constructor finding cut edges.
+         * @param graph     Divided graph.
+         * @param partOf    Number of part of each vertex.
+         */
+        private IncomingCutEdges(CompactGraph graph, int[] partOf) {
+            int n = graph.getVertexCount();
+            int[] edgeOffsets = graph.getEdgeOffsets();
+            int[] targets = graph.getEdgeTargets();
+            offsets = new int[n + 1];
+            for (int v = 0; v < n; v++) {
+                for (int e = edgeOffsets[v]; e < edgeOffsets[v + 1]; e++) {
+                    if (partOf[targets[e]] != partOf[v]) {
+                        offsets[targets[e] + 1]++;
+                    }
+                }
+            }
+            for (int v = 0; v < n; v++) {
+                offsets[v + 1] += offsets[v];
+            }
+            sources = new int[offsets[n]];
+            edges = new int[offsets[n]];
+            int[] position = offsets.clone();
+            for (int v = 0; v < n; v++) {
+                for (int e = edgeOffsets[v]; e < edgeOffsets[v + 1]; e++) {
+                    int u = targets[e];
+                    if (partOf[u] != partOf[v]) {
+                        sources[position[u]] = v;
+                        edges[position[u]++] = e;
+                    }
+                }
+            }
+        }
+    }
+}
@@ -1,12 +1,20 @@
 package bp.roadnetworkpartitioning;
 
+import java.lang.ref.WeakReference;
+import java.util.AbstractMap;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Instance of this class represents graph.
+ * Cached values and compact representation of the graph are guarded by the graph itself,
+ * so they can be read from several threads. Vertices hold weak references to graphs which cached
+ * anything about them, and changes of vertices and edges through their setters drop caches of these graphs only.
  * @author Lucie Roy
  * @version 27-03-2023
  */
@@ -16,6 +24,18 @@ public class Graph {
     private Map<Integer, Vertex> vertices;
     /** Map with all edges of the graph. */
     private Map<Integer, Edge> edges;
+    /** Compact representation of the graph, created when first needed. */
+    private CompactGraph compactGraph = null;
+    /** View of vertices returned by getVertices(), changes made through it update cached values. */
+    private final VertexMap vertexMap = new VertexMap();
+    /** Cached value of the graph counting on edge weight, NaN if it is not computed. */
+    private double weightValue = Double.NaN;
+    /** Cached value of the graph counting on edge length, NaN if it is not computed. */
+    private double value = Double.NaN;
+    /** Weak reference to this graph held by its vertices, so their changes drop caches of this graph. */
+    private final WeakReference<Graph> reference = new WeakReference<>(this);
+    /** True if all vertices of the graph hold reference to it. */
+    private boolean registered = false;
 
     /**
      * Constructor of graph.
@@ -71,11 +91,28 @@ public class Graph {
 
 
     /**
-     * Getter of graph vertices.
+     * Getter of graph vertices. Vertices put into or removed from the returned map
+     * update cached values of the graph incrementally.
      * @return graph vertices.
      */
     public Map<Integer, Vertex> getVertices(){
-        return this.vertices;
+        return this.vertexMap;
+    }
+
+    /**
+     * Adds vertex to the graph, cached values are updated by contribution of the vertex.
+     * @param vertex    added vertex.
+     */
+    public void addVertex(Vertex vertex){
+        this.vertexMap.put(vertex.getId(), vertex);
+    }
+
+    /**
+     * Removes vertex from the graph, cached values are updated by contribution of the vertex.
+     * @param vertex    removed vertex.
+     */
+    public void removeVertex(Vertex vertex){
+        this.vertexMap.remove(vertex.getId());
     }
 
     /**
@@ -100,52 +137,170 @@ public class Graph {
      */
     public void setVertices(Map<Integer, Vertex> vertices){
         this.vertices = vertices;
+        invalidate();
     }
 
     /**
      * Setter of graph edges.
      * @param edges     new graph edges.
      */
-    public void setEdges(Map<Integer, Edge> edges){
+    public synchronized void setEdges(Map<Integer, Edge> edges){
         this.edges = edges;
+        this.compactGraph = null;
+    }
+
+    /**
+     * Gets compact (CSR) representation of the graph.
+     * It is created on first call and dropped when vertices or edges of the graph change
+     * through their setters or the map returned by getVertices(). Changes made directly
+     * to lists of edges of vertices need a call of invalidate().
+     * @return compact representation of the graph.
+     */
+    public synchronized CompactGraph getCompactGraph(){
+        if (this.compactGraph == null) {
+            register();
+            this.compactGraph = CompactGraph.fromGraph(this);
+        }
+        return this.compactGraph;
+    }
+
+    /**
+     * Sets compact representation of the graph.
+     * @param compactGraph  compact representation of the graph.
+     */
+    synchronized void setCompactGraph(CompactGraph compactGraph){
+        if (compactGraph != null) {
+            register();
+        }
+        this.compactGraph = compactGraph;
     }
 
     /**
      * Gets graph value counting on edge weight.
+     * Value is computed on first call and cached until the graph or its vertices or edges change.
      * @return  graph weight value.
      */
-    public double getWeightValue() {
-        double value = 0;
-        for(Vertex vertex: vertices.values()) {
-            value += vertex.getValue();
-            for(Edge edge: vertex.getStartingEdges()){
-                value += edge.getWeight()/2;
-            }
-            for(Edge edge: vertex.getEndingEdges()){
-                value += edge.getWeight()/2;
-            }
-        }
-        return value;
+    public synchronized double getWeightValue() {
+        computeValues();
+        return this.weightValue;
     }
 
     /**
      * Gets graph value counting on edge length.
+     * Value is computed on first call and cached until the graph or its vertices or edges change.
      * @return  graph value.
      */
-    public double getValue() {
+    public synchronized double getValue() {
+        computeValues();
+        return this.value;
+    }
+
+    /**
+     * Computes cached values of the graph if they are not computed. Caller holds lock of the graph.
+     */
+    private void computeValues() {
+        if (!Double.isNaN(this.weightValue)) {
+            return;
+        }
+        register();
+        double weightValue = 0;
         double value = 0;
         for(Vertex vertex: vertices.values()) {
-            value += vertex.getValue();
-            for(Edge edge: vertex.getStartingEdges()){
-                value += edge.getLength()/2;
-            }
-            for(Edge edge: vertex.getEndingEdges()){
-                value += edge.getLength()/2;
-            }
+            weightValue += getWeightContribution(vertex);
+            value += getContribution(vertex);
+        }
+        this.weightValue = weightValue;
+        this.value = value;
+    }
+
+    /**
+     * Gets contribution of vertex to graph value counting on edge weight.
+     * @param vertex    the vertex.
+     * @return  value of the vertex and halves of weights of its edges.
+     */
+    private static double getWeightContribution(Vertex vertex) {
+        double value = vertex.getValue();
+        for(Edge edge: vertex.getStartingEdges()){
+            value += edge.getWeight()/2;
+        }
+        for(Edge edge: vertex.getEndingEdges()){
+            value += edge.getWeight()/2;
+        }
+        return value;
+    }
+
+    /**
+     * Gets contribution of vertex to graph value counting on edge length.
+     * @param vertex    the vertex.
+     * @return  value of the vertex and halves of lengths of its edges.
+     */
+    private static double getContribution(Vertex vertex) {
+        double value = vertex.getValue();
+        for(Edge edge: vertex.getStartingEdges()){
+            value += edge.getLength()/2;
+        }
+        for(Edge edge: vertex.getEndingEdges()){
+            value += edge.getLength()/2;
         }
         return value;
     }
 
+    /**
+     * Updates cached values when vertex is added to or removed from the graph.
+     * Nothing is updated if values are not computed.
+     * @param vertex    added or removed vertex.
+     * @param sign      1 if vertex is added, -1 if it is removed.
+     */
+    private synchronized void updateValues(Vertex vertex, int sign) {
+        this.compactGraph = null;
+        if (vertex == null) {
+            return;
+        }
+        if (sign > 0) {
+            vertex.addGraph(this.reference);
+        } else {
+            vertex.removeGraph(this.reference);
+        }
+        if (Double.isNaN(this.weightValue)) {
+            return;
+        }
+        this.weightValue += sign * getWeightContribution(vertex);
+        this.value += sign * getContribution(vertex);
+    }
+
+    /**
+     * Drops cached values and compact representation of the graph.
+     * Must be called after vertices are changed in the map given to constructor or in setVertices
+     * directly and after edges are added to or removed from lists of edges of vertices.
+     */
+    public synchronized void invalidate() {
+        this.registered = false;
+        elementChanged();
+    }
+
+    /**
+     * Drops cached values and compact representation of the graph after its vertex or edge changed.
+     */
+    synchronized void elementChanged() {
+        this.weightValue = Double.NaN;
+        this.value = Double.NaN;
+        this.compactGraph = null;
+    }
+
+    /**
+     * Gives reference to this graph to all its vertices, so they drop its caches when they change.
+     * Caller holds lock of the graph.
+     */
+    private void register() {
+        if (this.registered) {
+            return;
+        }
+        for (Vertex vertex : vertices.values()) {
+            vertex.addGraph(this.reference);
+        }
+        this.registered = true;
+    }
+
 
     @Override
     public String toString(){
@@ -214,4 +369,69 @@ public class Graph {
         }
         return id;
     }
+
+    /**
+     * View of vertices of the graph. Vertices put into or removed from it
+     * update cached values of the graph, other views of it are read-only.
+     */
+    private class VertexMap extends AbstractMap<Integer, Vertex> {
+
+        @Override
+        public int size() {
+            return vertices.size();
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return vertices.containsKey(key);
+        }
+
+        @Override
+        public boolean containsValue(Object value) {
+            return vertices.containsValue(value);
+        }
+
+        @Override
+        public Vertex get(Object key) {
+            return vertices.get(key);
+        }
+
+        @Override
+        public Vertex put(Integer key, Vertex vertex) {
+            Vertex oldVertex = vertices.put(key, vertex);
+            if (oldVertex != vertex) {
+                updateValues(oldVertex, -1);
+                updateValues(vertex, 1);
+            }
+            return oldVertex;
+        }
+
+        @Override
+        public Vertex remove(Object key) {
+            Vertex oldVertex = vertices.remove(key);
+            updateValues(oldVertex, -1);
+            return oldVertex;
+        }
+
+        @Override
+        public void clear() {
+            vertices.clear();
+            invalidate();
+        }
+
+        @Override
+        public Set<Integer> keySet() {
+            return Collections.unmodifiableSet(vertices.keySet());
+        }
+
+        @Override
+        public Collection<Vertex> values() {
+            return Collections.unmodifiableCollection(vertices.values());
+        }
+
+        @Override
+        public Set<Entry<Integer, Vertex>> entrySet() {
+            return Collections.unmodifiableMap(vertices).entrySet();
+        }
+    }
 }
@@ -0,0 +1,53 @@
+package bp.roadnetworkpartitioning;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Loads graph from file in any supported format.
+ * Binary snapshots are recognised by their magic bytes, TNTP, METIS, DIMACS and OSM PBF files
+ * by their extension, other files are read as GeoJSON.
+ * @author Lucie Roy
+ * @version 18-10-2026
+ */
+public class GraphFileLoader {
+
+    /**
+     * Loads graph from file.
+     * @param file  File with graph.
+     * @return  loaded graph or null if not successful.
+     */
+    public static Graph load(File file) {
+        CompactGraph compactGraph = loadCompact(file);
+        return compactGraph == null ? null : compactGraph.toGraph();
+    }
+
+    /**
+     * Loads compact graph from file.
+     * @param file  File with graph.
+     * @return  loaded compact graph or null if not successful.
+     */
+    public static CompactGraph loadCompact(File file) {
+        try {
+            if (GraphSnapshot.isSnapshot(file)) {
+                return GraphSnapshot.read(file);
+            }
+            if (TNTPReader.isTNTP(file)) {
+                return TNTPReader.read(file);
+            }
+            if (OSMPBFReader.isPBF(file)) {
+                return new OSMPBFReader().read(file);
+            }
+            if (MetisGraphFile.isMetis(file)) {
+                return MetisGraphFile.read(file);
+            }
+            if (DIMACSGraphFile.isDIMACS(file)) {
+                return DIMACSGraphFile.read(file);
+            }
+            return ParallelGeoJSONReader.read(file);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        return null;
+    }
+}
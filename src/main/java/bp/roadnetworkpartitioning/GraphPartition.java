@@ -1,7 +1,10 @@
 package bp.roadnetworkpartitioning;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Instance of this class represents partition of a graph.
@@ -9,18 +12,16 @@ import java.util.List;
  * @version 24-01-2024
  */
 public class GraphPartition {
-    /** List of graph parts (components). */
-    private final List<Graph> graphComponents;
-    /** Number of cut edges */
-    private int cutEdgesCount = -1;
-    /** Relative standard deviation from ideal part. */
-    private double deviation = -1;
-    /** Min. number of neighbours. */
-    private int minNeighbours = -1;
-    /** Average number of neighbours. */
-    private double averageNeighbours = -1;
-    /** Max. number of neighbours. */
-    private int maxNeighbours = -1;
+    /** List of graph parts (components), created from partOf when first needed. */
+    private List<Graph> graphComponents;
+    /** Compact representation of the divided graph. */
+    private CompactGraph compactGraph = null;
+    /** Number of part of each vertex (by dense vertex index), -1 if vertex belongs to no part. */
+    private int[] partOf = null;
+    /** Number of parts, -1 if it is given by size of list of graph parts. */
+    private final int partsCount;
+    /** Quality characteristics of the partition, computed when first needed. */
+    private PartitionMetrics metrics = null;
     /** Time of partition. */
     private long time = -1;
 
@@ -31,88 +32,139 @@ public class GraphPartition {
      */
     public GraphPartition(List<Graph> graphComponents){
        this.graphComponents = graphComponents;
+       this.partsCount = -1;
+    }
 
+    /**
+     * Constructor with given part of each vertex.
+     * @param compactGraph  Compact representation of the divided graph.
+     * @param partOf        Number of part of each vertex (by dense vertex index).
+     * @param partsCount    Number of parts.
+     */
+    public GraphPartition(CompactGraph compactGraph, int[] partOf, int partsCount){
+        this.compactGraph = compactGraph;
+        this.partOf = partOf;
+        this.partsCount = partsCount;
+        this.graphComponents = null;
     }
 
     /**
-     * Gets map where key is a vertex ID and value is
-     * number of part of graph where this vertex belongs.
-     * @return map where key is a vertex ID and value is
-     * number of part of graph where this vertex belongs.
+     * Gets list of graph parts (components).
+     * If partition was created from part of each vertex, parts are created on first call.
+     * @return list of graph parts (components).
      */
-    public List<Graph> getGraphComponents(){
+    public synchronized List<Graph> getGraphComponents(){
+        if (this.graphComponents == null) {
+            List<Map<Integer, Vertex>> partsVertices = new ArrayList<>(partsCount);
+            for (int i = 0; i < partsCount; i++) {
+                partsVertices.add(new HashMap<>());
+            }
+            for (int v = 0; v < partOf.length; v++) {
+                if (partOf[v] >= 0) {
+                    Vertex vertex = compactGraph.getVertex(v);
+                    partsVertices.get(partOf[v]).put(vertex.getId(), vertex);
+                }
+            }
+            List<Graph> components = new ArrayList<>(partsCount);
+            for (Map<Integer, Vertex> vertices : partsVertices) {
+                components.add(new Graph(vertices, null));
+            }
+            this.graphComponents = components;
+        }
         return  this.graphComponents;
     }
 
     /**
-     * Gets number of cut edges.
-     * @return number of cut edges.
+     * Gets number of part of each vertex, index is dense vertex index in compact graph.
+     * If partition was created from list of parts, the array is created on first call.
+     * @return number of part of each vertex, -1 if vertex belongs to no part.
      */
-    protected int getCutEdgesCount(){
-        if(cutEdgesCount == -1){
-            for(Graph graph: graphComponents){
-                List<Edge> cutEndingEdges = graph.getCutEndingEdges();
-                List<Edge> cutStartingEdges = graph.getCutStartingEdges();
-                cutEdgesCount += cutEndingEdges.size() + cutStartingEdges.size();
+    public synchronized int[] getPartOf(){
+        if (this.partOf == null) {
+            CompactGraph graph = getCompactGraph();
+            int[] parts = new int[graph.getVertexCount()];
+            Arrays.fill(parts, -1);
+            for (int i = 0; i < graphComponents.size(); i++) {
+                for (int id : graphComponents.get(i).getVertices().keySet()) {
+                    int v = graph.indexOf(id);
+                    if (v >= 0) {
+                        parts[v] = i;
+                    }
+                }
             }
+            this.partOf = parts;
         }
-        return cutEdgesCount;
+        return this.partOf;
     }
 
     /**
-     * Gets relative standard deviation.
-     * @return  relative standard deviation from ideal part.
+     * Gets compact representation of the divided graph.
+     * If it is not known, it is created from all parts.
+     * @return compact representation of the divided graph.
      */
-    protected double getRelativeStandardDeviation(){
-        if(deviation == -1){
-            double graphValue = getGraphValue();
-            double averageGraphComponentValue = graphValue/graphComponents.size();
-            double sd = 0;
-            for(Graph graph: graphComponents){
-                sd += (averageGraphComponentValue - graph.getWeightValue())*(averageGraphComponentValue - graph.getWeightValue());
+    public synchronized CompactGraph getCompactGraph(){
+        if (this.compactGraph == null) {
+            Map<Integer, Vertex> vertices = new HashMap<>();
+            for (Graph graph : graphComponents) {
+                vertices.putAll(graph.getVertices());
             }
-            deviation = (Math.sqrt(sd/graphComponents.size())/averageGraphComponentValue)*100;
+            this.compactGraph = CompactGraph.fromGraph(new Graph(vertices, null));
+        }
+        return this.compactGraph;
+    }
+
+    /**
+     * Sets compact representation of the divided graph, if it is not known yet.
+     * @param compactGraph  compact representation of the divided graph.
+     */
+    synchronized void setCompactGraph(CompactGraph compactGraph){
+        if (this.compactGraph == null) {
+            this.compactGraph = compactGraph;
         }
-        return deviation;
     }
 
+    /**
+     * Gets number of parts.
+     * @return number of parts.
+     */
+    public int getPartsCount(){
+        return this.partsCount >= 0 ? this.partsCount : this.graphComponents.size();
+    }
+
+    /**
+     * Gets quality characteristics of the partition.
+     * They are computed on first call.
+     * @return quality characteristics of the partition.
+     */
+    public synchronized PartitionMetrics getMetrics(){
+        if (this.metrics == null) {
+            this.metrics = new PartitionMetrics(getCompactGraph(), getPartOf(), getPartsCount());
+        }
+        return this.metrics;
+    }
+
+    /**
+     * Gets number of cut edges.
+     * @return number of cut edges.
+     */
+    protected int getCutEdgesCount(){
+        return getMetrics().getCutEdgesCount();
+    }
 
+    /**
+     * Gets relative standard deviation.
+     * @return  relative standard deviation from ideal part.
+     */
+    protected double getRelativeStandardDeviation(){
+        return getMetrics().getRelativeStandardDeviation();
+    }
 
     /**
      * Gets max. number of part neighbours.
      * @return max. number of part neighbours.
      */
     protected int getMaxNeighbours(){
-        if(maxNeighbours == -1){
-            maxNeighbours = 0;
-            for(Graph graph: graphComponents){
-                List<Edge> cutEndingEdges = graph.getCutEndingEdges();
-                List<Edge> cutStartingEdges = graph.getCutStartingEdges();
-                List<Integer> neighbourNumbers = new ArrayList<>();
-                for(Edge edge: cutEndingEdges){
-                    for(int i = 0; i < graphComponents.size(); i++){
-                        if(graphComponents.get(i).getVertices().containsKey(edge.getStartpoint().getId())){
-                            if(!neighbourNumbers.contains(i)){
-                                neighbourNumbers.add(i);
-                            }
-                        }
-                    }
-                }
-                for(Edge edge: cutStartingEdges){
-                    for(int i = 0; i < graphComponents.size(); i++){
-                        if(graphComponents.get(i).getVertices().containsKey(edge.getEndpoint().getId())){
-                            if(!neighbourNumbers.contains(i)){
-                                neighbourNumbers.add(i);
-                            }
-                        }
-                    }
-                }
-                if(neighbourNumbers.size() > maxNeighbours){
-                    maxNeighbours = neighbourNumbers.size();
-                }
-            }
-        }
-        return maxNeighbours;
+        return getMetrics().getMaxNeighbours();
     }
 
     /**
@@ -120,36 +172,7 @@ public class GraphPartition {
      * @return min. number of part neighbours.
      */
     protected int getMinNeighbours(){
-        if(minNeighbours == -1){
-            minNeighbours = graphComponents.size();
-            for(Graph graph: graphComponents){
-                List<Edge> cutEndingEdges = graph.getCutEndingEdges();
-                List<Edge> cutStartingEdges = graph.getCutStartingEdges();
-                List<Integer> neighbourNumbers = new ArrayList<>();
-                for(Edge edge: cutEndingEdges){
-                    for(int i = 0; i < graphComponents.size(); i++){
-                        if(graphComponents.get(i).getVertices().containsKey(edge.getStartpoint().getId())){
-                            if(!neighbourNumbers.contains(i)){
-                                neighbourNumbers.add(i);
-                            }
-                        }
-                    }
-                }
-                for(Edge edge: cutStartingEdges){
-                    for(int i = 0; i < graphComponents.size(); i++){
-                        if(graphComponents.get(i).getVertices().containsKey(edge.getEndpoint().getId())){
-                            if(!neighbourNumbers.contains(i)){
-                                neighbourNumbers.add(i);
-                            }
-                        }
-                    }
-                }
-                if(neighbourNumbers.size() < minNeighbours){
-                    minNeighbours = neighbourNumbers.size();
-                }
-            }
-        }
-        return minNeighbours;
+        return getMetrics().getMinNeighbours();
     }
 
     /**
@@ -157,36 +180,7 @@ public class GraphPartition {
      * @return average number of part neighbours.
      */
     protected double getAverageNeighbours(){
-        if(averageNeighbours == -1){
-            averageNeighbours = 0;
-            for(Graph graph: graphComponents){
-                List<Edge> cutEndingEdges = graph.getCutEndingEdges();
-                List<Edge> cutStartingEdges = graph.getCutStartingEdges();
-                List<Integer> neighbourNumbers = new ArrayList<>();
-                for(Edge edge: cutEndingEdges){
-                    for(int i = 0; i < graphComponents.size(); i++){
-                        if(graphComponents.get(i).getVertices().containsKey(edge.getStartpoint().getId())){
-                            if(!neighbourNumbers.contains(i)){
-                                neighbourNumbers.add(i);
-                            }
-                        }
-                    }
-                }
-                for(Edge edge: cutStartingEdges){
-                    for(int i = 0; i < graphComponents.size(); i++){
-                        if(graphComponents.get(i).getVertices().containsKey(edge.getEndpoint().getId())){
-                            if(!neighbourNumbers.contains(i)){
-                                neighbourNumbers.add(i);
-                            }
-                        }
-                    }
-                }
-                averageNeighbours += neighbourNumbers.size();
-
-            }
-            averageNeighbours = averageNeighbours/(double)graphComponents.size();
-        }
-        return averageNeighbours;
+        return getMetrics().getAverageNeighbours();
     }
 
     /**
@@ -207,16 +201,4 @@ public class GraphPartition {
         }
     }
 
-    /**
-     * Gets total graph value.
-     * @return total graph value.
-     */
-    private double getGraphValue(){
-        double value = 0;
-        for(Graph graph: graphComponents){
-            value += graph.getWeightValue();
-        }
-        return value;
-    }
-
 }
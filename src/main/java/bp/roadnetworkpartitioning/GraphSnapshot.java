@@ -0,0 +1,263 @@
+package bp.roadnetworkpartitioning;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * Binary snapshot of compact graph, which is loaded by bulk copies from memory-mapped file without any parsing.
+ * File consists of header (magic, version, number of vertices and edges), arrays of the compact graph
+ * (vertex IDs, coordinates, values, CSR offsets and targets, edge IDs, lengths and capacities)
+ * and CRC32 checksum of all previous bytes. All numbers are little-endian.
+ * @author Lucie Roy
+ * @version 18-10-2026
+ */
+public class GraphSnapshot {
+    /** Magic bytes at the start of snapshot file ("RNPG"). */
+    public static final int MAGIC = 0x47504E52;
+    /** Version of the format. */
+    public static final int VERSION = 1;
+    /** Size of header in bytes. */
+    private static final int HEADER_SIZE = 16;
+    /** Max. size of one mapped or written block in bytes. */
+    private static final int BLOCK_SIZE = 1 << 24;
+
+    /**
+     * Writes snapshot of graph.
+     * @param graph     Graph to be written.
+     * @param file      Target file.
+     * @throws IOException  if file cannot be written.
+     */
+    public static void write(Graph graph, File file) throws IOException {
+        write(graph.getCompactGraph(), file);
+    }
+
+    /**
+     * Writes snapshot of compact graph.
+     * @param graph     Compact graph to be written.
+     * @param file      Target file.
+     * @throws IOException  if file cannot be written.
+     */
+    public static void write(CompactGraph graph, File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer block = ByteBuffer.allocateDirect(BLOCK_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            CRC32 crc = new CRC32();
+            block.putInt(MAGIC).putInt(VERSION).putInt(graph.getVertexCount()).putInt(graph.getEdgeCount());
+            block.flip();
+            writeBlock(channel, block, crc);
+            writeInts(channel, graph.getVertexIds(), block, crc);
+            writeDoubles(channel, graph.getXCoordinates(), block, crc);
+            writeDoubles(channel, graph.getYCoordinates(), block, crc);
+            writeDoubles(channel, graph.getVertexValues(), block, crc);
+            writeInts(channel, graph.getEdgeOffsets(), block, crc);
+            writeInts(channel, graph.getEdgeTargets(), block, crc);
+            writeInts(channel, graph.getEdgeIds(), block, crc);
+            writeDoubles(channel, graph.getEdgeLengths(), block, crc);
+            writeDoubles(channel, graph.getEdgeCapacities(), block, crc);
+            block.clear();
+            block.putLong(crc.getValue());
+            block.flip();
+            while (block.hasRemaining()) {
+                channel.write(block);
+            }
+        }
+    }
+
+    /**
+     * Checks if file starts with magic bytes of snapshot.
+     * @param file  Checked file.
+     * @return  true if file is a snapshot.
+     */
+    public static boolean isSnapshot(File file) {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN);
+            int read = 0;
+            while (header.hasRemaining() && read >= 0) {
+                read = channel.read(header);
+            }
+            return !header.hasRemaining() && header.getInt(0) == MAGIC;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Reads snapshot and verifies its checksum.
+     * @param file  File with snapshot.
+     * @return  loaded compact graph.
+     * @throws IOException  if file cannot be read or is not valid snapshot.
+     */
+    public static CompactGraph read(File file) throws IOException {
+        return read(file, true);
+    }
+
+    /**
+     * Reads snapshot. Without verification the checksum pass over the mapped file is skipped
+     * and the file is only paged in by bulk copies into arrays.
+     * @param file      File with snapshot.
+     * @param verify    True if checksum should be verified.
+     * @return  loaded compact graph.
+     * @throws IOException  if file cannot be read or is not valid snapshot.
+     */
+    public static CompactGraph read(File file, boolean verify) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_SIZE) {
+                throw new IOException("Snapshot " + file + " is too short");
+            }
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE);
+            header.order(ByteOrder.LITTLE_ENDIAN);
+            if (header.getInt(0) != MAGIC) {
+                throw new IOException(file + " is not a graph snapshot");
+            }
+            if (header.getInt(4) != VERSION) {
+                throw new IOException("Unsupported snapshot version " + header.getInt(4));
+            }
+            int n = header.getInt(8);
+            int m = header.getInt(12);
+            long expectedSize = HEADER_SIZE + 4L * n + 3 * 8L * n + 4L * (n + 1) + 2 * 4L * m + 2 * 8L * m + 8;
+            if (n < 0 || m < 0 || channel.size() != expectedSize) {
+                throw new IOException("Snapshot " + file + " has wrong size");
+            }
+            CRC32 crc = verify ? new CRC32() : null;
+            if (crc != null) {
+                crc.update(header.duplicate());
+            }
+            long[] position = {HEADER_SIZE};
+            int[] vertexIds = readInts(channel, position, n, crc);
+            double[] xCoordinates = readDoubles(channel, position, n, crc);
+            double[] yCoordinates = readDoubles(channel, position, n, crc);
+            double[] vertexValues = readDoubles(channel, position, n, crc);
+            int[] edgeOffsets = readInts(channel, position, n + 1, crc);
+            int[] edgeTargets = readInts(channel, position, m, crc);
+            int[] edgeIds = readInts(channel, position, m, crc);
+            double[] edgeLengths = readDoubles(channel, position, m, crc);
+            double[] edgeCapacities = readDoubles(channel, position, m, crc);
+            if (crc != null) {
+                MappedByteBuffer checksum = channel.map(FileChannel.MapMode.READ_ONLY, position[0], 8);
+                if (checksum.order(ByteOrder.LITTLE_ENDIAN).getLong(0) != crc.getValue()) {
+                    throw new IOException("Snapshot " + file + " is corrupted (checksum mismatch)");
+                }
+            }
+            if (edgeOffsets[0] != 0 || edgeOffsets[n] != m) {
+                throw new IOException("Snapshot " + file + " has invalid edge offsets");
+            }
+            return new CompactGraph(vertexIds, xCoordinates, yCoordinates, vertexValues,
+                    edgeOffsets, edgeTargets, edgeIds, edgeLengths, edgeCapacities);
+        }
+    }
+
+    /**
+     * Writes block and adds it to checksum.
+     * @param channel   Target channel.
+     * @param block     Block prepared for reading.
+     * @param crc       Checksum of written bytes.
+     * @throws IOException  if block cannot be written.
+     */
+    private static void writeBlock(FileChannel channel, ByteBuffer block, CRC32 crc) throws IOException {
+        crc.update(block.duplicate());
+        while (block.hasRemaining()) {
+            channel.write(block);
+        }
+    }
+
+    /**
+     * Writes array of integers.
+     * @param channel   Target channel.
+     * @param array     Written array.
+     * @param block     Buffer used for writing.
+     * @param crc       Checksum of written bytes.
+     * @throws IOException  if array cannot be written.
+     */
+    private static void writeInts(FileChannel channel, int[] array, ByteBuffer block, CRC32 crc) throws IOException {
+        int step = BLOCK_SIZE / Integer.BYTES;
+        for (int from = 0; from < array.length; from += step) {
+            int count = Math.min(step, array.length - from);
+            block.clear();
+            block.asIntBuffer().put(array, from, count);
+            block.limit(count * Integer.BYTES);
+            writeBlock(channel, block, crc);
+        }
+    }
+
+    /**
+     * Writes array of doubles.
+     * @param channel   Target channel.
+     * @param array     Written array.
+     * @param block     Buffer used for writing.
+     * @param crc       Checksum of written bytes.
+     * @throws IOException  if array cannot be written.
+     */
+    private static void writeDoubles(FileChannel channel, double[] array, ByteBuffer block, CRC32 crc) throws IOException {
+        int step = BLOCK_SIZE / Double.BYTES;
+        for (int from = 0; from < array.length; from += step) {
+            int count = Math.min(step, array.length - from);
+            block.clear();
+            block.asDoubleBuffer().put(array, from, count);
+            block.limit(count * Double.BYTES);
+            writeBlock(channel, block, crc);
+        }
+    }
+
+    /**
+     * Maps part of the file and adds it to checksum.
+     * @param channel   Source channel.
+     * @param position  Position of the part in the file.
+     * @param size      Size of the part in bytes.
+     * @param crc       Checksum of read bytes, null if checksum is not verified.
+     * @return  mapped part of the file.
+     * @throws IOException  if file cannot be mapped.
+     */
+    private static ByteBuffer mapBlock(FileChannel channel, long position, int size, CRC32 crc) throws IOException {
+        MappedByteBuffer block = channel.map(FileChannel.MapMode.READ_ONLY, position, size);
+        if (crc != null) {
+            crc.update(block.duplicate());
+        }
+        return block.order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * Reads array of integers.
+     * @param channel   Source channel.
+     * @param position  Position of the array in the file, moved after the array.
+     * @param length    Length of the array.
+     * @param crc       Checksum of read bytes, null if checksum is not verified.
+     * @return  the array.
+     * @throws IOException  if file cannot be read.
+     */
+    private static int[] readInts(FileChannel channel, long[] position, int length, CRC32 crc) throws IOException {
+        int[] array = new int[length];
+        int step = BLOCK_SIZE / Integer.BYTES;
+        for (int from = 0; from < length; from += step) {
+            int count = Math.min(step, length - from);
+            mapBlock(channel, position[0], count * Integer.BYTES, crc).asIntBuffer().get(array, from, count);
+            position[0] += (long) count * Integer.BYTES;
+        }
+        return array;
+    }
+
+    /**
+     * Reads array of doubles.
+     * @param channel   Source channel.
+     * @param position  Position of the array in the file, moved after the array.
+     * @param length    Length of the array.
+     * @param crc       Checksum of read bytes, null if checksum is not verified.
+     * @return  the array.
+     * @throws IOException  if file cannot be read.
+     */
+    private static double[] readDoubles(FileChannel channel, long[] position, int length, CRC32 crc) throws IOException {
+        double[] array = new double[length];
+        int step = BLOCK_SIZE / Double.BYTES;
+        for (int from = 0; from < length; from += step) {
+            int count = Math.min(step, length - from);
+            mapBlock(channel, position[0], count * Double.BYTES, crc).asDoubleBuffer().get(array, from, count);
+            position[0] += (long) count * Double.BYTES;
+        }
+        return array;
+    }
+}
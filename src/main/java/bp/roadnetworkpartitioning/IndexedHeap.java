@@ -0,0 +1,193 @@
+package bp.roadnetworkpartitioning;
+
+import java.util.Arrays;
+
+/**
+ * Binary min-heap of integer items 0..capacity-1 with double keys.
+ * Position of every item is tracked, so key of an item can be changed
+ * and the item can be removed in logarithmic time.
+ * @author Lucie Roy
+ * @version 18-10-2026
+ */
+public class IndexedHeap {
+    /** Items in heap order. */
+    private final int[] items;
+    /** Keys of items (by item). */
+    private final double[] keys;
+    /** Position of each item in heap, -1 if item is not in the heap. */
+    private final int[] positions;
+    /** Number of items in the heap. */
+    private int size = 0;
+
+    /**
+     * Constructor of empty heap.
+     * @param capacity  Number of possible items (items are 0..capacity-1).
+     */
+    public IndexedHeap(int capacity) {
+        this.items = new int[capacity];
+        this.keys = new double[capacity];
+        this.positions = new int[capacity];
+        Arrays.fill(positions, -1);
+    }
+
+    /**
+     * Gets number of items in the heap.
+     * @return number of items in the heap.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks if heap is empty.
+     * @return true if heap is empty.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Checks if heap contains given item.
+     * @param item  the item.
+     * @return  true if item is in the heap.
+     */
+    public boolean contains(int item) {
+        return positions[item] >= 0;
+    }
+
+    /**
+     * Gets key of item in the heap.
+     * @param item  the item.
+     * @return  key of the item.
+     */
+    public double getKey(int item) {
+        return keys[item];
+    }
+
+    /**
+     * Inserts item into the heap or changes its key if it is already in the heap.
+     * @param item  the item.
+     * @param key   key of the item.
+     */
+    public void put(int item, double key) {
+        if (positions[item] < 0) {
+            keys[item] = key;
+            positions[item] = size;
+            items[size++] = item;
+            siftUp(positions[item]);
+            return;
+        }
+        double oldKey = keys[item];
+        keys[item] = key;
+        if (key < oldKey) {
+            siftUp(positions[item]);
+        } else {
+            siftDown(positions[item]);
+        }
+    }
+
+    /**
+     * Gets item with minimal key without removing it.
+     * @return item with minimal key.
+     */
+    public int peek() {
+        return items[0];
+    }
+
+    /**
+     * Gets minimal key.
+     * @return minimal key.
+     */
+    public double peekKey() {
+        return keys[items[0]];
+    }
+
+    /**
+     * Removes item with minimal key.
+     * @return item with minimal key.
+     */
+    public int poll() {
+        int item = items[0];
+        remove(item);
+        return item;
+    }
+
+    /**
+     * Removes item from the heap if present.
+     * @param item  the item.
+     */
+    public void remove(int item) {
+        int position = positions[item];
+        if (position < 0) {
+            return;
+        }
+        positions[item] = -1;
+        size--;
+        if (position == size) {
+            return;
+        }
+        int last = items[size];
+        items[position] = last;
+        positions[last] = position;
+        siftUp(position);
+        siftDown(positions[last]);
+    }
+
+    /**
+     * Removes all items.
+     */
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            positions[items[i]] = -1;
+        }
+        size = 0;
+    }
+
+    /**
+     * Moves item up until heap order is restored.
+     * @param position  position of the item.
+     */
+    private void siftUp(int position) {
+        int item = items[position];
+        double key = keys[item];
+        while (position > 0) {
+            int parent = (position - 1) / 2;
+            int parentItem = items[parent];
+            if (keys[parentItem] <= key) {
+                break;
+            }
+            items[position] = parentItem;
+            positions[parentItem] = position;
+            position = parent;
+        }
+        items[position] = item;
+        positions[item] = position;
+    }
+
+    /**
+     * Moves item down until heap order is restored.
+     * @param position  position of the item.
+     */
+    private void siftDown(int position) {
+        int item = items[position];
+        double key = keys[item];
+        while (true) {
+            int child = 2 * position + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && keys[items[child + 1]] < keys[items[child]]) {
+                child++;
+            }
+            int childItem = items[child];
+            if (keys[childItem] >= key) {
+                break;
+            }
+            items[position] = childItem;
+            positions[childItem] = position;
+            position = child;
+        }
+        items[position] = item;
+        positions[item] = position;
+    }
+}
@@ -75,11 +75,16 @@ public class JSONDialogController extends Dialog<Boolean> {
     /** Button for uploading file with edges info. */
     @FXML
     private Button btnFileEdge;
+    /** CheckBox for loading graph directly without creating JSON file. */
+    @FXML
+    private CheckBox checkBoxLoadDirectly;
     /** Main button of the dialog creating JSON file. */
     @FXML
     private ButtonType btnCreateJSONFile;
     /** True, if JSON file is created. */
     private boolean isCreated = false;
+    /** Graph loaded directly from the files, null if JSON file was created instead. */
+    private Graph graph = null;
 
     /**
      * Constructor of dialog for JSON file creation with given stage/window for dialog.
@@ -132,10 +137,25 @@ public class JSONDialogController extends Dialog<Boolean> {
         String delimiterVertex = textFieldDelimiterVertex.getText().isEmpty() ? "\\s+" : textFieldDelimiterVertex.getText();
         DateTimeFormatter dtf = DateTimeFormatter.ofPattern("ddMMyyyyHHmmss");
         LocalDateTime now = LocalDateTime.now();
+        if (checkBoxLoadDirectly.isSelected()) {
+            CompactGraph compactGraph = JSONParser.readGraph(details, delimiterEdge, delimiterVertex,
+                    coordinatesFile, edgesFile);
+            this.graph = compactGraph == null ? null : compactGraph.toGraph();
+            this.isCreated = this.graph != null;
+            return;
+        }
         this.isCreated = JSONParser.createJSONFile(details, delimiterEdge, delimiterVertex,
                 coordinatesFile, edgesFile, "graph_" + dtf.format(now));
     }
 
+    /**
+     * Gets graph loaded directly from the files.
+     * @return  loaded graph, null if graph was not loaded directly.
+     */
+    public Graph getGraph() {
+        return this.graph;
+    }
+
     /**
      * Method called when button "Upload file!" is clicked.
      * This method opens a dialog for choosing a file with vertices coordinates.
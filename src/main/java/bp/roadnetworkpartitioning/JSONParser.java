@@ -1,9 +1,7 @@
 package bp.roadnetworkpartitioning;
 
-import java.io.BufferedWriter;
 import java.io.File;
-import java.io.FileNotFoundException;
-import java.io.FileWriter;
+import java.io.IOException;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
@@ -39,129 +37,100 @@ public class JSONParser {
      */
     public static boolean createJSONFile(int[] details, String delimiterEdge, String delimiterVertex,
                                          File coordinatesFile, File edgesFile, String jsonName){
-        if((coordinatesFile == null) && (edgesFile == null)){
+        CompactGraph graph = readGraph(details, delimiterEdge, delimiterVertex, coordinatesFile, edgesFile);
+        if(graph == null){
             return false;
         }
-        Map<Integer, Vertex> vertices = readVertices(details, delimiterVertex, coordinatesFile);
-        if(vertices == null){
-            return false;
+        try {
+            GeoJSONWriter.writeGraph(graph, new File(jsonName + EXTENSION));
+            return true;
+        } catch (IOException e) {
+            e.printStackTrace();
         }
-        Map<Integer, Edge> edges = readEdges(details, delimiterEdge, edgesFile, vertices);
-        if(edges == null){
-            return false;
+        return false;
+    }
+
+    /**
+     * Reads graph from two given files directly into compact graph without creating GeoJSON file.
+     * @param details           Array with the same meaning as in createJSONFile,
+     *                          non-positive number of the first line with data means that it is detected
+     *                          together with columns (from header line) which are not given.
+     * @param delimiterEdge     Delimiter of columns in file with graph edges.
+     * @param delimiterVertex   Delimiter of columns in file with vertices coordinates.
+     * @param coordinatesFile   File with vertices coordinates.
+     * @param edgesFile         File with graph edges.
+     * @return  created compact graph or null if not successful.
+     */
+    public static CompactGraph readGraph(int[] details, String delimiterEdge, String delimiterVertex,
+                                         File coordinatesFile, File edgesFile){
+        if((coordinatesFile == null) || (edgesFile == null)){
+            return null;
+        }
+        try {
+            return new DelimitedGraphReader(details, delimiterEdge, delimiterVertex).read(coordinatesFile, edgesFile);
+        } catch (IOException e) {
+            e.printStackTrace();
         }
-        return writeJSONFile(jsonName, vertices, edges.size());
+        return null;
     }
 
     /**
-     * Exports each graph part to separate GeoJSON file.
+     * Exports whole partition to one GeoJSON file, every feature has property "part" with number of its part.
      * @param algorithm         Partitioning algorithm.
      * @param graphPartition    Graph partition created by this algorithm.
      * @param i     index of test round.
      */
     public static void exportResultingPartition(APartitionAlgorithm algorithm, GraphPartition graphPartition, int i) {
+        exportResultingPartition(algorithm, graphPartition, i, true);
+    }
+
+    /**
+     * Exports partition to one GeoJSON file or each graph part to separate GeoJSON file.
+     * @param algorithm         Partitioning algorithm.
+     * @param graphPartition    Graph partition created by this algorithm.
+     * @param i                 index of test round.
+     * @param singleFile        true if the whole partition should be written to one file.
+     */
+    public static void exportResultingPartition(APartitionAlgorithm algorithm, GraphPartition graphPartition,
+                                                int i, boolean singleFile) {
         DateTimeFormatter dtf = DateTimeFormatter.ofPattern("ddMMyyyyHHmmss");
         LocalDateTime now = LocalDateTime.now();
         String jsonName = algorithm.getName() + dtf.format(now) + "_" + i;
-        int j = 0;
-        for (Graph graphComponent : graphPartition.getGraphComponents()) {
-            JSONParser.writeJSONFile(jsonName + "_" + j, graphComponent);
-            j++;
+        try {
+            if (singleFile) {
+                GeoJSONWriter.writePartition(graphPartition, new File(jsonName + EXTENSION));
+            } else {
+                GeoJSONWriter.writeParts(graphPartition, jsonName);
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
         }
     }
 
     /**
-     * Writes graph to GeoJSON file.
+     * Writes graph to GeoJSON file, edges to vertices outside of the graph are written as half edges.
      * @param jsonName      File name.
      * @param graph         Graph to be recorder.
      * @return  true if written successfully.
      */
     public static boolean writeJSONFile(String jsonName, Graph graph) {
-        return writeJSONFile(jsonName, graph.getVertices(), graph.getEdges().values().size());
+        try {
+            GeoJSONWriter.writeGraph(graph, new File(jsonName + EXTENSION));
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
     }
 
     /**
-     * Writes graph to GeoJSON file.
+     * Writes graph to GeoJSON file, edges to vertices outside of the graph are written as half edges.
      * @param jsonName      File name.
      * @param vertices      All graph vertices.
-     * @param edgesSize     Number of edges.
+     * @param edgesSize     Number of edges, not needed any more, array is closed after the last edge.
      * @return  true if written successfully.
      */
     public static boolean writeJSONFile(String jsonName, Map<Integer, Vertex> vertices, int edgesSize) {
-        try (BufferedWriter bw = new BufferedWriter(new FileWriter(jsonName + EXTENSION))){
-            bw.write("{\n \"type\": \"FeatureCollection\",\n \"features\": [\n");
-            int k = 1;
-            for (Vertex vertex : vertices.values()) {
-                for (Edge edge : vertex.getStartingEdges()) {
-                    int endpointId;
-                    double pointX;
-                    double pointY;
-                    double length;
-                    double capacity;
-                    if (vertices.containsKey(edge.getEndpoint().getId())){
-                        endpointId = edge.getEndpoint().getId();
-                        pointX = edge.getEndpoint().getX();
-                        pointY = edge.getEndpoint().getY();
-                        length = edge.getLength();
-                        capacity = edge.getCapacity();
-                    }
-                    else {
-                        endpointId = - Math.min(edge.getEndpoint().getId(), vertex.getId());
-                        pointX = (vertex.getX() + edge.getEndpoint().getX()) / 2;
-                        pointY = (vertex.getY() + edge.getEndpoint().getY()) / 2;
-                        length = edge.getLength()/2;
-                        capacity = edge.getCapacity()/2;
-                    }
-                    bw.write("{ \"type\": \"Feature\", \"properties\": { \"fid\": " + k +
-                            ", \"cat\": " + k + ", \"init_node\": " + vertex.getId() + ", " +
-                            "\"term_node\": " + endpointId +
-                            ", \"capacity\": " + capacity +
-                            ", \"length\": " + length +
-                            "}, \"geometry\": { \"type\": \"LineString\", " +
-                            "\"coordinates\": [ [ " + vertex.getX() +
-                            ", " + vertex.getY() + " ], [ " + pointX +
-                            ", " + pointY +
-                            " ] ] } }");
-                    if (k == edgesSize) {
-                        bw.write("\n]\n}");
-                    } else {
-                        bw.write(",\n");
-                    }
-                    k++;
-                }
-                for (Edge endingEdge : vertex.getEndingEdges()) {
-                    if (!vertices.containsKey(endingEdge.getStartpoint().getId())) {
-                        int startpointId = - Math.min(endingEdge.getStartpoint().getId(), vertex.getId());
-                        double pointX = (vertex.getX() + endingEdge.getStartpoint().getX()) / 2;
-                        double pointY = (vertex.getY() + endingEdge.getStartpoint().getY()) / 2;
-                        double length = endingEdge.getLength() / 2;
-                        double capacity = endingEdge.getCapacity() / 2;
-                        bw.write("{ \"type\": \"Feature\", \"properties\": { \"fid\": " + k +
-                                ", \"cat\": " + k + ", \"init_node\": " + startpointId + ", " +
-                                "\"term_node\": " + vertex.getId() +
-                                ", \"capacity\": " + capacity +
-                                ", \"length\": " + length +
-                                "}, \"geometry\": { \"type\": \"LineString\", " +
-                                "\"coordinates\": [ [ " + pointX +
-                                ", " + pointY + " ], [ " + vertex.getX() +
-                                ", " + vertex.getY() +
-                                " ] ] } }");
-                        if (k == edgesSize) {
-                            bw.write("\n]\n}");
-                        } else {
-                            bw.write(",\n");
-                        }
-                        k++;
-                    }
-                }
-            }
-            bw.flush();
-            bw.close();
-            System.out.println("DONE");
-            return true;
-        }catch(Exception e) {
-            return false;
-        }
+        return writeJSONFile(jsonName, new Graph(vertices, null));
     }
 
     /**
@@ -170,233 +139,22 @@ public class JSONParser {
      * @return  created graph or null if not successful.
      */
     public static Graph readFile(File graphFile){
-        try (Scanner sc = new Scanner(graphFile)){
-            HashMap<Integer,Vertex> vertices = new HashMap<>();
-            HashMap<Integer,Edge> edges = new HashMap<>();
-            String line = sc.nextLine();
-            while(!line.contains("\"type\": \"Feature\"")){
-                line = sc.nextLine();
-            }
-            while(sc.hasNextLine()){
-                String[] details = line.split(":");
-                int vertexId1 = 0;
-                int vertexId2 = 0;
-                double length = 0.0;
-                double capacity = Double.NaN;
-                double vertexX1 = Double.NaN;
-                double vertexY1 = Double.NaN;
-                double vertexX2 = Double.NaN;
-                double vertexY2 = Double.NaN;
-                if(line.contains("LineString")) {
-                    for (int i = 0; i < details.length-1; i++) {
-                        try {
-                            if (details[i].contains("init_node")) {
-                                vertexId1 = Integer.parseInt(details[i + 1].trim().split("[}, ]")[0]);
-                            }
-                            if (details[i].contains("term_node")) {
-                                vertexId2 = Integer.parseInt(details[i + 1].trim().split("[}, ]")[0]);
-                            }
-                            if (details[i].contains("capacity")) {
-                                capacity = Double.parseDouble(details[i + 1].trim().split("[}, ]")[0]);
-                            }
-                            if (details[i].contains("length")) {
-                                length = Double.parseDouble(details[i + 1].trim().split("[}, ]")[0]);
-                            }
-                            if (details[i].contains("coordinates")) {
-                                String[] coordinates = details[i + 1].trim().split("[}, \\[\\]]");
-                                vertexX1 = Double.parseDouble(coordinates[4].trim());
-                                vertexY1 = Double.parseDouble(coordinates[6].trim());
-                                vertexX2 = Double.parseDouble(coordinates[coordinates.length-3].trim());
-                                vertexY2 = Double.parseDouble(coordinates[coordinates.length-1].trim());
-                            }
-                        }
-                        catch (Exception e) {
-                            System.out.println("Could not parse " + details[i]);
-                        }
-                    }
-                    if (!Double.isNaN(vertexX1) && !Double.isNaN(vertexY1) && !Double.isNaN(vertexX2) && !Double.isNaN(vertexY2)) {
-                        if (!vertices.containsKey(vertexId1)) {
-                            Vertex vertex1 = new Vertex(vertexId1, vertexX1, vertexY1);
-                            vertices.put(vertexId1, vertex1);
-                        }
-                        if (!vertices.containsKey(vertexId2)) {
-                            Vertex vertex2 = new Vertex(vertexId2, vertexX2, vertexY2);
-                            vertices.put(vertexId2, vertex2);
-                        }
-                        Edge edge = new Edge(vertices.get(vertexId1), vertices.get(vertexId2), length);
-                        if (!Double.isNaN(capacity)) {
-                            edge.setCapacity(capacity);
-                        }
-                        vertices.get(vertexId1).getStartingEdges().add(edge);
-                        vertices.get(vertexId2).getEndingEdges().add(edge);
-                        edges.put(edge.getId(), edge);
-                    }
-                }
-                line = sc.nextLine();
-            }
-            return new Graph(vertices, edges);
-        } catch (FileNotFoundException e) {
-            e.printStackTrace();
-        }
-        return null;
+        CompactGraph compactGraph = readCompactFile(graphFile);
+        return compactGraph == null ? null : compactGraph.toGraph();
     }
 
     /**
-     * Reads file with edges info and connects it with right vertices.
-     * @param details       Array with number of line where data starts in node file
-     *                      number of line where data starts in edge file,
-     *                      number of column where is start point of edge in edge file,
-     *                      number of column where is endpoint of edge in edge file,
-     *                      number of column where is capacity of edge in edge file,
-     *                      number of column where is length of edge in edge file,
-     *                      number of column where is ID of node in node file,
-     *                      number of column where is x-coordinate of node in node file,
-     *                      number of column where is y-coordinate of node in node file.
-     * @param delimiterEdge Delimiter of columns in file with graph edges.
-     * @param edgesFile     File with graph edges,
-     *                      text file where each edge's info is on individual line (fromId toId ? length ??? ;).
-     * @param vertices      List of available vertices.
-     * @return list of read edges. Returns null if file was impossible to read.
-     */
-    private static Map<Integer, Edge> readEdges(int[] details, String delimiterEdge, File edgesFile, Map<Integer, Vertex> vertices){
-        Map<Integer, Edge> edges = new HashMap<>();
-        try (Scanner sc = new Scanner(edgesFile)){
-            String[] data = findFirstLine(sc, details[1], delimiterEdge);
-            int indexStart = Math.max(details[2], 0);
-            int indexEnd = details[3] >= 0 ? details[3] : 1;
-            int indexCapacity = details[4] >= 0 ? details[4] : -1;
-            int indexLength = details[5] >= 0 ? details[5] : 3;
-            int maxIndex = Math.max(Math.max(indexStart, indexEnd), Math.max(indexCapacity, indexLength));
-            if (maxIndex < data.length) {
-                try {
-                    Vertex startpoint = vertices.get(Integer.parseInt(data[indexStart]));
-                    Vertex endpoint = vertices.get(Integer.parseInt(data[indexEnd]));
-                    double length = Double.parseDouble(data[indexLength ]);
-                    Edge edge = new Edge(startpoint, endpoint, length);
-                    startpoint.getStartingEdges().add(edge);
-                    endpoint.getEndingEdges().add(edge);
-                    edges.put(edge.getId(), edge);
-                    if (indexCapacity >= 0) {
-                        double capacity = Double.parseDouble(data[indexCapacity]);
-                        edge.setCapacity(capacity);
-                    }
-                } catch (NumberFormatException e) {
-                    e.printStackTrace();
-                }
-            }
-            while(sc.hasNextLine()){
-                String line = sc.nextLine();
-                data = line.trim().split(delimiterEdge);
-                if (maxIndex < data.length) {
-                    try {
-                        Vertex startpoint = vertices.get(Integer.parseInt(data[indexStart]));
-                        Vertex endpoint = vertices.get(Integer.parseInt(data[indexEnd]));
-                        double length = Double.parseDouble(data[indexLength ]);
-                        Edge edge = new Edge(startpoint, endpoint, length);
-                        startpoint.getStartingEdges().add(edge);
-                        endpoint.getEndingEdges().add(edge);
-                        edges.put(edge.getId(), edge);
-                        if (indexCapacity >= 0) {
-                            double capacity = Double.parseDouble(data[indexCapacity]);
-                            edge.setCapacity(capacity);
-                        }
-                    } catch (NumberFormatException e) {
-                        e.printStackTrace();
-                    }
-                }
-            }
-            return edges;
-        } catch (FileNotFoundException e) {
-            e.printStackTrace();
-        }
-        return null;
-    }
-
-    /**
-     * Reads file with vertices.
-     * @param details           Array with number of line where data starts in node file
-     *                          number of line where data starts in edge file,
-     *                          number of column where is start point of edge in edge file,
-     *                          number of column where is endpoint of edge in edge file,
-     *                          number of column where is capacity of edge in edge file,
-     *                          number of column where is length of edge in edge file,
-     *                          number of column where is ID of node in node file,
-     *                          number of column where is x-coordinate of node in node file,
-     *                          number of column where is y-coordinate of node in node file.
-     * @param delimiterVertex   Delimiter of columns in file with vertices coordinates.
-     * @param coordinatesFile   File with vertices coordinates,
-     *                          text file where each vertex's coordinates are on individual line (id x y ;).
-     * @return list of read vertices. Returns null if file was impossible to read.
+     * Reads file with graph in geojson format directly into compact graph.
+     * @param graphFile     file with graph
+     * @return  created compact graph or null if not successful.
      */
-    private static Map<Integer, Vertex> readVertices(int[] details, String delimiterVertex, File coordinatesFile){
-        Map<Integer, Vertex> vertices = new HashMap<>();
-        try (Scanner sc = new Scanner(coordinatesFile)){
-            String[] data = findFirstLine(sc, details[0], delimiterVertex);
-            int indexId = Math.max(details[6], 0);
-            int indexX = details[7] >= 0 ? details[7] : 1;
-            int indexY = details[8] >= 0 ? details[8] : 2;
-            int maxIndex = Math.max(Math.max(indexId, indexX), indexY);
-            if (maxIndex < data.length) {
-                try {
-                    int id = MainController.getNumberFromString(data[details[6]]);
-                    Vertex vertex = new Vertex(id, Double.parseDouble(data[details[7]]), Double.parseDouble(data[details[8]]));
-                    vertices.put(id, vertex);
-                } catch (NumberFormatException e) {
-                    e.printStackTrace();
-                }
-            }
-            while(sc.hasNextLine()){
-                String line = sc.nextLine();
-                data = line.trim().split(delimiterVertex);
-                if (maxIndex < data.length) {
-                    int id = MainController.getNumberFromString(data[indexId]);
-                    try {
-                        double x = Double.parseDouble(data[indexX]);
-                        double y = Double.parseDouble(data[indexY]);
-                        Vertex vertex = new Vertex(id, x, y);
-                        vertices.put(id, vertex);
-                    }catch (NumberFormatException e) {
-                        e.printStackTrace();
-                    }
-                }
-            }
-            return vertices;
-        } catch (FileNotFoundException e) {
+    public static CompactGraph readCompactFile(File graphFile){
+        try {
+            return ParallelGeoJSONReader.read(graphFile);
+        } catch (IOException e) {
             e.printStackTrace();
         }
         return null;
     }
 
-    /**
-     * Finds first useful line in file.
-     * @param sc    Instance of Scanner.
-     * @return  first useful line divided into meaningful pieces.
-     */
-    private static String[] findFirstLine(Scanner sc){
-        String line = sc.nextLine();
-        String firstChar = line.trim().split("\\s+")[0];
-        while(!firstChar.equals("1")){
-            line = sc.nextLine();
-            firstChar = line.trim().split("\\s+")[0];
-        }
-        return line.trim().split("\\s+");
-    }
-
-    /**
-     * Finds first useful line in file.
-     * @param sc            Instance of Scanner.
-     * @param firstLine     Number of first line with data.
-     * @param delimiter     Delimiter of columns with data.
-     * @return  first useful line (with data) divided into meaningful pieces.
-     */
-    private static String[] findFirstLine(Scanner sc, int firstLine, String delimiter){
-        if((firstLine <= 0) || (delimiter.isEmpty())){
-            return findFirstLine(sc);
-        }
-        String line = "";
-        for(int i = 0; i < firstLine; i++){
-            line = sc.nextLine();
-        }
-        return line.trim().split(delimiter);
-    }
 }
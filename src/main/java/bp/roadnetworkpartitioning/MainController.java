@@ -15,6 +15,7 @@ import javafx.stage.FileChooser;
 import javafx.stage.Stage;
 
 import java.io.File;
+import java.io.IOException;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.Arrays;
@@ -152,7 +153,7 @@ public class MainController {
         Task<Void> insertGraphTask = new Task<>() {
             @Override
             protected Void call() {
-                MainController.this.graph = JSONParser.readFile(selectedFile);
+                MainController.this.graph = GraphFileLoader.load(selectedFile);
                 MainController.this.graphPartition = null;
                 progressMessages.appendText("Reading is done, visualizing graph...\n");
                 return null;
@@ -276,7 +277,13 @@ public class MainController {
         try {
             JSONDialogController dialog = new JSONDialogController(stage);
             dialog.showAndWait().ifPresent(isCreated -> {
-                if (isCreated) {
+                if (isCreated && dialog.getGraph() != null) {
+                    this.graph = dialog.getGraph();
+                    this.graphPartition = null;
+                    progressMessages.appendText("Graph was loaded.\n");
+                    visualizeGraph();
+                }
+                else if (isCreated) {
                     progressMessages.appendText("JSON file was created.\n");
                 }
                 else {
@@ -364,10 +371,7 @@ public class MainController {
             Task<Void> drawGraphTask = new Task<>() {
                 @Override
                 protected Void call() {
-                    for (int i = 0; i < spinnerPartCount.getValue(); i++) {
-                        Color color = colors.length > i ? colors[i] : Color.BLACK;
-                        drawGraph(group, graphPartition.getGraphComponents().get(i), color);
-                    }
+                    drawGraphPartition(group, graphPartition);
                     return null;
                 }
 
@@ -406,7 +410,39 @@ public class MainController {
             for(Edge edge: vertex.getStartingEdges()){
                 Line line = new Line((vertex.getX()*zoom), (vertex.getY()*zoom),
                         (edge.getEndpoint().getX()*zoom), (edge.getEndpoint().getY()*zoom));
-                if (graph.getVertices().containsValue(edge.getEndpoint())){
+                if (graph.getVertices().containsKey(edge.getEndpoint().getId())){
+                    line.setStroke(color);
+                }
+                group.getChildren().add(line);
+            }
+        }
+    }
+
+    /**
+     * Draws graph partition, each part with its own color.
+     * @param group             group where graph belongs.
+     * @param graphPartition    the graph partition.
+     */
+    private void drawGraphPartition(Group group, GraphPartition graphPartition){
+        int size = 5;
+        CompactGraph compactGraph = graphPartition.getCompactGraph();
+        int[] partOf = graphPartition.getPartOf();
+        double[] x = compactGraph.getXCoordinates();
+        double[] y = compactGraph.getYCoordinates();
+        int[] offsets = compactGraph.getEdgeOffsets();
+        int[] targets = compactGraph.getEdgeTargets();
+        for(int v = 0; v < compactGraph.getVertexCount(); v++){
+            if(partOf[v] < 0){
+                continue;
+            }
+            Color color = colors.length > partOf[v] ? colors[partOf[v]] : Color.BLACK;
+            Circle circle = new Circle((x[v]*zoom), (y[v]*zoom), size);
+            circle.setStroke(color);
+            circle.setFill(color);
+            group.getChildren().add(circle);
+            for(int e = offsets[v]; e < offsets[v + 1]; e++){
+                Line line = new Line((x[v]*zoom), (y[v]*zoom), (x[targets[e]]*zoom), (y[targets[e]]*zoom));
+                if (partOf[targets[e]] == partOf[v]){
                     line.setStroke(color);
                 }
                 group.getChildren().add(line);
@@ -426,6 +462,60 @@ public class MainController {
 
     }
 
+    /** Exports graph to binary snapshot, which is loaded much faster than GeoJSON. */
+    @FXML
+    protected void onExportToSnapshotMenuClick() {
+        FileChooser fileChooser = new FileChooser();
+        fileChooser.setInitialFileName("graph.rnpg");
+        File selectedFile = fileChooser.showSaveDialog(stage);
+        if (selectedFile == null || this.graph == null) {
+            return;
+        }
+        progressMessages.appendText("Exporting to snapshot file...\n");
+        try {
+            GraphSnapshot.write(this.graph, selectedFile);
+            progressMessages.appendText("Export completed.\n");
+        } catch (IOException e) {
+            progressMessages.appendText("Export failed: " + e.getMessage() + "\n");
+        }
+    }
+
+    /** Exports graph to METIS graph file with coordinates in .xyz file. */
+    @FXML
+    protected void onExportToMetisMenuClick() {
+        FileChooser fileChooser = new FileChooser();
+        fileChooser.setInitialFileName("graph" + MetisGraphFile.GRAPH_EXTENSION);
+        File selectedFile = fileChooser.showSaveDialog(stage);
+        if (selectedFile == null || this.graph == null) {
+            return;
+        }
+        progressMessages.appendText("Exporting to METIS file...\n");
+        try {
+            MetisGraphFile.write(this.graph.getCompactGraph(), selectedFile);
+            progressMessages.appendText("Export completed.\n");
+        } catch (IOException e) {
+            progressMessages.appendText("Export failed: " + e.getMessage() + "\n");
+        }
+    }
+
+    /** Exports graph to DIMACS graph file with coordinates in .co file. */
+    @FXML
+    protected void onExportToDIMACSMenuClick() {
+        FileChooser fileChooser = new FileChooser();
+        fileChooser.setInitialFileName("graph" + DIMACSGraphFile.GRAPH_EXTENSION);
+        File selectedFile = fileChooser.showSaveDialog(stage);
+        if (selectedFile == null || this.graph == null) {
+            return;
+        }
+        progressMessages.appendText("Exporting to DIMACS file...\n");
+        try {
+            DIMACSGraphFile.write(this.graph.getCompactGraph(), selectedFile);
+            progressMessages.appendText("Export completed.\n");
+        } catch (IOException e) {
+            progressMessages.appendText("Export failed: " + e.getMessage() + "\n");
+        }
+    }
+
     /** Exports resulting partition to GeoJSON. */
     @FXML
     protected void onExportPartitionToGeoJSONMenuClick() {
@@ -0,0 +1,361 @@
+package bp.roadnetworkpartitioning;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Reader and writer of graphs in METIS format. Header line "n m [fmt [ncon]]" is followed by one line
+ * per vertex with its neighbours (numbered from 1), optionally preceded by vertex size and weights
+ * and followed by edge weights as given by fmt. Lines starting with "%" are comments, empty lines
+ * are vertices without neighbours. Coordinates are read from and written to .xyz file with
+ * "x y [z]" line per vertex. Large files are memory-mapped, cut at line breaks and parsed in parallel.
+ * @author Lucie Roy
+ * @version 18-10-2026
+ */
+public class MetisGraphFile {
+    /** Extension of graph file. */
+    public static final String GRAPH_EXTENSION = ".graph";
+    /** Extension of coordinates file. */
+    public static final String COORDINATES_EXTENSION = ".xyz";
+    /** End of header line with format of file with edge weights. */
+    private static final byte[] EDGE_WEIGHTS_FORMAT = ByteOutput.bytes(" 1\n");
+    /** Name of the format used in error messages. */
+    private static final String FORMAT = "METIS";
+    /** Minimal size of chunk of file parsed by one task in bytes. */
+    private static final int MIN_CHUNK_SIZE = 1 << 22;
+    /** Number of chunks per worker thread. */
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    /**
+     * Checks if file is METIS graph file by its name.
+     * @param file  Checked file.
+     * @return  true if file is METIS graph file.
+     */
+    public static boolean isMetis(File file) {
+        return file.getName().toLowerCase(Locale.ROOT).endsWith(GRAPH_EXTENSION);
+    }
+
+    /**
+     * Reads graph, coordinates are read from .xyz file with the same name if it exists.
+     * @param file  Graph file.
+     * @return  created compact graph.
+     * @throws IOException  if files cannot be read or are not valid METIS files.
+     */
+    public static CompactGraph read(File file) throws IOException {
+        File coordinatesFile = siblingFile(file, COORDINATES_EXTENSION);
+        return read(file, coordinatesFile.isFile() ? coordinatesFile : null);
+    }
+
+    /**
+     * Reads graph. Vertex IDs are numbers of vertices (from 1), vertex weights are ignored.
+     * Every undirected edge is listed by both its vertices, so it becomes two edges in opposite
+     * directions and each of them gets half of edge weight as its length (with capacity 1).
+     * Weight of connection of two vertices in compact graph is then equal to the edge weight.
+     * @param graphFile         Graph file.
+     * @param coordinatesFile   Coordinates file, null if coordinates are not known.
+     * @return  created compact graph.
+     * @throws IOException  if files cannot be read or are not valid METIS files.
+     */
+    public static CompactGraph read(File graphFile, File coordinatesFile) throws IOException {
+        int parallelism = ForkJoinPool.getCommonPoolParallelism();
+        int chunkSize = parallelism <= 1 ? Integer.MAX_VALUE
+                : (int) Math.max(MIN_CHUNK_SIZE, graphFile.length() / (parallelism * CHUNKS_PER_THREAD));
+        return read(graphFile, coordinatesFile, chunkSize);
+    }
+
+    /**
+     * Reads graph, vertex lines are parsed in parallel by chunks of given size.
+     * @param graphFile         Graph file.
+     * @param coordinatesFile   Coordinates file, null if coordinates are not known.
+     * @param chunkSize         Min. size of chunk of file parsed by one task in bytes.
+     * @return  created compact graph.
+     * @throws IOException  if files cannot be read or are not valid METIS files.
+     */
+    static CompactGraph read(File graphFile, File coordinatesFile, int chunkSize) throws IOException {
+        try (FileChannel channel = FileChannel.open(graphFile.toPath(), StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                DelimitedTextReader reader = new DelimitedTextReader(channel, DelimitedTextReader.WHITESPACE, FORMAT);
+                Header header = readHeader(reader);
+                double[][] coordinates = readCoordinates(coordinatesFile, header.n);
+                CompactGraphBuilder builder = new CompactGraphBuilder();
+                readVertices(reader, header, coordinates, 1, builder);
+                return build(builder, header, reader);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            DelimitedTextReader reader = new DelimitedTextReader(buffer.duplicate(), DelimitedTextReader.WHITESPACE,
+                    FORMAT);
+            Header header = readHeader(reader);
+            double[][] coordinates = readCoordinates(coordinatesFile, header.n);
+            CompactGraphBuilder builder = new CompactGraphBuilder();
+            if (buffer.limit() - reader.position() <= chunkSize) {
+                readVertices(reader, header, coordinates, 1, builder);
+                return build(builder, header, reader);
+            }
+            List<ByteBuffer> chunks = DelimitedTextReader.splitLines(buffer.position(reader.position()), chunkSize);
+            List<ForkJoinTask<Integer>> counts = new ArrayList<>();
+            for (ByteBuffer chunk : chunks) {
+                counts.add(ForkJoinTask.adapt(() -> countVertexLines(chunk)));
+            }
+            ParallelTasks.invokeAll(counts);
+            List<ForkJoinTask<CompactGraphBuilder>> tasks = new ArrayList<>();
+            int first = 1;
+            for (int i = 0; i < chunks.size(); i++) {
+                ByteBuffer chunk = chunks.get(i);
+                int chunkFirst = first;
+                tasks.add(ForkJoinTask.adapt(() -> {
+                    CompactGraphBuilder chunkBuilder = new CompactGraphBuilder();
+                    readVertices(new DelimitedTextReader(chunk, DelimitedTextReader.WHITESPACE, FORMAT), header,
+                            coordinates, chunkFirst, chunkBuilder);
+                    return chunkBuilder;
+                }));
+                first += counts.get(i).join();
+            }
+            ParallelTasks.invokeAll(tasks);
+            for (ForkJoinTask<CompactGraphBuilder> task : tasks) {
+                builder.addAll(task.join());
+            }
+            return build(builder, header, reader);
+        }
+    }
+
+    /**
+     * Writes graph to graph file and coordinates to .xyz file with the same name.
+     * @param graph     Graph to be written.
+     * @param file      Target graph file.
+     * @throws IOException  if files cannot be written.
+     */
+    public static void write(CompactGraph graph, File file) throws IOException {
+        write(graph, file, siblingFile(file, COORDINATES_EXTENSION));
+    }
+
+    /**
+     * Writes graph. Vertices are numbered from 1 in order of compact graph, edge direction is ignored
+     * and weight of edge is total weight of edges between its vertices rounded to a positive integer.
+     * @param graph             Graph to be written.
+     * @param graphFile         Target graph file.
+     * @param coordinatesFile   Target coordinates file, null if coordinates should not be written.
+     * @throws IOException  if files cannot be written.
+     */
+    public static void write(CompactGraph graph, File graphFile, File coordinatesFile) throws IOException {
+        int n = graph.getVertexCount();
+        int[] offsets = graph.getNeighbourOffsets();
+        int[] neighbours = graph.getNeighbours();
+        double[] weights = graph.getNeighbourWeights();
+        try (OutputStream out = new FileOutputStream(graphFile)) {
+            ByteOutput output = new ByteOutput(out);
+            output.append(n);
+            output.appendByte(' ');
+            output.append(neighbours.length / 2);
+            output.append(EDGE_WEIGHTS_FORMAT);
+            for (int v = 0; v < n; v++) {
+                for (int i = offsets[v]; i < offsets[v + 1]; i++) {
+                    if (i > offsets[v]) {
+                        output.appendByte(' ');
+                    }
+                    output.append(neighbours[i] + 1);
+                    output.appendByte(' ');
+                    output.append(Math.min(Integer.MAX_VALUE, Math.max(1, Math.round(weights[i]))));
+                }
+                output.appendByte('\n');
+            }
+            output.flush();
+        }
+        if (coordinatesFile == null) {
+            return;
+        }
+        double[] x = graph.getXCoordinates();
+        double[] y = graph.getYCoordinates();
+        try (OutputStream out = new FileOutputStream(coordinatesFile)) {
+            ByteOutput output = new ByteOutput(out);
+            for (int v = 0; v < n; v++) {
+                output.append(x[v]);
+                output.appendByte(' ');
+                output.append(y[v]);
+                output.appendByte('\n');
+            }
+            output.flush();
+        }
+    }
+
+    /**
+     * Reads header line after leading comments.
+     * @param reader    Reader positioned at the start of the file.
+     * @return  header of the file.
+     * @throws IOException  if input cannot be read or header is not valid.
+     */
+    private static Header readHeader(DelimitedTextReader reader) throws IOException {
+        while (reader.hasLine()) {
+            int c = reader.peekField();
+            if (c < 0 || c == '%') {
+                reader.nextLine();
+                continue;
+            }
+            Header header = new Header();
+            header.n = reader.readInt();
+            header.m = reader.readInt();
+            String fmt = reader.hasField() ? reader.readString() : "0";
+            header.hasEdgeWeights = fmt.length() >= 1 && fmt.charAt(fmt.length() - 1) == '1';
+            boolean hasVertexWeights = fmt.length() >= 2 && fmt.charAt(fmt.length() - 2) == '1';
+            boolean hasVertexSizes = fmt.length() >= 3 && fmt.charAt(fmt.length() - 3) == '1';
+            int ncon = reader.hasField() ? reader.readInt() : 1;
+            header.skippedFields = (hasVertexSizes ? 1 : 0) + (hasVertexWeights ? ncon : 0);
+            reader.nextLine();
+            return header;
+        }
+        throw reader.malformed("header line expected");
+    }
+
+    /**
+     * Reads coordinates of vertices.
+     * @param file  Coordinates file, null if coordinates are not known.
+     * @param n     Number of vertices.
+     * @return  array with x-coordinates and array with y-coordinates, null if file is not given.
+     * @throws IOException  if file cannot be read or is not valid.
+     */
+    private static double[][] readCoordinates(File file, int n) throws IOException {
+        if (file == null) {
+            return null;
+        }
+        double[][] coordinates = new double[2][n];
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            DelimitedTextReader reader = new DelimitedTextReader(channel, DelimitedTextReader.WHITESPACE, FORMAT);
+            int v = 0;
+            while (reader.hasLine() && v < n) {
+                int c = reader.peekField();
+                if (c >= 0 && c != '%') {
+                    coordinates[0][v] = reader.readDouble();
+                    coordinates[1][v] = reader.readDouble();
+                    v++;
+                }
+                reader.nextLine();
+            }
+            if (v < n) {
+                throw reader.malformed(n + " coordinates expected, " + v + " found");
+            }
+        }
+        return coordinates;
+    }
+
+    /**
+     * Counts lines with vertices (all lines except comments) in chunk of the file.
+     * @param chunk     Chunk of the file.
+     * @return  number of vertex lines.
+     */
+    private static int countVertexLines(ByteBuffer chunk) {
+        int count = 0;
+        int i = chunk.position();
+        int limit = chunk.limit();
+        while (i < limit) {
+            while (i < limit && (chunk.get(i) == ' ' || chunk.get(i) == '\t')) {
+                i++;
+            }
+            if (i == limit || chunk.get(i) != '%') {
+                count++;
+            }
+            while (i < limit && chunk.get(i) != '\n') {
+                i++;
+            }
+            i++;
+        }
+        return count;
+    }
+
+    /**
+     * Reads lines with vertices and their neighbours.
+     * @param reader        Reader positioned at the first vertex line.
+     * @param header        Header of the file.
+     * @param coordinates   Coordinates of vertices, null if they are not known.
+     * @param first         Number of vertex of the first line.
+     * @param builder       Builder of the graph.
+     * @throws IOException  if input cannot be read or is not valid.
+     */
+    private static void readVertices(DelimitedTextReader reader, Header header, double[][] coordinates,
+                                     int first, CompactGraphBuilder builder) throws IOException {
+        int v = first;
+        while (reader.hasLine()) {
+            int c = reader.peekField();
+            if (c == '%') {
+                reader.nextLine();
+                continue;
+            }
+            if (v > header.n) {
+                if (c >= 0) {
+                    throw reader.malformed("more than " + header.n + " vertices");
+                }
+                reader.nextLine();
+                continue;
+            }
+            builder.addVertex(v, coordinates == null ? 0 : coordinates[0][v - 1],
+                    coordinates == null ? 0 : coordinates[1][v - 1]);
+            for (int i = 0; i < header.skippedFields; i++) {
+                reader.skipField();
+            }
+            while (reader.hasField()) {
+                int u = reader.readInt();
+                if (u < 1 || u > header.n) {
+                    throw reader.malformed("vertex " + u + " out of range");
+                }
+                double weight = header.hasEdgeWeights ? reader.readDouble() : 1;
+                builder.addEdge(v, u, weight / 2, 1);
+            }
+            reader.nextLine();
+            v++;
+        }
+    }
+
+    /**
+     * Checks number of read vertices and edges and builds the graph.
+     * @param builder   Builder with all vertices and edges.
+     * @param header    Header of the file.
+     * @param reader    Reader used for error message.
+     * @return  created compact graph.
+     * @throws IOException  if numbers do not match the header.
+     */
+    private static CompactGraph build(CompactGraphBuilder builder, Header header, DelimitedTextReader reader)
+            throws IOException {
+        if (builder.getVertexCount() != header.n) {
+            throw reader.malformed(header.n + " vertices declared, " + builder.getVertexCount() + " found");
+        }
+        if (builder.getEdgeCount() != 2L * header.m) {
+            throw reader.malformed(header.m + " edges declared, " + builder.getEdgeCount() + " neighbours found");
+        }
+        return builder.build();
+    }
+
+    /**
+     * Gets file with the same name and different extension.
+     * @param file          Original file.
+     * @param extension     New extension.
+     * @return  the file.
+     */
+    private static File siblingFile(File file, String extension) {
+        String name = file.getName();
+        int dot = name.lastIndexOf('.');
+        return new File(file.getParentFile(), (dot > 0 ? name.substring(0, dot) : name) + extension);
+    }
+
+    /**
+     * Header of METIS file.
+     */
+    private static class Header {
+        /** Number of vertices. */
+        private int n;
+        /** Number of undirected edges. */
+        private int m;
+        /** True if edge weights are given. */
+        private boolean hasEdgeWeights;
+        /** Number of fields before neighbours (vertex size and weights). */
+        private int skippedFields;
+    }
+}
@@ -0,0 +1,863 @@
+package bp.roadnetworkpartitioning;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinTask;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Importer of road network from local OpenStreetMap extract in PBF format (.osm.pbf).
+ * Ways with highway tag of imported road classes are split into edges at their ends and at intersections
+ * (nodes used by more roads or more times by one road). Length of edge in kilometres is computed from
+ * coordinates of all its nodes, capacity in vehicles per hour is given by road class and number of lanes.
+ * One-way roads become one edge, other roads two edges in opposite directions.
+ * File is read in three passes, in which its blocks are decompressed and decoded in parallel:
+ * the first pass collects nodes of roads, the second reads coordinates of these nodes only and the third
+ * creates edges. Only arrays proportional to the road network are kept in memory (never the whole file
+ * or all its nodes), so also country-sized extracts can be imported.
+ * OSM node IDs do not fit into int, so vertices get IDs 1..n in order of their OSM IDs.
+ * @author Lucie Roy
+ * @version 18-10-2026
+ */
+public class OSMPBFReader {
+    /** Extension of OSM PBF file. */
+    public static final String EXTENSION = ".osm.pbf";
+    /** Road classes (values of highway tag) imported by default, which are all known classes except service roads. */
+    public static final Set<String> DEFAULT_ROAD_CLASSES = Set.of("motorway", "motorway_link", "trunk", "trunk_link",
+            "primary", "primary_link", "secondary", "secondary_link", "tertiary", "tertiary_link", "unclassified",
+            "residential", "living_street", "road");
+    /** Known road classes. */
+    private static final String[] ROAD_CLASSES = {"motorway", "motorway_link", "trunk", "trunk_link",
+            "primary", "primary_link", "secondary", "secondary_link", "tertiary", "tertiary_link", "unclassified",
+            "residential", "living_street", "road", "service"};
+    /** Capacity of one lane of known road classes in vehicles per hour. */
+    private static final double[] LANE_CAPACITIES = {2000, 1500, 1800, 1400,
+            1600, 1200, 1200, 1000, 1000, 800, 800,
+            600, 300, 600, 400};
+    /** Default number of lanes in one direction of known road classes. */
+    private static final int[] DEFAULT_LANES = {2, 1, 2, 1,
+            1, 1, 1, 1, 1, 1, 1,
+            1, 1, 1, 1};
+    /** Number of known road classes, which are one-way unless tagged otherwise (motorways). */
+    private static final int IMPLIED_ONEWAY_CLASSES = 2;
+    /** Mean radius of the Earth in kilometres. */
+    private static final double EARTH_RADIUS = 6371.0088;
+    /** Min. length of edge in kilometres (used for edges between nodes with the same coordinates). */
+    private static final double MIN_LENGTH = 0.001;
+    /** Max. size of blob header in bytes. */
+    private static final int MAX_HEADER_SIZE = 64 * 1024;
+    /** Max. size of blob (compressed or not) in bytes. */
+    private static final int MAX_BLOB_SIZE = 32 * 1024 * 1024;
+    /** Features of the file which are supported. */
+    private static final Set<String> SUPPORTED_FEATURES = Set.of("OsmSchema-V0.6", "DenseNodes");
+    /** Field with blob type in blob header. */
+    private static final int HEADER_TYPE = 1;
+    /** Field with blob size in blob header. */
+    private static final int HEADER_DATA_SIZE = 3;
+    /** Field with uncompressed data in blob. */
+    private static final int BLOB_RAW = 1;
+    /** Field with size of uncompressed data in blob. */
+    private static final int BLOB_RAW_SIZE = 2;
+    /** Field with zlib compressed data in blob. */
+    private static final int BLOB_ZLIB = 3;
+    /** Field with required features in header block. */
+    private static final int REQUIRED_FEATURES = 4;
+    /** Field with nodes in primitive group. */
+    private static final int GROUP_NODE = 1;
+    /** Field with dense nodes in primitive group. */
+    private static final int GROUP_DENSE = 2;
+    /** Field with ways in primitive group. */
+    private static final int GROUP_WAY = 3;
+    /** Field with ID of node or dense nodes. */
+    private static final int NODE_ID = 1;
+    /** Field with latitude of node or dense nodes. */
+    private static final int NODE_LAT = 8;
+    /** Field with longitude of node or dense nodes. */
+    private static final int NODE_LON = 9;
+    /** Field with tag keys of way. */
+    private static final int WAY_KEYS = 2;
+    /** Field with tag values of way. */
+    private static final int WAY_VALUES = 3;
+    /** Field with node references of way. */
+    private static final int WAY_REFS = 8;
+
+    /** Index of known road class by its name, only imported classes are present. */
+    private final Map<String, Integer> roadClasses = new HashMap<>();
+
+    /**
+     * Constructor of importer of default road classes.
+     */
+    public OSMPBFReader() {
+        this(DEFAULT_ROAD_CLASSES);
+    }
+
+    /**
+     * Constructor of importer.
+     * @param roadClasses   Imported road classes (values of highway tag), unknown classes are ignored.
+     */
+    public OSMPBFReader(Set<String> roadClasses) {
+        for (int i = 0; i < ROAD_CLASSES.length; i++) {
+            if (roadClasses.contains(ROAD_CLASSES[i])) {
+                this.roadClasses.put(ROAD_CLASSES[i], i);
+            }
+        }
+    }
+
+    /**
+     * Checks if file is OSM PBF file by its name.
+     * @param file  Checked file.
+     * @return  true if file is OSM PBF file.
+     */
+    public static boolean isPBF(File file) {
+        return file.getName().toLowerCase(Locale.ROOT).endsWith(".pbf");
+    }
+
+    /**
+     * Imports road network.
+     * @param file  OSM PBF file.
+     * @return  created compact graph.
+     * @throws IOException  if file cannot be read, is not valid or uses unsupported features.
+     */
+    public CompactGraph read(File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            List<long[]> blobs = findBlobs(channel);
+            boolean[] hasNodes = new boolean[blobs.size()];
+            boolean[] hasRoads = new boolean[blobs.size()];
+
+            List<ForkJoinTask<long[]>> refTasks = new ArrayList<>();
+            for (int b = 0; b < blobs.size(); b++) {
+                long[] blob = blobs.get(b);
+                int index = b;
+                refTasks.add(ForkJoinTask.adapt(() -> {
+                    Block block = new Block(readBlob(channel, blob[0], (int) blob[1]));
+                    return collectRoadNodes(block, hasNodes, hasRoads, index);
+                }));
+            }
+            ParallelTasks.invokeAll(refTasks);
+            long total = 0;
+            for (ForkJoinTask<long[]> task : refTasks) {
+                total += task.join().length;
+            }
+            if (total > Integer.MAX_VALUE - 8) {
+                throw new IOException("Road network has too many nodes: " + total);
+            }
+            long[] refs = new long[(int) total];
+            int position = 0;
+            for (int b = 0; b < refTasks.size(); b++) {
+                long[] blockRefs = refTasks.get(b).join();
+                System.arraycopy(blockRefs, 0, refs, position, blockRefs.length);
+                position += blockRefs.length;
+                refTasks.set(b, null);
+            }
+            Arrays.parallelSort(refs);
+            RoadNodes nodes = new RoadNodes(refs);
+            refs = null;
+
+            List<ForkJoinTask<Void>> nodeTasks = new ArrayList<>();
+            for (int b = 0; b < blobs.size(); b++) {
+                long[] blob = blobs.get(b);
+                if (hasNodes[b]) {
+                    nodeTasks.add(ForkJoinTask.adapt(() -> {
+                        readCoordinates(new Block(readBlob(channel, blob[0], (int) blob[1])), nodes);
+                        return null;
+                    }));
+                }
+            }
+            ParallelTasks.invokeAll(nodeTasks);
+
+            List<ForkJoinTask<CompactGraphBuilder>> edgeTasks = new ArrayList<>();
+            for (int b = 0; b < blobs.size(); b++) {
+                long[] blob = blobs.get(b);
+                if (hasRoads[b]) {
+                    edgeTasks.add(ForkJoinTask.adapt(() ->
+                            createEdges(new Block(readBlob(channel, blob[0], (int) blob[1])), nodes)));
+                }
+            }
+            ParallelTasks.invokeAll(edgeTasks);
+            CompactGraphBuilder builder = new CompactGraphBuilder();
+            for (int i = 0; i < nodes.ids.length; i++) {
+                if (nodes.vertexIds[i] != 0 && !Double.isNaN(nodes.latitudes[i])) {
+                    builder.addVertex(nodes.vertexIds[i], nodes.longitudes[i], nodes.latitudes[i]);
+                }
+            }
+            for (ForkJoinTask<CompactGraphBuilder> task : edgeTasks) {
+                builder.addAll(task.join());
+            }
+            return builder.build();
+        }
+    }
+
+    /**
+     * Finds data blobs of the file and checks its header.
+     * @param channel   Channel of the file.
+     * @return  position and size of each data blob.
+     * @throws IOException  if file cannot be read, is not valid or uses unsupported features.
+     */
+    private static List<long[]> findBlobs(FileChannel channel) throws IOException {
+        List<long[]> blobs = new ArrayList<>();
+        long size = channel.size();
+        long position = 0;
+        while (position < size) {
+            int headerSize = ByteBuffer.wrap(readBytes(channel, position, 4)).getInt();
+            if (headerSize <= 0 || headerSize > MAX_HEADER_SIZE) {
+                throw new IOException("Malformed PBF near byte " + position + ": invalid blob header size");
+            }
+            byte[] header = readBytes(channel, position + 4, headerSize);
+            ProtobufInput input = new ProtobufInput(header, 0, headerSize);
+            String type = null;
+            long dataSize = -1;
+            while (input.hasRemaining()) {
+                int key = input.readKey();
+                if (key >>> 3 == HEADER_TYPE) {
+                    type = input.readString();
+                } else if (key >>> 3 == HEADER_DATA_SIZE) {
+                    dataSize = input.readVarint();
+                } else {
+                    input.skip(key);
+                }
+            }
+            long dataPosition = position + 4 + headerSize;
+            if (type == null || dataSize < 0 || dataSize > MAX_BLOB_SIZE || dataPosition + dataSize > size) {
+                throw new IOException("Malformed PBF near byte " + position + ": invalid blob header");
+            }
+            if (type.equals("OSMHeader")) {
+                checkFeatures(readBlob(channel, dataPosition, (int) dataSize));
+            } else if (type.equals("OSMData")) {
+                blobs.add(new long[]{dataPosition, dataSize});
+            }
+            position = dataPosition + dataSize;
+        }
+        return blobs;
+    }
+
+    /**
+     * Checks that all features required by header block are supported.
+     * @param header    Header block.
+     * @throws IOException  if header is malformed or any feature is not supported.
+     */
+    private static void checkFeatures(ProtobufInput header) throws IOException {
+        while (header.hasRemaining()) {
+            int key = header.readKey();
+            if (key >>> 3 == REQUIRED_FEATURES) {
+                String feature = header.readString();
+                if (!SUPPORTED_FEATURES.contains(feature)) {
+                    throw new IOException("Unsupported PBF feature: " + feature);
+                }
+            } else {
+                header.skip(key);
+            }
+        }
+    }
+
+    /**
+     * Reads bytes of the file.
+     * @param channel   Channel of the file.
+     * @param position  Position of the first byte.
+     * @param length    Number of bytes.
+     * @return  the bytes.
+     * @throws IOException  if file cannot be read or is shorter.
+     */
+    private static byte[] readBytes(FileChannel channel, long position, int length) throws IOException {
+        byte[] bytes = new byte[length];
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new EOFException("Truncated PBF file");
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * Reads blob and decompresses its data.
+     * @param channel   Channel of the file.
+     * @param position  Position of the blob.
+     * @param size      Size of the blob.
+     * @return  input of uncompressed data.
+     * @throws IOException  if blob cannot be read, is not valid or uses unsupported compression.
+     */
+    private static ProtobufInput readBlob(FileChannel channel, long position, int size) throws IOException {
+        ProtobufInput blob = new ProtobufInput(readBytes(channel, position, size), 0, size);
+        ProtobufInput zlib = null;
+        long rawSize = -1;
+        while (blob.hasRemaining()) {
+            int key = blob.readKey();
+            int field = key >>> 3;
+            if (field == BLOB_RAW) {
+                return blob.readMessage();
+            } else if (field == BLOB_RAW_SIZE) {
+                rawSize = blob.readVarint();
+            } else if (field == BLOB_ZLIB) {
+                zlib = blob.readMessage();
+            } else if (field > BLOB_ZLIB && field <= 7) {
+                throw new IOException("Unsupported PBF compression (only zlib is supported)");
+            } else {
+                blob.skip(key);
+            }
+        }
+        if (zlib == null || rawSize < 0 || rawSize > MAX_BLOB_SIZE) {
+            throw new IOException("Malformed PBF near byte " + position + ": blob without data");
+        }
+        byte[] data = new byte[(int) rawSize];
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(zlib.getData(), zlib.getPosition(), zlib.getRemaining());
+            int count = 0;
+            while (count < data.length && !inflater.finished()) {
+                int inflated = inflater.inflate(data, count, data.length - count);
+                if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                count += inflated;
+            }
+            if (count != data.length) {
+                throw new IOException("Malformed PBF near byte " + position + ": truncated compressed data");
+            }
+        } catch (DataFormatException e) {
+            throw new IOException("Malformed PBF near byte " + position + ": " + e.getMessage(), e);
+        } finally {
+            inflater.end();
+        }
+        return new ProtobufInput(data, 0, data.length);
+    }
+
+    /**
+     * Collects nodes of imported roads of the block. Start and end of each road is listed twice,
+     * so nodes listed more times are vertices of the graph.
+     * @param block     Decoded block.
+     * @param hasNodes  Array for marking blocks containing nodes.
+     * @param hasRoads  Array for marking blocks containing imported roads.
+     * @param index     Index of the block.
+     * @return  IDs of nodes of roads.
+     * @throws IOException  if block is malformed.
+     */
+    private long[] collectRoadNodes(Block block, boolean[] hasNodes, boolean[] hasRoads, int index)
+            throws IOException {
+        long[] refs = new long[1024];
+        int count = 0;
+        Way way = new Way();
+        for (ProtobufInput group : block.groups) {
+            while (group.hasRemaining()) {
+                int key = group.readKey();
+                int field = key >>> 3;
+                if (field == GROUP_NODE || field == GROUP_DENSE) {
+                    hasNodes[index] = true;
+                    group.skip(key);
+                } else if (field == GROUP_WAY) {
+                    way.read(group.readMessage());
+                    if (!way.interpret(block, roadClasses) || way.refCount < 2) {
+                        continue;
+                    }
+                    hasRoads[index] = true;
+                    if (count + way.refCount + 2 > refs.length) {
+                        refs = Arrays.copyOf(refs, Math.max(refs.length * 2, count + way.refCount + 2));
+                    }
+                    System.arraycopy(way.refs, 0, refs, count, way.refCount);
+                    count += way.refCount;
+                    refs[count++] = way.refs[0];
+                    refs[count++] = way.refs[way.refCount - 1];
+                } else {
+                    group.skip(key);
+                }
+            }
+        }
+        return Arrays.copyOf(refs, count);
+    }
+
+    /**
+     * Reads coordinates of road nodes of the block.
+     * @param block     Decoded block.
+     * @param nodes     Road nodes.
+     * @throws IOException  if block is malformed.
+     */
+    private static void readCoordinates(Block block, RoadNodes nodes) throws IOException {
+        for (ProtobufInput group : block.groups) {
+            while (group.hasRemaining()) {
+                int key = group.readKey();
+                int field = key >>> 3;
+                if (field == GROUP_DENSE) {
+                    readDenseNodes(group.readMessage(), block, nodes);
+                } else if (field == GROUP_NODE) {
+                    readNode(group.readMessage(), block, nodes);
+                } else {
+                    group.skip(key);
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads coordinates of dense nodes, whose IDs and coordinates are delta coded in packed fields.
+     * @param dense     Dense nodes.
+     * @param block     Block of the nodes.
+     * @param nodes     Road nodes.
+     * @throws IOException  if nodes are malformed.
+     */
+    private static void readDenseNodes(ProtobufInput dense, Block block, RoadNodes nodes) throws IOException {
+        ProtobufInput ids = null;
+        ProtobufInput lats = null;
+        ProtobufInput lons = null;
+        while (dense.hasRemaining()) {
+            int key = dense.readKey();
+            int field = key >>> 3;
+            if (field == NODE_ID) {
+                ids = dense.readMessage();
+            } else if (field == NODE_LAT) {
+                lats = dense.readMessage();
+            } else if (field == NODE_LON) {
+                lons = dense.readMessage();
+            } else {
+                dense.skip(key);
+            }
+        }
+        if (ids == null || lats == null || lons == null) {
+            return;
+        }
+        long id = 0;
+        long lat = 0;
+        long lon = 0;
+        int hint = -1;
+        while (ids.hasRemaining()) {
+            id += ids.readSignedVarint();
+            lat += lats.readSignedVarint();
+            lon += lons.readSignedVarint();
+            int i = nodes.find(id, hint);
+            if (i >= 0) {
+                nodes.latitudes[i] = block.latitude(lat);
+                nodes.longitudes[i] = block.longitude(lon);
+                hint = i;
+            } else {
+                hint = -i - 2;
+            }
+        }
+    }
+
+    /**
+     * Reads coordinates of node.
+     * @param node      Node.
+     * @param block     Block of the node.
+     * @param nodes     Road nodes.
+     * @throws IOException  if node is malformed.
+     */
+    private static void readNode(ProtobufInput node, Block block, RoadNodes nodes) throws IOException {
+        long id = 0;
+        long lat = 0;
+        long lon = 0;
+        while (node.hasRemaining()) {
+            int key = node.readKey();
+            int field = key >>> 3;
+            if (field == NODE_ID) {
+                id = node.readSignedVarint();
+            } else if (field == NODE_LAT) {
+                lat = node.readSignedVarint();
+            } else if (field == NODE_LON) {
+                lon = node.readSignedVarint();
+            } else {
+                node.skip(key);
+            }
+        }
+        int i = nodes.find(id, -1);
+        if (i >= 0) {
+            nodes.latitudes[i] = block.latitude(lat);
+            nodes.longitudes[i] = block.longitude(lon);
+        }
+    }
+
+    /**
+     * Creates edges of imported roads of the block. Parts of roads going through nodes
+     * without coordinates (e.g. outside of the extract) are left out.
+     * @param block     Decoded block.
+     * @param nodes     Road nodes with coordinates.
+     * @return  builder with the edges.
+     * @throws IOException  if block is malformed.
+     */
+    private CompactGraphBuilder createEdges(Block block, RoadNodes nodes) throws IOException {
+        CompactGraphBuilder builder = new CompactGraphBuilder();
+        Way way = new Way();
+        for (ProtobufInput group : block.groups) {
+            while (group.hasRemaining()) {
+                int key = group.readKey();
+                if (key >>> 3 != GROUP_WAY) {
+                    group.skip(key);
+                    continue;
+                }
+                way.read(group.readMessage());
+                if (!way.interpret(block, roadClasses) || way.refCount < 2) {
+                    continue;
+                }
+                double lanes = Double.isNaN(way.lanes) ? DEFAULT_LANES[way.roadClass]
+                        : way.direction == 0 ? way.lanes / 2 : way.lanes;
+                double capacity = LANE_CAPACITIES[way.roadClass] * Math.max(1, lanes);
+                int start = 0;
+                int previous = -1;
+                double length = 0;
+                boolean complete = true;
+                for (int r = 0; r < way.refCount; r++) {
+                    int i = nodes.find(way.refs[r], -1);
+                    if (previous >= 0) {
+                        if (Double.isNaN(nodes.latitudes[i]) || Double.isNaN(nodes.latitudes[previous])) {
+                            complete = false;
+                        } else {
+                            length += distance(nodes.latitudes[previous], nodes.longitudes[previous],
+                                    nodes.latitudes[i], nodes.longitudes[i]);
+                        }
+                    }
+                    int vertexId = nodes.vertexIds[i];
+                    if (vertexId != 0) {
+                        if (start != 0 && complete && start != vertexId) {
+                            if (way.direction >= 0) {
+                                builder.addEdge(start, vertexId, Math.max(MIN_LENGTH, length), capacity);
+                            }
+                            if (way.direction <= 0) {
+                                builder.addEdge(vertexId, start, Math.max(MIN_LENGTH, length), capacity);
+                            }
+                        }
+                        start = vertexId;
+                        length = 0;
+                        complete = true;
+                    }
+                    previous = i;
+                }
+            }
+        }
+        return builder;
+    }
+
+    /**
+     * Computes great-circle distance of two points.
+     * @param lat1  Latitude of the first point in degrees.
+     * @param lon1  Longitude of the first point in degrees.
+     * @param lat2  Latitude of the second point in degrees.
+     * @param lon2  Longitude of the second point in degrees.
+     * @return  distance in kilometres.
+     */
+    static double distance(double lat1, double lon1, double lat2, double lon2) {
+        double sinLat = Math.sin(Math.toRadians(lat2 - lat1) / 2);
+        double sinLon = Math.sin(Math.toRadians(lon2 - lon1) / 2);
+        double a = sinLat * sinLat + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * sinLon * sinLon;
+        return 2 * EARTH_RADIUS * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    /**
+     * Decoded primitive block, its string table is decoded only when it is needed.
+     */
+    private static class Block {
+        /** String table of the block. */
+        private final ProtobufInput stringTable;
+        /** Primitive groups of the block. */
+        private final List<ProtobufInput> groups = new ArrayList<>();
+        /** Granularity of coordinates in nanodegrees. */
+        private long granularity = 100;
+        /** Offset of latitudes in nanodegrees. */
+        private long latOffset = 0;
+        /** Offset of longitudes in nanodegrees. */
+        private long lonOffset = 0;
+        /** Kind of tag key of each string (one of Way.KEY_ constants). */
+        private int[] keyKinds = null;
+        /** Index of road class of each string, -1 if string is not name of imported road class. */
+        private int[] roadClassOf = null;
+        /** Decoded strings. */
+        private String[] strings = null;
+
+        /**
+         * Constructor of block.
+         * @param input     Uncompressed data of the block.
+         * @throws IOException  if block is malformed.
+         */
+        private Block(ProtobufInput input) throws IOException {
+            ProtobufInput table = null;
+            while (input.hasRemaining()) {
+                int key = input.readKey();
+                switch (key >>> 3) {
+                    case 1:
+                        table = input.readMessage();
+                        break;
+                    case 2:
+                        groups.add(input.readMessage());
+                        break;
+                    case 17:
+                        granularity = input.readVarint();
+                        break;
+                    case 19:
+                        latOffset = input.readVarint();
+                        break;
+                    case 20:
+                        lonOffset = input.readVarint();
+                        break;
+                    default:
+                        input.skip(key);
+                }
+            }
+            this.stringTable = table;
+        }
+
+        /**
+         * Decodes string table and classifies its strings.
+         * @param roadClasses   Index of imported road class by its name.
+         * @throws IOException  if string table is malformed.
+         */
+        private void decodeStrings(Map<String, Integer> roadClasses) throws IOException {
+            List<String> list = new ArrayList<>();
+            while (stringTable != null && stringTable.hasRemaining()) {
+                int key = stringTable.readKey();
+                if (key >>> 3 == 1) {
+                    list.add(stringTable.readString());
+                } else {
+                    stringTable.skip(key);
+                }
+            }
+            strings = list.toArray(new String[0]);
+            keyKinds = new int[strings.length];
+            roadClassOf = new int[strings.length];
+            for (int i = 0; i < strings.length; i++) {
+                keyKinds[i] = Way.keyKind(strings[i]);
+                roadClassOf[i] = roadClasses.getOrDefault(strings[i], -1);
+            }
+        }
+
+        /**
+         * Converts latitude of the block to degrees.
+         * @param lat   Latitude in units of granularity.
+         * @return  latitude in degrees.
+         */
+        private double latitude(long lat) {
+            return 1e-9 * (latOffset + granularity * lat);
+        }
+
+        /**
+         * Converts longitude of the block to degrees.
+         * @param lon   Longitude in units of granularity.
+         * @return  longitude in degrees.
+         */
+        private double longitude(long lon) {
+            return 1e-9 * (lonOffset + granularity * lon);
+        }
+    }
+
+    /**
+     * Way being decoded, its arrays are reused for all ways of the block.
+     */
+    private static class Way {
+        /** Kind of key which is not used. */
+        private static final int KEY_OTHER = 0;
+        /** Kind of key "highway". */
+        private static final int KEY_HIGHWAY = 1;
+        /** Kind of key "oneway". */
+        private static final int KEY_ONEWAY = 2;
+        /** Kind of key "junction". */
+        private static final int KEY_JUNCTION = 3;
+        /** Kind of key "lanes". */
+        private static final int KEY_LANES = 4;
+
+        /** String indices of tag keys. */
+        private int[] keys = new int[16];
+        /** Number of tag keys. */
+        private int keyCount = 0;
+        /** String indices of tag values. */
+        private int[] values = new int[16];
+        /** Number of tag values. */
+        private int valueCount = 0;
+        /** IDs of nodes. */
+        private long[] refs = new long[256];
+        /** Number of nodes. */
+        private int refCount = 0;
+        /** Index of road class, -1 if way is not imported road. */
+        private int roadClass;
+        /** Direction of road, 1 if it is one-way, -1 if it is one-way against order of nodes, 0 otherwise. */
+        private int direction;
+        /** Total number of lanes, NaN if not given. */
+        private double lanes;
+
+        /**
+         * Gets kind of tag key.
+         * @param key   The key.
+         * @return  kind of the key.
+         */
+        private static int keyKind(String key) {
+            switch (key) {
+                case "highway":
+                    return KEY_HIGHWAY;
+                case "oneway":
+                    return KEY_ONEWAY;
+                case "junction":
+                    return KEY_JUNCTION;
+                case "lanes":
+                    return KEY_LANES;
+                default:
+                    return KEY_OTHER;
+            }
+        }
+
+        /**
+         * Decodes tags and node references of way.
+         * @param input     Way.
+         * @throws IOException  if way is malformed.
+         */
+        private void read(ProtobufInput input) throws IOException {
+            keyCount = 0;
+            valueCount = 0;
+            refCount = 0;
+            while (input.hasRemaining()) {
+                int key = input.readKey();
+                int field = key >>> 3;
+                if (field == WAY_KEYS && (key & 7) == ProtobufInput.LENGTH_DELIMITED) {
+                    ProtobufInput packed = input.readMessage();
+                    while (packed.hasRemaining()) {
+                        if (keyCount == keys.length) {
+                            keys = Arrays.copyOf(keys, keyCount * 2);
+                        }
+                        keys[keyCount++] = (int) packed.readVarint();
+                    }
+                } else if (field == WAY_VALUES && (key & 7) == ProtobufInput.LENGTH_DELIMITED) {
+                    ProtobufInput packed = input.readMessage();
+                    while (packed.hasRemaining()) {
+                        if (valueCount == values.length) {
+                            values = Arrays.copyOf(values, valueCount * 2);
+                        }
+                        values[valueCount++] = (int) packed.readVarint();
+                    }
+                } else if (field == WAY_REFS && (key & 7) == ProtobufInput.LENGTH_DELIMITED) {
+                    ProtobufInput packed = input.readMessage();
+                    long ref = 0;
+                    while (packed.hasRemaining()) {
+                        if (refCount == refs.length) {
+                            refs = Arrays.copyOf(refs, refCount * 2);
+                        }
+                        ref += packed.readSignedVarint();
+                        refs[refCount++] = ref;
+                    }
+                } else {
+                    input.skip(key);
+                }
+            }
+        }
+
+        /**
+         * Finds road class, direction and number of lanes of way from its tags.
+         * @param block         Block of the way.
+         * @param roadClasses   Index of imported road class by its name.
+         * @return  true if way is imported road.
+         * @throws IOException  if tags are malformed.
+         */
+        private boolean interpret(Block block, Map<String, Integer> roadClasses) throws IOException {
+            if (block.strings == null) {
+                block.decodeStrings(roadClasses);
+            }
+            roadClass = -1;
+            direction = 0;
+            lanes = Double.NaN;
+            boolean hasOneway = false;
+            boolean roundabout = false;
+            int count = Math.min(keyCount, valueCount);
+            for (int t = 0; t < count; t++) {
+                if (keys[t] < 0 || keys[t] >= block.strings.length || values[t] < 0
+                        || values[t] >= block.strings.length) {
+                    throw new IOException("Malformed PBF: tag out of string table");
+                }
+                String value = block.strings[values[t]];
+                switch (block.keyKinds[keys[t]]) {
+                    case KEY_HIGHWAY:
+                        roadClass = block.roadClassOf[values[t]];
+                        break;
+                    case KEY_ONEWAY:
+                        hasOneway = true;
+                        direction = value.equals("yes") || value.equals("true") || value.equals("1") ? 1
+                                : value.equals("-1") || value.equals("reverse") ? -1 : 0;
+                        break;
+                    case KEY_JUNCTION:
+                        roundabout = value.equals("roundabout");
+                        break;
+                    case KEY_LANES:
+                        try {
+                            lanes = Double.parseDouble(value);
+                        } catch (NumberFormatException e) {
+                            lanes = Double.NaN;
+                        }
+                        break;
+                    default:
+                        break;
+                }
+            }
+            if (!hasOneway && (roundabout || (roadClass >= 0 && roadClass < IMPLIED_ONEWAY_CLASSES))) {
+                direction = 1;
+            }
+            return roadClass >= 0;
+        }
+    }
+
+    /**
+     * Nodes of imported roads sorted by their OSM IDs with their coordinates and vertex IDs.
+     */
+    private static class RoadNodes {
+        /** Sorted OSM IDs of nodes. */
+        private final long[] ids;
+        /** Vertex ID of each node, 0 if node is not vertex. */
+        private final int[] vertexIds;
+        /** Latitude of each node, NaN if it is not known. */
+        private final double[] latitudes;
+        /** Longitude of each node, NaN if it is not known. */
+        private final double[] longitudes;
+
+        /**
+         * Constructor of road nodes. Nodes listed more times become vertices.
+         * @param refs  Sorted IDs of nodes with duplicates.
+         */
+        private RoadNodes(long[] refs) {
+            int count = 0;
+            for (int r = 0; r < refs.length; r++) {
+                if (r == 0 || refs[r] != refs[r - 1]) {
+                    count++;
+                }
+            }
+            ids = new long[count];
+            vertexIds = new int[count];
+            int n = -1;
+            int vertexCount = 0;
+            for (int r = 0; r < refs.length; r++) {
+                if (r == 0 || refs[r] != refs[r - 1]) {
+                    ids[++n] = refs[r];
+                } else if (vertexIds[n] == 0) {
+                    vertexIds[n] = ++vertexCount;
+                }
+            }
+            latitudes = new double[count];
+            longitudes = new double[count];
+            Arrays.fill(latitudes, Double.NaN);
+            Arrays.fill(longitudes, Double.NaN);
+        }
+
+        /**
+         * Finds node by its OSM ID. When IDs are searched in increasing order, search starts from
+         * the previous found position, so sorted blocks of nodes are matched in almost linear time.
+         * @param id    OSM ID of node.
+         * @param hint  Index of node with ID not greater than searched one, -1 if not known.
+         * @return  index of the node, or (-(insertion point) - 1) if it is not road node.
+         */
+        private int find(long id, int hint) {
+            if (hint < 0 || hint >= ids.length || ids[hint] > id) {
+                return Arrays.binarySearch(ids, id);
+            }
+            int low = hint;
+            int high = hint + 1;
+            int step = 1;
+            while (high < ids.length && ids[high] <= id) {
+                low = high;
+                step *= 2;
+                high = (int) Math.min(ids.length, (long) low + step);
+            }
+            return Arrays.binarySearch(ids, low, high, id);
+        }
+    }
+}
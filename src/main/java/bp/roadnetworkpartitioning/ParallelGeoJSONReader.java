@@ -0,0 +1,135 @@
+package bp.roadnetworkpartitioning;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Reader of GeoJSON road network parsing the file on several threads.
+ * The file is memory-mapped and the array of features is cut into chunks at feature boundaries
+ * by one structural pass, which only tracks nesting and strings. Chunks are parsed in parallel,
+ * each into its own builder, and builders are merged in file order, so the graph (including
+ * edge IDs and the choice among duplicate vertices) is the same as from sequential reading.
+ * @author Lucie Roy
+ * @version 18-10-2026
+ */
+public class ParallelGeoJSONReader {
+    /** Minimal size of chunk in bytes. */
+    private static final int MIN_CHUNK_SIZE = 1 << 20;
+    /** Number of chunks per worker thread, more chunks even out differences between chunks. */
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    /**
+     * Reads GeoJSON file into compact graph using all threads of common pool.
+     * With single worker thread the file is read as one chunk.
+     * @param file  File with graph.
+     * @return  created compact graph.
+     * @throws IOException  if file cannot be read or is not valid GeoJSON.
+     */
+    public static CompactGraph read(File file) throws IOException {
+        int parallelism = ForkJoinPool.getCommonPoolParallelism();
+        if (parallelism <= 1) {
+            return read(file, Integer.MAX_VALUE);
+        }
+        long chunkSize = file.length() / ((long) parallelism * CHUNKS_PER_THREAD);
+        return read(file, (int) Math.min(Integer.MAX_VALUE, Math.max(MIN_CHUNK_SIZE, chunkSize)));
+    }
+
+    /**
+     * Reads GeoJSON file into compact graph, parsing chunks of given size in parallel.
+     * Files not larger than one chunk are parsed directly from the mapped buffer,
+     * files which cannot be mapped as one buffer (over 2 GB) are read sequentially from the channel.
+     * @param file          File with graph.
+     * @param chunkSize     Minimal size of chunk in bytes.
+     * @return  created compact graph.
+     * @throws IOException  if file cannot be read or is not valid GeoJSON.
+     */
+    public static CompactGraph read(File file, int chunkSize) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                return GeoJSONReader.read(file);
+            }
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        CompactGraphBuilder builder = new CompactGraphBuilder();
+        if (buffer.capacity() <= chunkSize) {
+            new GeoJSONReader(buffer).readFeatureCollection(builder);
+            return builder.build();
+        }
+        GeoJSONReader reader = new GeoJSONReader(buffer.duplicate());
+        if (!reader.findFeatures() || reader.peek() == ']') {
+            return builder.build();
+        }
+        List<int[]> chunks = findChunks(reader, Math.max(1, chunkSize));
+        if (chunks.size() == 1) {
+            parseChunk(buffer, chunks.get(0), builder);
+            return builder.build();
+        }
+        List<ForkJoinTask<CompactGraphBuilder>> tasks = new ArrayList<>();
+        for (int[] chunk : chunks) {
+            tasks.add(ForkJoinTask.adapt(() -> {
+                CompactGraphBuilder chunkBuilder = new CompactGraphBuilder();
+                parseChunk(buffer, chunk, chunkBuilder);
+                return chunkBuilder;
+            }));
+        }
+        ParallelTasks.invokeAll(tasks);
+        for (ForkJoinTask<CompactGraphBuilder> task : tasks) {
+            builder.addAll(task.join());
+        }
+        return builder.build();
+    }
+
+    /**
+     * Cuts array of features into chunks at feature boundaries.
+     * @param reader        Reader positioned at the first feature.
+     * @param chunkSize     Minimal size of chunk in bytes.
+     * @return  list of chunks, each given by its start and end position.
+     * @throws IOException  if input is not valid JSON.
+     */
+    private static List<int[]> findChunks(GeoJSONReader reader, int chunkSize) throws IOException {
+        List<int[]> chunks = new ArrayList<>();
+        int start = reader.position();
+        int end = start;
+        while (true) {
+            reader.skipValue();
+            end = reader.position();
+            if (end - start >= chunkSize) {
+                chunks.add(new int[]{start, end});
+                start = -1;
+            }
+            if (!reader.nextSeparator(']')) {
+                break;
+            }
+            if (start < 0) {
+                start = reader.position();
+            }
+        }
+        if (start >= 0) {
+            chunks.add(new int[]{start, end});
+        }
+        return chunks;
+    }
+
+    /**
+     * Parses one chunk of features.
+     * @param buffer    Buffer with the whole file.
+     * @param chunk     Start and end position of the chunk.
+     * @param builder   Builder the features are added to.
+     * @throws IOException  if chunk is not valid GeoJSON.
+     */
+    private static void parseChunk(ByteBuffer buffer, int[] chunk, CompactGraphBuilder builder) throws IOException {
+        ByteBuffer slice = buffer.duplicate();
+        slice.limit(chunk[1]);
+        slice.position(chunk[0]);
+        new GeoJSONReader(slice).readFeatureList(builder);
+    }
+}
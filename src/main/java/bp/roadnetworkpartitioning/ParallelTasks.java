@@ -0,0 +1,34 @@
+package bp.roadnetworkpartitioning;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Helper running tasks of parallel readers and writers in common pool.
+ * Tasks adapted from callables wrap their checked exceptions into runtime exceptions,
+ * and exception of task failed on another thread is wrapped once more when it is rethrown,
+ * so the original I/O exception is found in the cause chain and rethrown as it is.
+ * @author Lucie Roy
+ * @version 18-10-2026
+ */
+public class ParallelTasks {
+
+    /**
+     * Runs all tasks and waits for them, so results of the tasks can be joined afterwards.
+     * @param tasks     Run tasks.
+     * @throws IOException  if any task failed by I/O exception.
+     */
+    public static void invokeAll(Collection<? extends ForkJoinTask<?>> tasks) throws IOException {
+        try {
+            ForkJoinTask.invokeAll(tasks);
+        } catch (RuntimeException e) {
+            for (Throwable cause = e.getCause(); cause != null; cause = cause.getCause()) {
+                if (cause instanceof IOException) {
+                    throw (IOException) cause;
+                }
+            }
+            throw e;
+        }
+    }
+}
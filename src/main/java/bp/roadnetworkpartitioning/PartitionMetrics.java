@@ -0,0 +1,209 @@
+package bp.roadnetworkpartitioning;
+
+import java.util.BitSet;
+
+/**
+ * Instance of this class holds quality characteristics of one graph partition.
+ * All characteristics are computed together by a single walk over all vertices and edges.
+ * @author Lucie Roy
+ * @version 18-10-2026
+ */
+public class PartitionMetrics {
+    /** Number of parts. */
+    private final int partsCount;
+    /** Number of edges whose start and end belong to different parts. */
+    private int cutEdgesCount = 0;
+    /** Total weight of cut edges. */
+    private double cutWeight = 0;
+    /** Number of vertices of each part. */
+    private final int[] partSizes;
+    /** Weight of each part (equal to Graph.getWeightValue() of the part). */
+    private final double[] partWeights;
+    /** Number of vertices of each part that have at least one cut edge. */
+    private final int[] boundaryVerticesCounts;
+    /** Neighbour parts of each part. */
+    private final BitSet[] partNeighbours;
+
+    /**
+     * Constructor computing all characteristics of given partition.
+     * @param graph         Compact representation of the divided graph.
+     * @param partOf        Number of part of each vertex (by dense vertex index), -1 if vertex belongs to no part.
+     * @param partsCount    Number of parts.
+     */
+    public PartitionMetrics(CompactGraph graph, int[] partOf, int partsCount) {
+        this.partsCount = partsCount;
+        this.partSizes = new int[partsCount];
+        this.partWeights = new double[partsCount];
+        this.boundaryVerticesCounts = new int[partsCount];
+        this.partNeighbours = new BitSet[partsCount];
+        for (int i = 0; i < partsCount; i++) {
+            partNeighbours[i] = new BitSet(partsCount);
+        }
+        int n = graph.getVertexCount();
+        int[] offsets = graph.getEdgeOffsets();
+        int[] targets = graph.getEdgeTargets();
+        double[] edgeWeights = graph.getEdgeWeights();
+        double[] vertexWeights = graph.getVertexWeights();
+        boolean[] boundary = new boolean[n];
+        for (int v = 0; v < n; v++) {
+            int part = partOf[v];
+            if (part >= 0) {
+                partSizes[part]++;
+                partWeights[part] += vertexWeights[v];
+            }
+            for (int e = offsets[v]; e < offsets[v + 1]; e++) {
+                int u = targets[e];
+                int neighbourPart = partOf[u];
+                if (part == neighbourPart) {
+                    continue;
+                }
+                cutEdgesCount++;
+                cutWeight += edgeWeights[e];
+                boundary[v] = true;
+                boundary[u] = true;
+                if (part >= 0 && neighbourPart >= 0) {
+                    partNeighbours[part].set(neighbourPart);
+                    partNeighbours[neighbourPart].set(part);
+                }
+            }
+        }
+        for (int v = 0; v < n; v++) {
+            if (boundary[v] && partOf[v] >= 0) {
+                boundaryVerticesCounts[partOf[v]]++;
+            }
+        }
+    }
+
+    /**
+     * Gets number of parts.
+     * @return number of parts.
+     */
+    public int getPartsCount() {
+        return partsCount;
+    }
+
+    /**
+     * Gets number of edges whose start and end belong to different parts.
+     * @return number of cut edges.
+     */
+    public int getCutEdgesCount() {
+        return cutEdgesCount;
+    }
+
+    /**
+     * Gets total weight of cut edges.
+     * @return total weight of cut edges.
+     */
+    public double getCutWeight() {
+        return cutWeight;
+    }
+
+    /**
+     * Gets number of vertices of each part.
+     * @return number of vertices of each part.
+     */
+    public int[] getPartSizes() {
+        return partSizes;
+    }
+
+    /**
+     * Gets weight of each part.
+     * @return weight of each part.
+     */
+    public double[] getPartWeights() {
+        return partWeights;
+    }
+
+    /**
+     * Gets number of boundary vertices (vertices with at least one cut edge) of each part.
+     * @return number of boundary vertices of each part.
+     */
+    public int[] getBoundaryVerticesCounts() {
+        return boundaryVerticesCounts;
+    }
+
+    /**
+     * Gets neighbour parts of given part.
+     * @param part  number of the part.
+     * @return  set of numbers of neighbour parts.
+     */
+    public BitSet getPartNeighbours(int part) {
+        return partNeighbours[part];
+    }
+
+    /**
+     * Gets min. number of part neighbours.
+     * @return min. number of part neighbours.
+     */
+    public int getMinNeighbours() {
+        int min = partsCount;
+        for (BitSet neighbours : partNeighbours) {
+            min = Math.min(min, neighbours.cardinality());
+        }
+        return min;
+    }
+
+    /**
+     * Gets max. number of part neighbours.
+     * @return max. number of part neighbours.
+     */
+    public int getMaxNeighbours() {
+        int max = 0;
+        for (BitSet neighbours : partNeighbours) {
+            max = Math.max(max, neighbours.cardinality());
+        }
+        return max;
+    }
+
+    /**
+     * Gets average number of part neighbours.
+     * @return average number of part neighbours.
+     */
+    public double getAverageNeighbours() {
+        if (partsCount == 0) {
+            return 0;
+        }
+        double total = 0;
+        for (BitSet neighbours : partNeighbours) {
+            total += neighbours.cardinality();
+        }
+        return total / partsCount;
+    }
+
+    /**
+     * Gets relative standard deviation of part weights from ideal part in percents.
+     * @return relative standard deviation from ideal part.
+     */
+    public double getRelativeStandardDeviation() {
+        double average = getTotalWeight() / partsCount;
+        double sd = 0;
+        for (double partWeight : partWeights) {
+            sd += (average - partWeight) * (average - partWeight);
+        }
+        return (Math.sqrt(sd / partsCount) / average) * 100;
+    }
+
+    /**
+     * Gets balance of the partition, weight of the heaviest part divided by weight of ideal part.
+     * @return balance of the partition (1 is perfect balance).
+     */
+    public double getBalance() {
+        double max = 0;
+        for (double partWeight : partWeights) {
+            max = Math.max(max, partWeight);
+        }
+        return max / (getTotalWeight() / partsCount);
+    }
+
+    /**
+     * Gets total weight of all parts.
+     * @return total weight of all parts.
+     */
+    private double getTotalWeight() {
+        double total = 0;
+        for (double partWeight : partWeights) {
+            total += partWeight;
+        }
+        return total;
+    }
+}
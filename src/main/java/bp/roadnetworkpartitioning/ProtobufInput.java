@@ -0,0 +1,194 @@
+package bp.roadnetworkpartitioning;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Decoder of Protocol Buffers wire format, which is used by OSM PBF files.
+ * Message is decoded in place from byte array, embedded messages and packed
+ * repeated fields are decoded by inputs sharing the same array.
+ * @author Lucie Roy
+ * @version 18-10-2026
+ */
+public class ProtobufInput {
+    /** Wire type of varint. */
+    public static final int VARINT = 0;
+    /** Wire type of 64-bit value. */
+    public static final int FIXED64 = 1;
+    /** Wire type of length-delimited value (string, bytes, message or packed field). */
+    public static final int LENGTH_DELIMITED = 2;
+    /** Wire type of 32-bit value. */
+    public static final int FIXED32 = 5;
+
+    /** Array with the message. */
+    private final byte[] data;
+    /** Position of the next byte. */
+    private int position;
+    /** Position after the last byte of the message. */
+    private final int limit;
+
+    /**
+     * Constructor of input of message.
+     * @param data      Array with the message.
+     * @param offset    Position of the first byte of the message.
+     * @param length    Length of the message in bytes.
+     */
+    public ProtobufInput(byte[] data, int offset, int length) {
+        this.data = data;
+        this.position = offset;
+        this.limit = offset + length;
+    }
+
+    /**
+     * Checks if there is any field or value left.
+     * @return  true if message has more bytes.
+     */
+    public boolean hasRemaining() {
+        return position < limit;
+    }
+
+    /**
+     * Gets array with the message.
+     * @return  array with the message.
+     */
+    public byte[] getData() {
+        return data;
+    }
+
+    /**
+     * Gets position of the next byte in the array.
+     * @return  position of the next byte.
+     */
+    public int getPosition() {
+        return position;
+    }
+
+    /**
+     * Gets number of bytes left in the message.
+     * @return  number of remaining bytes.
+     */
+    public int getRemaining() {
+        return limit - position;
+    }
+
+    /**
+     * Reads key of the next field.
+     * @return  key of the field (number of field shifted left by 3 bits with wire type in the lowest bits).
+     * @throws IOException  if message is malformed.
+     */
+    public int readKey() throws IOException {
+        return (int) readVarint();
+    }
+
+    /**
+     * Reads unsigned varint (int32, int64, uint32, uint64, bool and enum fields).
+     * @return  the value.
+     * @throws IOException  if message is malformed.
+     */
+    public long readVarint() throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            if (position >= limit) {
+                throw malformed("truncated varint");
+            }
+            byte b = data[position++];
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw malformed("varint is too long");
+    }
+
+    /**
+     * Reads zigzag encoded varint (sint32 and sint64 fields).
+     * @return  the value.
+     * @throws IOException  if message is malformed.
+     */
+    public long readSignedVarint() throws IOException {
+        long value = readVarint();
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /**
+     * Reads length-delimited value as input, so embedded message or packed field can be decoded.
+     * @return  input of the value.
+     * @throws IOException  if message is malformed.
+     */
+    public ProtobufInput readMessage() throws IOException {
+        int length = readLength();
+        ProtobufInput message = new ProtobufInput(data, position, length);
+        position += length;
+        return message;
+    }
+
+    /**
+     * Reads length-delimited value as UTF-8 string.
+     * @return  the string.
+     * @throws IOException  if message is malformed.
+     */
+    public String readString() throws IOException {
+        int length = readLength();
+        String value = new String(data, position, length, StandardCharsets.UTF_8);
+        position += length;
+        return value;
+    }
+
+    /**
+     * Reads length of length-delimited value.
+     * @return  length of the value in bytes.
+     * @throws IOException  if message is malformed.
+     */
+    public int readLength() throws IOException {
+        long length = readVarint();
+        if (length < 0 || length > limit - position) {
+            throw malformed("length " + length + " exceeds message");
+        }
+        return (int) length;
+    }
+
+    /**
+     * Skips value of field.
+     * @param key   Key of the field.
+     * @throws IOException  if message is malformed or wire type is not supported.
+     */
+    public void skip(int key) throws IOException {
+        switch (key & 7) {
+            case VARINT:
+                readVarint();
+                break;
+            case FIXED64:
+                skipBytes(8);
+                break;
+            case LENGTH_DELIMITED:
+                skipBytes(readLength());
+                break;
+            case FIXED32:
+                skipBytes(4);
+                break;
+            default:
+                throw malformed("unsupported wire type " + (key & 7));
+        }
+    }
+
+    /**
+     * Skips bytes.
+     * @param count     Number of skipped bytes.
+     * @throws IOException  if message is shorter.
+     */
+    private void skipBytes(int count) throws IOException {
+        if (count > limit - position) {
+            throw malformed("truncated field");
+        }
+        position += count;
+    }
+
+    /**
+     * Creates exception describing malformed message at current position.
+     * @param message   description of the problem.
+     * @return  the exception.
+     */
+    private IOException malformed(String message) {
+        return new IOException("Malformed protobuf message near byte " + position + ": " + message);
+    }
+}
@@ -0,0 +1,121 @@
+package bp.roadnetworkpartitioning;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Recursive bisection of graph into given number of parts.
+ * Component divided into k parts is bisected into parts with ideal weights k/2 and k - k/2,
+ * both halves are then divided independently as fork-join tasks, so they can run in parallel.
+ * @author Lucie Roy
+ * @version 18-10-2026
+ */
+public class RecursiveBisection {
+
+    /** Algorithm dividing one graph component into two parts. */
+    public interface Bisector {
+        /**
+         * Divides graph component into two parts.
+         * Method can be called concurrently for different components, so all state must be local.
+         * @param graph     Subgraph induced by vertices of the component.
+         * @param vertices  Dense indices of vertices of the component in the whole graph
+         *                  (vertex i of the subgraph is vertex vertices[i] of the whole graph).
+         * @param ratio     Ideal share of the first part on weight of the component (between 0 and 1).
+         * @return  part (0 or 1) of each vertex of the subgraph.
+         */
+        int[] bisect(CompactGraph graph, int[] vertices, double ratio);
+    }
+
+    /** Task dividing one graph component into given number of parts. */
+    private static class BisectionTask extends RecursiveAction {
+        /** Version of serialized form, tasks are never serialized. */
+        private static final long serialVersionUID = 1L;
+        /** Subgraph induced by vertices of the component. */
+        private final CompactGraph graph;
+        /** Dense indices of vertices of the component in the whole graph. */
+        private final int[] vertices;
+        /** Number of the first part of the component. */
+        private final int firstPart;
+        /** Number of parts of the component. */
+        private final int partsCount;
+        /** Algorithm dividing component into two parts. */
+        private final Bisector bisector;
+        /** Number of part of each vertex of the whole graph. */
+        private final int[] partOf;
+
+        /**
+         * Constructor of task.
+         * @param graph         Subgraph induced by vertices of the component.
+         * @param vertices      Dense indices of vertices of the component in the whole graph.
+         * @param firstPart     Number of the first part of the component.
+         * @param partsCount    Number of parts of the component.
+         * @param bisector      Algorithm dividing component into two parts.
+         * @param partOf        Number of part of each vertex of the whole graph.
+         */
+        private BisectionTask(CompactGraph graph, int[] vertices, int firstPart, int partsCount,
+                              Bisector bisector, int[] partOf) {
+            this.graph = graph;
+            this.vertices = vertices;
+            this.firstPart = firstPart;
+            this.partsCount = partsCount;
+            this.bisector = bisector;
+            this.partOf = partOf;
+        }
+
+        @Override
+        protected void compute() {
+            if (partsCount == 1 || vertices.length == 0) {
+                for (int v : vertices) {
+                    partOf[v] = firstPart;
+                }
+                return;
+            }
+            int firstPartsCount = partsCount / 2;
+            int[] sides = bisector.bisect(graph, vertices, (double) firstPartsCount / partsCount);
+            int firstSize = 0;
+            for (int side : sides) {
+                if (side == 0) {
+                    firstSize++;
+                }
+            }
+            int[] local1 = new int[firstSize];
+            int[] local2 = new int[vertices.length - firstSize];
+            int[] vertices1 = new int[firstSize];
+            int[] vertices2 = new int[vertices.length - firstSize];
+            int i1 = 0;
+            int i2 = 0;
+            for (int i = 0; i < vertices.length; i++) {
+                if (sides[i] == 0) {
+                    local1[i1] = i;
+                    vertices1[i1++] = vertices[i];
+                } else {
+                    local2[i2] = i;
+                    vertices2[i2++] = vertices[i];
+                }
+            }
+            invokeAll(new BisectionTask(graph.inducedSubgraph(local1), vertices1, firstPart,
+                            firstPartsCount, bisector, partOf),
+                    new BisectionTask(graph.inducedSubgraph(local2), vertices2, firstPart + firstPartsCount,
+                            partsCount - firstPartsCount, bisector, partOf));
+        }
+    }
+
+    /**
+     * Divides graph into given number of parts by recursive bisection.
+     * @param graph         Graph to be divided.
+     * @param partsCount    Number of parts.
+     * @param bisector      Algorithm dividing one component into two parts.
+     * @return  number of part of each vertex (by dense vertex index).
+     */
+    public static int[] partition(CompactGraph graph, int partsCount, Bisector bisector) {
+        int n = graph.getVertexCount();
+        int[] partOf = new int[n];
+        int[] vertices = new int[n];
+        for (int v = 0; v < n; v++) {
+            vertices[v] = v;
+        }
+        ForkJoinPool.commonPool().invoke(new BisectionTask(graph, vertices, 0, Math.max(1, partsCount),
+                bisector, partOf));
+        return partOf;
+    }
+}
@@ -0,0 +1,244 @@
+package bp.roadnetworkpartitioning;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Reader of road networks in TNTP format of the Transportation Networks repository
+ * (https://github.com/bstabler/TransportationNetworks). Network file (name ending with _net.tntp)
+ * starts with metadata lines "&lt;KEY&gt; value" ended by "&lt;END OF METADATA&gt;", followed by header
+ * line starting with "~" and one line per link. Node file (name ending with _node.tntp) contains
+ * header line and one line with ID and coordinates per node. Both files are streamed directly
+ * into compact graph without conversion to GeoJSON.
+ * @author Lucie Roy
+ * @version 18-10-2026
+ */
+public class TNTPReader {
+    /** Suffix of network file name. */
+    public static final String NET_SUFFIX = "_net.tntp";
+    /** Suffix of node file name. */
+    public static final String NODE_SUFFIX = "_node.tntp";
+    /** Key of metadata which ends metadata. */
+    private static final String END_OF_METADATA = "END OF METADATA";
+    /** Column names of links in default column order. */
+    private static final String[] LINK_COLUMNS = {"init_node", "term_node", "capacity", "length", "free_flow_time"};
+    /** Index of start node in columns. */
+    private static final int INIT_NODE = 0;
+    /** Index of end node in columns. */
+    private static final int TERM_NODE = 1;
+    /** Index of capacity in columns. */
+    private static final int CAPACITY = 2;
+    /** Index of length in columns. */
+    private static final int LENGTH = 3;
+    /** Index of free-flow time in columns. */
+    private static final int FREE_FLOW_TIME = 4;
+    /** Column names of nodes in default column order. */
+    private static final String[] NODE_COLUMNS = {"node", "x", "y"};
+
+    /** True if free-flow time is used as length of links. */
+    private final boolean freeFlowTimeAsLength;
+    /** Metadata of the last read network file. */
+    private final Map<String, String> metadata = new LinkedHashMap<>();
+
+    /**
+     * Constructor of reader using length of links as edge length.
+     * Free-flow time is used only for links with unknown (zero) length.
+     */
+    public TNTPReader() {
+        this(false);
+    }
+
+    /**
+     * Constructor of reader.
+     * @param freeFlowTimeAsLength  True if free-flow time should be used as edge length.
+     */
+    public TNTPReader(boolean freeFlowTimeAsLength) {
+        this.freeFlowTimeAsLength = freeFlowTimeAsLength;
+    }
+
+    /**
+     * Reads network given by its network or node file, the other file is found by its name.
+     * @param file  Network or node file.
+     * @return  created compact graph.
+     * @throws IOException  if files cannot be read or are not valid TNTP files.
+     */
+    public static CompactGraph read(File file) throws IOException {
+        String name = file.getName();
+        String prefix = name.endsWith(NODE_SUFFIX) ? name.substring(0, name.length() - NODE_SUFFIX.length())
+                : name.endsWith(NET_SUFFIX) ? name.substring(0, name.length() - NET_SUFFIX.length()) : null;
+        if (prefix == null) {
+            return new TNTPReader().read(file, null);
+        }
+        File netFile = new File(file.getParentFile(), prefix + NET_SUFFIX);
+        File nodeFile = new File(file.getParentFile(), prefix + NODE_SUFFIX);
+        return new TNTPReader().read(netFile, nodeFile.isFile() ? nodeFile : null);
+    }
+
+    /**
+     * Checks if file is TNTP file by its name.
+     * @param file  Checked file.
+     * @return  true if file is TNTP file.
+     */
+    public static boolean isTNTP(File file) {
+        return file.getName().toLowerCase(Locale.ROOT).endsWith(".tntp");
+    }
+
+    /**
+     * Reads network. Nodes which have no coordinates in node file are placed at [0, 0].
+     * @param netFile   Network file with links.
+     * @param nodeFile  Node file with coordinates, null if coordinates are not known.
+     * @return  created compact graph.
+     * @throws IOException  if files cannot be read or are not valid TNTP files.
+     */
+    public CompactGraph read(File netFile, File nodeFile) throws IOException {
+        CompactGraphBuilder builder = new CompactGraphBuilder();
+        if (nodeFile != null) {
+            try (FileChannel channel = FileChannel.open(nodeFile.toPath(), StandardOpenOption.READ)) {
+                readNodes(new DelimitedTextReader(channel, DelimitedTextReader.WHITESPACE, "TNTP"), builder);
+            }
+        }
+        try (FileChannel channel = FileChannel.open(netFile.toPath(), StandardOpenOption.READ)) {
+            readLinks(new DelimitedTextReader(channel, DelimitedTextReader.WHITESPACE, "TNTP"), builder);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Gets metadata of the last read network file.
+     * @return  metadata, key is name in angle brackets (e.g. "NUMBER OF NODES").
+     */
+    public Map<String, String> getMetadata() {
+        return Collections.unmodifiableMap(metadata);
+    }
+
+    /**
+     * Reads nodes and their coordinates.
+     * @param reader    Reader of node file.
+     * @param builder   Builder of the graph.
+     * @throws IOException  if file cannot be read or is not valid.
+     */
+    private void readNodes(DelimitedTextReader reader, CompactGraphBuilder builder) throws IOException {
+        int[] columns = {0, 1, 2};
+        double[] values = new double[NODE_COLUMNS.length];
+        while (reader.hasLine()) {
+            int c = reader.peekField();
+            if (c < 0 || c == ';') {
+                reader.nextLine();
+            } else if (c == '~' || !isNumberStart(c)) {
+                columns = readHeader(reader, NODE_COLUMNS, columns);
+            } else {
+                reader.readColumns(columns, values);
+                builder.addVertex(toId(reader, values[0]), values[1], values[2]);
+            }
+        }
+    }
+
+    /**
+     * Reads metadata and links.
+     * @param reader    Reader of network file.
+     * @param builder   Builder of the graph.
+     * @throws IOException  if file cannot be read or is not valid.
+     */
+    private void readLinks(DelimitedTextReader reader, CompactGraphBuilder builder) throws IOException {
+        metadata.clear();
+        int[] columns = {0, 1, 2, 3, 4};
+        double[] values = new double[LINK_COLUMNS.length];
+        boolean inMetadata = true;
+        while (reader.hasLine()) {
+            int c = reader.peekField();
+            if (c < 0 || c == ';') {
+                reader.nextLine();
+            } else if (c == '<' && inMetadata) {
+                String line = reader.readLine();
+                int end = line.indexOf('>');
+                if (end > 0) {
+                    String key = line.substring(1, end).trim();
+                    if (key.equals(END_OF_METADATA)) {
+                        inMetadata = false;
+                    } else {
+                        metadata.put(key, line.substring(end + 1).trim());
+                    }
+                }
+            } else if (c == '~' || !isNumberStart(c)) {
+                columns = readHeader(reader, LINK_COLUMNS, columns);
+            } else {
+                inMetadata = false;
+                reader.readColumns(columns, values);
+                int initNode = toId(reader, values[INIT_NODE]);
+                int termNode = toId(reader, values[TERM_NODE]);
+                double length = freeFlowTimeAsLength || !(values[LENGTH] > 0) ? values[FREE_FLOW_TIME] : values[LENGTH];
+                builder.addVertex(initNode, 0, 0);
+                builder.addVertex(termNode, 0, 0);
+                builder.addEdge(initNode, termNode, length, values[CAPACITY]);
+            }
+        }
+    }
+
+    /**
+     * Reads header line and finds columns with given names. If any column is not found
+     * (e.g. names contain spaces as in "Init node"), previous indices are kept.
+     * @param reader    Reader positioned at the header line.
+     * @param names     Names of wanted columns (lower case).
+     * @param columns   Previous indices of columns.
+     * @return  indices of columns.
+     * @throws IOException  if file cannot be read.
+     */
+    private static int[] readHeader(DelimitedTextReader reader, String[] names, int[] columns) throws IOException {
+        int[] found = new int[names.length];
+        Arrays.fill(found, -1);
+        int index = 0;
+        while (reader.hasField()) {
+            String field = reader.readString();
+            if (field.startsWith("~")) {
+                field = field.substring(1);
+                if (field.isEmpty()) {
+                    continue;
+                }
+            }
+            String name = field.toLowerCase(Locale.ROOT);
+            for (int i = 0; i < names.length; i++) {
+                if (names[i].equals(name)) {
+                    found[i] = index;
+                }
+            }
+            index++;
+        }
+        reader.nextLine();
+        for (int column : found) {
+            if (column < 0) {
+                return columns;
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Converts value to node ID.
+     * @param reader    Reader used for error message.
+     * @param value     Value of ID column.
+     * @return  node ID.
+     * @throws IOException  if value is not an integer.
+     */
+    private static int toId(DelimitedTextReader reader, double value) throws IOException {
+        if (value != Math.rint(value)) {
+            throw reader.malformed("node ID expected");
+        }
+        return (int) value;
+    }
+
+    /**
+     * Checks if character can start a number.
+     * @param c     the character.
+     * @return  true if character can start a number.
+     */
+    private static boolean isNumberStart(int c) {
+        return (c >= '0' && c <= '9') || c == '-' || c == '+' || c == '.';
+    }
+}
@@ -41,6 +41,9 @@ public class TestDialogController extends Dialog<Boolean> {
     /** If checked all resulting partition will be exported to GeoJSON file. */
     @FXML
     private CheckBox exportResultingPartitions;
+    /** If checked every resulting partition is exported to one file instead of a file per graph component. */
+    @FXML
+    private CheckBox exportToSingleFile;
     /**  Main button for start of testing. */
     @FXML
     private Button startTestingButton;
@@ -69,6 +72,7 @@ public class TestDialogController extends Dialog<Boolean> {
         this.algorithms = algorithms;
         this.graph = graph;
         this.partCount = partCount;
+        exportToSingleFile.disableProperty().bind(exportResultingPartitions.selectedProperty().not());
         startTestingButton.setOnAction(e -> onStartTestingButtonClick());
     }
 
@@ -95,7 +99,8 @@ public class TestDialogController extends Dialog<Boolean> {
                         }
                         if (exportResultingPartitions.isSelected()) {
                             progressMessages.appendText("Recording result...\n");
-                            JSONParser.exportResultingPartition(algorithm, graphPartition, i);
+                            JSONParser.exportResultingPartition(algorithm, graphPartition, i,
+                                    exportToSingleFile.isSelected());
                         }
                     }
                     progressMessages.appendText("Algorithm " + algorithm.getName() + " was tested.\n");
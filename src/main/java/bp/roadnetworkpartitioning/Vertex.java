@@ -2,6 +2,7 @@ package bp.roadnetworkpartitioning;
 
 import javafx.geometry.Point2D;
 
+import java.lang.ref.WeakReference;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -27,6 +28,9 @@ public class Vertex extends Point2D {
      */
     private List<Edge> endingEdges = new ArrayList<>(2);
 
+    /** Weak references to graphs which cached values of this vertex, null if there is none. */
+    private List<WeakReference<Graph>> graphs = null;
+
     /**
      * Constructor of vertex with given ID and coordinates x and y.
      * Uses Point2D constructor.
@@ -63,6 +67,7 @@ public class Vertex extends Point2D {
      */
     public void setValue(double value){
         this.value = value;
+        changed();
     }
 
     /**
@@ -95,6 +100,53 @@ public class Vertex extends Point2D {
      */
     public void setStartingEdges(List<Edge> startingEdges){
         this.startingEdges = startingEdges;
+        changed();
+    }
+
+    /**
+     * Adds graph whose caches depend on this vertex. References to collected graphs are dropped.
+     * @param graph     Weak reference to the graph.
+     */
+    synchronized void addGraph(WeakReference<Graph> graph) {
+        if (this.graphs == null) {
+            this.graphs = new ArrayList<>(1);
+        } else {
+            this.graphs.removeIf(reference -> reference.get() == null);
+            if (this.graphs.contains(graph)) {
+                return;
+            }
+        }
+        this.graphs.add(graph);
+    }
+
+    /**
+     * Removes graph whose caches no longer depend on this vertex.
+     * @param graph     Weak reference to the graph.
+     */
+    synchronized void removeGraph(WeakReference<Graph> graph) {
+        if (this.graphs != null) {
+            this.graphs.remove(graph);
+        }
+    }
+
+    /**
+     * Drops caches of graphs which depend on this vertex or its edges.
+     * Lock of the vertex is released before graphs are notified.
+     */
+    void changed() {
+        List<WeakReference<Graph>> graphs;
+        synchronized (this) {
+            if (this.graphs == null) {
+                return;
+            }
+            graphs = new ArrayList<>(this.graphs);
+        }
+        for (WeakReference<Graph> reference : graphs) {
+            Graph graph = reference.get();
+            if (graph != null) {
+                graph.elementChanged();
+            }
+        }
     }
 
     @Override
@@ -0,0 +1,67 @@
+package bp.roadnetworkpartitioning;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompactGraphTest {
+
+    @Test
+    void fromGraph() {
+        Graph graph = Graph.generateGraph(3, 2, 5);
+        CompactGraph compactGraph = CompactGraph.fromGraph(graph);
+        assertEquals(6, compactGraph.getVertexCount());
+        assertEquals(14, compactGraph.getEdgeCount());
+        assertArrayEquals(new int[]{1, 2, 3, 4, 5, 6}, compactGraph.getVertexIds());
+        assertArrayEquals(new int[]{0, 2, 5, 7, 9, 12, 14}, compactGraph.getEdgeOffsets());
+        assertEquals(graph.getWeightValue(), compactGraph.getTotalWeight(), 1e-9);
+        assertSame(graph.getVertices().get(5), compactGraph.getVertex(compactGraph.indexOf(5)));
+        assertEquals(-1, compactGraph.indexOf(7));
+    }
+
+    @Test
+    void getNeighbours() {
+        CompactGraph compactGraph = CompactGraph.fromGraph(Graph.generateGraph(3, 2, 5));
+        int[] offsets = compactGraph.getNeighbourOffsets();
+        int v = compactGraph.indexOf(2);
+        assertEquals(3, offsets[v + 1] - offsets[v]);
+        for (int i = offsets[v]; i < offsets[v + 1]; i++) {
+            assertEquals(10.0, compactGraph.getNeighbourWeights()[i]);
+        }
+    }
+
+    @Test
+    void build() {
+        CompactGraphBuilder builder = new CompactGraphBuilder();
+        builder.addVertex(10, 0, 0);
+        builder.addVertex(3, 1, 0);
+        builder.addVertex(10, 5, 5);
+        builder.addEdge(10, 3, 2, 3);
+        builder.addEdge(3, 10, 0, Double.NaN);
+        builder.addEdge(3, 42, 1, 1);
+        CompactGraph compactGraph = builder.build();
+        assertArrayEquals(new int[]{3, 10}, compactGraph.getVertexIds());
+        assertEquals(0.0, compactGraph.getXCoordinates()[1]);
+        assertEquals(2, compactGraph.getEdgeCount());
+        assertEquals(6.0, compactGraph.getEdgeWeights()[1]);
+        assertEquals(1.0, compactGraph.getEdgeWeights()[0]);
+
+        Graph graph = compactGraph.toGraph();
+        assertEquals(2, graph.getVertices().size());
+        assertEquals(2, graph.getEdges().size());
+        assertEquals(graph.getWeightValue(), compactGraph.getTotalWeight(), 1e-9);
+        assertSame(compactGraph, graph.getCompactGraph());
+    }
+
+    @Test
+    void inducedSubgraph() {
+        Graph graph = Graph.generateGraph(3, 2, 5);
+        CompactGraph compactGraph = CompactGraph.fromGraph(graph);
+        CompactGraph subgraph = compactGraph.inducedSubgraph(new int[]{0, 1, 3});
+        assertArrayEquals(new int[]{1, 2, 4}, subgraph.getVertexIds());
+        assertEquals(4, subgraph.getEdgeCount());
+        assertEquals(compactGraph.getVertexWeights()[3], subgraph.getVertexWeights()[2]);
+        assertSame(graph.getVertices().get(4), subgraph.getVertex(2));
+        assertEquals(2, subgraph.getNeighbourOffsets()[1]);
+    }
+}
@@ -0,0 +1,77 @@
+package bp.roadnetworkpartitioning;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DIMACSGraphFileTest {
+
+    @Test
+    void read() throws IOException {
+        File directory = Files.createTempDirectory("dimacs").toFile();
+        directory.deleteOnExit();
+        File graphFile = new File(directory, "test" + DIMACSGraphFile.GRAPH_EXTENSION);
+        File coordinatesFile = new File(directory, "test" + DIMACSGraphFile.COORDINATES_EXTENSION);
+        graphFile.deleteOnExit();
+        coordinatesFile.deleteOnExit();
+        Files.writeString(graphFile.toPath(), "c 9th DIMACS Implementation Challenge\np sp 3 4\nc arcs\n"
+                + "a 1 2 803\na 2 1 803\na 2 3 158\na 3 1 774\n");
+        Files.writeString(coordinatesFile.toPath(), "p aux sp co 3\nv 1 -73530767 41085396\n"
+                + "v 2 -73530538 41086098\nv 3 -73519366 41048796\n");
+        CompactGraph graph = DIMACSGraphFile.read(coordinatesFile);
+        assertEquals(3, graph.getVertexCount());
+        assertEquals(4, graph.getEdgeCount());
+        assertEquals(-73.530538, graph.getXCoordinates()[1]);
+        assertEquals(41.048796, graph.getYCoordinates()[2]);
+        assertArrayEquals(new double[]{803, 803, 158, 774}, graph.getEdgeLengths());
+
+        CompactGraph chunked = DIMACSGraphFile.read(graphFile, coordinatesFile, 10);
+        assertArrayEquals(graph.getEdgeTargets(), chunked.getEdgeTargets());
+        assertArrayEquals(graph.getXCoordinates(), chunked.getXCoordinates());
+
+        CompactGraph withoutCoordinates = DIMACSGraphFile.read(graphFile, null);
+        assertEquals(3, withoutCoordinates.getVertexCount());
+        assertEquals(0.0, withoutCoordinates.getXCoordinates()[2]);
+
+        Files.writeString(coordinatesFile.toPath(), "p aux sp co 3\nv 1 -73530767 41085396\n"
+                + "v 2 -73530538 41086098\n");
+        assertThrows(IOException.class, () -> DIMACSGraphFile.read(graphFile, coordinatesFile));
+        Files.writeString(coordinatesFile.toPath(), "p aux sp co 3\nv 1 -73530767 41085396\n"
+                + "v 2 -73530538 41086098\nv 2 -73519366 41048796\n");
+        assertThrows(IOException.class, () -> DIMACSGraphFile.read(graphFile, coordinatesFile, 10));
+        Files.writeString(coordinatesFile.toPath(), "p aux sp co 3\nv 1 -73530767 41085396\n"
+                + "v 2 -73530538 41086098\nv 4 -73519366 41048796\n");
+        assertThrows(IOException.class, () -> DIMACSGraphFile.read(graphFile, coordinatesFile));
+        Files.writeString(coordinatesFile.toPath(), "p aux sp co 3\nv 1 -73530767 41085396\n"
+                + "v 2 -73530538 41086098\nv 3 -73519366 41048796\n");
+        Files.writeString(graphFile.toPath(), "p sp 3 4\na 1 2 803\na 2 1 803\na 2 3 158\na 3 4 774\n");
+        assertThrows(IOException.class, () -> DIMACSGraphFile.read(graphFile, coordinatesFile));
+
+        Files.writeString(graphFile.toPath(), "p sp 3 4\na 1 2 803\na 2 1 803\na 2 3 158\nx 3 1 774\n");
+        assertThrows(IOException.class, () -> DIMACSGraphFile.read(graphFile, coordinatesFile, 10));
+
+        Files.writeString(graphFile.toPath(), "p sp 3 2\na 1 2 5\n");
+        assertThrows(IOException.class, () -> DIMACSGraphFile.read(graphFile, null));
+    }
+
+    @Test
+    void write() throws IOException {
+        CompactGraph graph = Graph.generateGraph(4, 3, 25.0).getCompactGraph();
+        File graphFile = File.createTempFile("grid", DIMACSGraphFile.GRAPH_EXTENSION);
+        File coordinatesFile = File.createTempFile("grid", DIMACSGraphFile.COORDINATES_EXTENSION);
+        graphFile.deleteOnExit();
+        coordinatesFile.deleteOnExit();
+        DIMACSGraphFile.write(graph, graphFile, coordinatesFile);
+        CompactGraph read = DIMACSGraphFile.read(graphFile, coordinatesFile);
+        assertEquals(graph.getVertexCount(), read.getVertexCount());
+        assertArrayEquals(graph.getEdgeOffsets(), read.getEdgeOffsets());
+        assertArrayEquals(graph.getEdgeTargets(), read.getEdgeTargets());
+        assertArrayEquals(graph.getEdgeLengths(), read.getEdgeLengths());
+        assertArrayEquals(graph.getXCoordinates(), read.getXCoordinates(), 1e-6);
+        assertTrue(DIMACSGraphFile.isDIMACS(coordinatesFile));
+    }
+}
@@ -0,0 +1,77 @@
+package bp.roadnetworkpartitioning;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DelimitedGraphReaderTest {
+
+    @Test
+    void readDetected() throws IOException {
+        File nodeFile = File.createTempFile("nodes", ".csv");
+        File edgeFile = File.createTempFile("edges", ".csv");
+        nodeFile.deleteOnExit();
+        edgeFile.deleteOnExit();
+        Files.writeString(nodeFile.toPath(), "# nodes\nnode,lon,lat\n1,14.4,50.1\n2,14.5,50.2\r\n3,\"14.6\",50.3\n");
+        Files.writeString(edgeFile.toPath(), "length,from,to,capacity\n10,1,2,100\n20,2,3,\n30,3,1,300\n");
+        int[] details = {-1, -1, -1, -1, -1, -1, -1, -1, -1};
+        CompactGraph graph = new DelimitedGraphReader(details, ",", ",").read(nodeFile, edgeFile);
+        assertEquals(3, graph.getVertexCount());
+        assertEquals(3, graph.getEdgeCount());
+        assertEquals(14.6, graph.getXCoordinates()[graph.indexOf(3)]);
+        assertEquals(50.2, graph.getYCoordinates()[graph.indexOf(2)]);
+        assertArrayEquals(new double[]{10, 20, 30}, graph.getEdgeLengths());
+        assertArrayEquals(new double[]{100, 1, 300}, graph.getEdgeCapacities());
+        assertEquals(1, graph.getVertexIds()[graph.getEdgeTargets()[2]]);
+    }
+
+    @Test
+    void readGiven() throws IOException {
+        File nodeFile = File.createTempFile("nodes", ".txt");
+        File edgeFile = File.createTempFile("edges", ".txt");
+        nodeFile.deleteOnExit();
+        edgeFile.deleteOnExit();
+        Files.writeString(nodeFile.toPath(), "x y id\n0.5  1.5  7\n2.5\t3.5 8\n");
+        Files.writeString(edgeFile.toPath(), "a b c d\ne 7 8 4\n");
+        int[] details = {2, 2, 1, 2, -1, 3, 2, 0, 1};
+        CompactGraph graph = new DelimitedGraphReader(details, "\\s+", "").read(nodeFile, edgeFile);
+        assertEquals(2, graph.getVertexCount());
+        assertEquals(1, graph.getEdgeCount());
+        assertEquals(2.5, graph.getXCoordinates()[graph.indexOf(8)]);
+        assertArrayEquals(new double[]{4}, graph.getEdgeLengths());
+        assertEquals(8, graph.getVertexIds()[graph.getEdgeTargets()[0]]);
+        assertEquals(DelimitedTextReader.WHITESPACE, DelimitedGraphReader.toDelimiter("\\s+"));
+        assertEquals('\t', DelimitedGraphReader.toDelimiter("\\t"));
+        assertEquals('|', DelimitedGraphReader.toDelimiter("\\|"));
+    }
+
+    @Test
+    void readChunks() throws IOException {
+        File nodeFile = File.createTempFile("nodes", ".csv");
+        File edgeFile = File.createTempFile("edges", ".csv");
+        nodeFile.deleteOnExit();
+        edgeFile.deleteOnExit();
+        StringBuilder nodes = new StringBuilder("id,x,y\n");
+        StringBuilder edges = new StringBuilder("from,to,capacity,length\n");
+        for (int i = 1; i <= 50; i++) {
+            nodes.append(i).append(',').append(i).append(",0\n");
+            edges.append(i).append(',').append(i == 30 ? "\"x\"" : i % 50 + 1).append(",1,").append(i).append('\n');
+        }
+        Files.writeString(nodeFile.toPath(), nodes);
+        Files.writeString(edgeFile.toPath(), edges);
+        int[] details = {-1, -1, -1, -1, -1, -1, -1, -1, -1};
+        DelimitedGraphReader reader = new DelimitedGraphReader(details, ",", ",");
+        CompactGraph expected = reader.read(nodeFile, edgeFile, Integer.MAX_VALUE);
+        CompactGraph graph = reader.read(nodeFile, edgeFile, 50);
+        assertEquals(50, graph.getVertexCount());
+        assertEquals(49, graph.getEdgeCount());
+        assertArrayEquals(expected.getEdgeOffsets(), graph.getEdgeOffsets());
+        assertArrayEquals(expected.getEdgeTargets(), graph.getEdgeTargets());
+        assertArrayEquals(expected.getEdgeIds(), graph.getEdgeIds());
+        assertArrayEquals(expected.getEdgeLengths(), graph.getEdgeLengths());
+    }
+}
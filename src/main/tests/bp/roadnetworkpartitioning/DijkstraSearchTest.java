@@ -0,0 +1,33 @@
+package bp.roadnetworkpartitioning;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DijkstraSearchTest {
+
+    @Test
+    void search() {
+        CompactGraphBuilder builder = new CompactGraphBuilder();
+        for (int id = 1; id <= 5; id++) {
+            builder.addVertex(id, id, 0);
+        }
+        builder.addEdge(1, 2, 1, 1);
+        builder.addEdge(3, 2, 1, 1);
+        builder.addEdge(1, 3, 5, 1);
+        builder.addEdge(3, 4, 2, 1);
+        builder.addEdge(5, 4, 4, 1);
+        DijkstraSearch search = new DijkstraSearch(builder.build());
+        search.search(new int[]{0}, 1, v -> true);
+        assertEquals(2.0, search.getDistance(2));
+        assertEquals(4.0, search.getDistance(3));
+        assertArrayEquals(new int[]{0, 1, 2, 3}, search.getPath(3));
+
+        search.search(new int[]{0, 4}, 2, v -> v != 1);
+        assertEquals(5.0, search.getDistance(2));
+        assertEquals(4.0, search.getDistance(3));
+        assertArrayEquals(new int[]{4, 3}, search.getPath(3));
+        assertEquals(Double.POSITIVE_INFINITY, search.getDistance(1));
+        assertEquals(-1, search.getPredecessor(1));
+    }
+}
@@ -0,0 +1,54 @@
+package bp.roadnetworkpartitioning;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GeoJSONReaderTest {
+
+    @Test
+    void read() throws IOException {
+        File file = File.createTempFile("graph", ".geojson");
+        file.deleteOnExit();
+        try (FileWriter writer = new FileWriter(file)) {
+            writer.write("{\"type\":\"FeatureCollection\",\"name\":\"test\",\"features\":[\n"
+                    + "{\"type\":\"Feature\",\"properties\":{\"init_node\":1,\"term_node\":2,\"capacity\":2.5e1,"
+                    + "\"length\":\"3.5\",\"name\":\"a \\\"quoted\\\" } road\",\"tags\":[1,{\"x\":[]}]},"
+                    + "\"geometry\":{\"type\":\"LineString\",\"coordinates\":[[1.5,-2],[9,9],[3.25,4E2]]}},\n"
+                    + "  {  \"geometry\" :\n { \"coordinates\" : [ [ 3.25 , 400.0 , 7 ] , [ 0.125 , 0 ] ] ,"
+                    + " \"type\" : \"LineString\" } ,\n \"properties\" : { \"term_node\" : 3 , \"init_node\" : 2 ,"
+                    + " \"length\" : 0.1234567890123456789 , \"capacity\" : null } },\n"
+                    + "{\"type\":\"Feature\",\"properties\":{\"init_node\":3,\"term_node\":4},"
+                    + "\"geometry\":{\"type\":\"Point\",\"coordinates\":[5,5]}},\n"
+                    + "{\"type\":\"Feature\",\"properties\":{\"init_node\":3,\"term_node\":5},"
+                    + "\"geometry\":{\"type\":\"LineString\",\"coordinates\":[[null,null],[1,2]]}}\n"
+                    + "]}");
+        }
+        CompactGraph graph = GeoJSONReader.read(file);
+        assertEquals(3, graph.getVertexCount());
+        assertEquals(2, graph.getEdgeCount());
+        assertEquals(1.5, graph.getVertex(graph.indexOf(1)).getXCoordinate());
+        assertEquals(-2.0, graph.getVertex(graph.indexOf(1)).getYCoordinate());
+        assertEquals(400.0, graph.getVertex(graph.indexOf(2)).getYCoordinate());
+        assertEquals(0.125, graph.getVertex(graph.indexOf(3)).getXCoordinate());
+        Edge edge = graph.getVertex(graph.indexOf(1)).getStartingEdges().get(0);
+        assertEquals(3.5, edge.getLength());
+        assertEquals(25.0, edge.getCapacity());
+        Edge edge2 = graph.getVertex(graph.indexOf(2)).getStartingEdges().get(0);
+        assertEquals(0.1234567890123456789, edge2.getLength());
+    }
+
+    @Test
+    void readMalformed() throws IOException {
+        File file = File.createTempFile("graph", ".geojson");
+        file.deleteOnExit();
+        try (FileWriter writer = new FileWriter(file)) {
+            writer.write("{\"features\":[{\"properties\":{\"init_node\":1 \"term_node\":2}}]}");
+        }
+        assertThrows(IOException.class, () -> GeoJSONReader.read(file));
+    }
+}
@@ -0,0 +1,97 @@
+package bp.roadnetworkpartitioning;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GeoJSONWriterTest {
+
+    @Test
+    void writePartition() throws IOException {
+        Graph graph = Graph.generateGraph(4, 3, 2.5);
+        CompactGraph compactGraph = graph.getCompactGraph();
+        int n = compactGraph.getVertexCount();
+        int[] partOf = new int[n];
+        for (int v = 0; v < n; v++) {
+            partOf[v] = compactGraph.getXCoordinates()[v] < 2 ? 0 : 1;
+        }
+        GraphPartition graphPartition = new GraphPartition(compactGraph, partOf, 2);
+        File file = File.createTempFile("partition", JSONParser.EXTENSION);
+        file.deleteOnExit();
+        GeoJSONWriter.writePartition(graphPartition, file);
+        String text = Files.readString(file.toPath());
+        assertTrue(text.contains("\"part\": 1"));
+        CompactGraph loaded = GeoJSONReader.read(file);
+        assertEquals(compactGraph.getEdgeCount() + 6, loaded.getEdgeCount());
+
+        File graphFile = File.createTempFile("graph", JSONParser.EXTENSION);
+        graphFile.deleteOnExit();
+        GeoJSONWriter.writeGraph(compactGraph, graphFile);
+        CompactGraph reloaded = GeoJSONReader.read(graphFile);
+        assertArrayEquals(compactGraph.getVertexIds(), reloaded.getVertexIds());
+        assertArrayEquals(compactGraph.getXCoordinates(), reloaded.getXCoordinates());
+        assertArrayEquals(compactGraph.getEdgeTargets(), reloaded.getEdgeTargets());
+        assertArrayEquals(compactGraph.getEdgeLengths(), reloaded.getEdgeLengths());
+
+        String baseName = graphFile.getPath() + "_parts";
+        GeoJSONWriter.writeParts(graphPartition, baseName);
+        for (int part = 0; part < 2; part++) {
+            File partFile = new File(baseName + "_" + part + JSONParser.EXTENSION);
+            partFile.deleteOnExit();
+            assertTrue(GeoJSONReader.read(partFile).getEdgeCount() > 0);
+        }
+        File firstPart = new File(baseName + "_0" + JSONParser.EXTENSION);
+        assertCutHalves(GeoJSONReader.read(firstPart));
+    }
+
+    @Test
+    void writeComponent() throws IOException {
+        Graph graph = Graph.generateGraph(4, 3, 2.5);
+        Map<Integer, Vertex> vertices = new HashMap<>();
+        for (Vertex vertex : graph.getVertices().values()) {
+            if (vertex.getX() < 2) {
+                vertices.put(vertex.getId(), vertex);
+            }
+        }
+        File file = File.createTempFile("component", "");
+        file.deleteOnExit();
+        new File(file.getPath() + JSONParser.EXTENSION).deleteOnExit();
+        assertTrue(JSONParser.writeJSONFile(file.getPath(), vertices, 0));
+        assertCutHalves(GeoJSONReader.read(new File(file.getPath() + JSONParser.EXTENSION)));
+    }
+
+    /**
+     * Checks graph read from file with the first column of 4x3 grid (vertices 1, 5 and 9).
+     * Each of the three edges going to the second column and each of the three edges coming from it
+     * must be written as half edge between the vertex and the middle of the edge.
+     * @param graph     Graph read from the file.
+     */
+    private static void assertCutHalves(CompactGraph graph) {
+        assertEquals(10, graph.getEdgeCount());
+        for (int id : new int[]{1, 5, 9}) {
+            int v = graph.indexOf(id);
+            int middle = graph.indexOf(-id);
+            assertEquals(1.25, graph.getXCoordinates()[middle], 1e-12);
+            assertEquals(graph.getYCoordinates()[v], graph.getYCoordinates()[middle], 1e-12);
+            int[] offsets = graph.getEdgeOffsets();
+            int[] targets = graph.getEdgeTargets();
+            int outgoing = 0;
+            for (int e = offsets[v]; e < offsets[v + 1]; e++) {
+                if (targets[e] == middle) {
+                    outgoing++;
+                    assertEquals(1.25, graph.getEdgeLengths()[e], 1e-12);
+                }
+            }
+            assertEquals(1, outgoing);
+            assertEquals(1, offsets[middle + 1] - offsets[middle]);
+            assertEquals(v, targets[offsets[middle]]);
+            assertEquals(1.25, graph.getEdgeLengths()[offsets[middle]], 1e-12);
+        }
+    }
+}
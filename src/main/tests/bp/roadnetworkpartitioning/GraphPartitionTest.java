@@ -0,0 +1,57 @@
+package bp.roadnetworkpartitioning;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GraphPartitionTest {
+
+    @Test
+    void getMetrics() {
+        Graph graph = Graph.generateGraph(3, 2, 5);
+        CompactGraph compactGraph = graph.getCompactGraph();
+        int[] partOf = {0, 0, 1, 0, 0, 1};
+        GraphPartition graphPartition = new GraphPartition(compactGraph, partOf, 2);
+        PartitionMetrics metrics = graphPartition.getMetrics();
+        assertEquals(4, graphPartition.getCutEdgesCount());
+        assertEquals(20.0, metrics.getCutWeight());
+        assertArrayEquals(new double[]{54.0, 22.0}, metrics.getPartWeights());
+        assertArrayEquals(new int[]{2, 2}, metrics.getBoundaryVerticesCounts());
+        assertEquals(1, graphPartition.getMinNeighbours());
+        assertEquals(1, graphPartition.getMaxNeighbours());
+        assertEquals(1.0, graphPartition.getAverageNeighbours());
+        assertEquals(54.0 / 38.0, metrics.getBalance(), 1e-9);
+        assertEquals(16.0 / 38.0 * 100, graphPartition.getRelativeStandardDeviation(), 1e-9);
+
+        List<Graph> components = graphPartition.getGraphComponents();
+        assertEquals(2, components.size());
+        assertEquals(54.0, components.get(0).getWeightValue());
+        assertTrue(components.get(1).getVertices().containsKey(6));
+    }
+
+    @Test
+    void getPartOf() {
+        Graph graph = Graph.generateGraph(3, 2, 5);
+        List<Graph> components = new ArrayList<>();
+        GraphPartition graphPartition = new GraphPartition(components);
+        Map<Integer, Vertex> vertices1 = new HashMap<>();
+        Map<Integer, Vertex> vertices2 = new HashMap<>();
+        for (Vertex vertex : graph.getVertices().values()) {
+            if (vertex.getId() % 3 == 0) {
+                vertices2.put(vertex.getId(), vertex);
+            } else {
+                vertices1.put(vertex.getId(), vertex);
+            }
+        }
+        components.add(new Graph(vertices1, null));
+        components.add(new Graph(vertices2, null));
+        assertEquals(2, graphPartition.getPartsCount());
+        assertArrayEquals(new int[]{0, 0, 1, 0, 0, 1}, graphPartition.getPartOf());
+        assertEquals(4, graphPartition.getCutEdgesCount());
+    }
+}
@@ -0,0 +1,42 @@
+package bp.roadnetworkpartitioning;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GraphSnapshotTest {
+
+    @Test
+    void writeAndRead() throws IOException {
+        Graph graph = Graph.generateGraph(6, 5, 3);
+        graph.getVertices().get(3).setValue(4);
+        File file = File.createTempFile("graph", ".rnpg");
+        file.deleteOnExit();
+        GraphSnapshot.write(graph, file);
+        assertTrue(GraphSnapshot.isSnapshot(file));
+        CompactGraph expected = graph.getCompactGraph();
+        CompactGraph loaded = GraphSnapshot.read(file);
+        assertArrayEquals(expected.getVertexIds(), loaded.getVertexIds());
+        assertArrayEquals(expected.getXCoordinates(), loaded.getXCoordinates());
+        assertArrayEquals(expected.getVertexValues(), loaded.getVertexValues());
+        assertArrayEquals(expected.getEdgeOffsets(), loaded.getEdgeOffsets());
+        assertArrayEquals(expected.getEdgeTargets(), loaded.getEdgeTargets());
+        assertArrayEquals(expected.getEdgeIds(), loaded.getEdgeIds());
+        assertArrayEquals(expected.getEdgeCapacities(), loaded.getEdgeCapacities());
+        assertEquals(graph.getWeightValue(), loaded.getTotalWeight(), 1e-9);
+        assertEquals(graph.getVertices().size(), GraphFileLoader.load(file).getVertices().size());
+
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.seek(40);
+            int b = raf.read();
+            raf.seek(40);
+            raf.write(b ^ 1);
+        }
+        assertThrows(IOException.class, () -> GraphSnapshot.read(file));
+        assertNotNull(GraphSnapshot.read(file, false));
+    }
+}
@@ -243,4 +243,58 @@ class GraphTest {
         double value = new Graph(vertices, edges).getValue();
         assertEquals(76.0, value);
     }
-}
\ No newline at end of file
+
+    @Test
+    void getWeightValueCached() {
+        Graph graph = Graph.generateGraph(3, 2, 5);
+        double total = graph.getWeightValue();
+        Graph part = new Graph(new HashMap<>(), null);
+        assertEquals(0.0, part.getWeightValue());
+        part.addVertex(graph.getVertices().get(1));
+        part.getVertices().put(2, graph.getVertices().get(2));
+        assertEquals(27.0, part.getWeightValue());
+        assertEquals(27.0, part.getValue());
+        part.removeVertex(graph.getVertices().get(1));
+        assertEquals(16.0, part.getWeightValue());
+
+        graph.getVertices().get(2).setValue(4);
+        assertEquals(19.0, part.getWeightValue());
+        assertEquals(total + 3, graph.getWeightValue());
+        graph.getEdges().get(1).setLength(7);
+        assertEquals(total + 5, graph.getWeightValue());
+    }
+
+    @Test
+    void getCompactGraphInvalidated() {
+        Graph graph = Graph.generateGraph(3, 2, 5);
+        Graph other = Graph.generateGraph(3, 2, 5);
+        CompactGraph compactGraph = graph.getCompactGraph();
+        CompactGraph otherCompactGraph = other.getCompactGraph();
+        double otherValue = other.getWeightValue();
+
+        graph.getVertices().get(2).setValue(4);
+        CompactGraph changed = graph.getCompactGraph();
+        assertNotSame(compactGraph, changed);
+        assertEquals(4.0, changed.getVertexValues()[changed.indexOf(2)]);
+        assertSame(otherCompactGraph, other.getCompactGraph());
+        assertEquals(otherValue, other.getWeightValue());
+
+        graph.getEdges().get(1).setCapacity(3);
+        changed = graph.getCompactGraph();
+        assertEquals(15.0, changed.getEdgeWeights()[0]);
+        assertSame(otherCompactGraph, other.getCompactGraph());
+
+        CompactGraphBuilder builder = new CompactGraphBuilder();
+        builder.addVertex(1, 0, 0);
+        builder.addVertex(2, 1, 0);
+        builder.addEdge(1, 2, 1, 1);
+        CompactGraph built = builder.build();
+        Graph materialised = built.toGraph();
+        assertSame(built, materialised.getCompactGraph());
+        assertSame(changed, graph.getCompactGraph());
+        materialised.getVertices().get(1).setValue(2);
+        assertNotSame(built, materialised.getCompactGraph());
+        assertEquals(2.0, materialised.getCompactGraph().getVertexValues()[0]);
+        assertSame(changed, graph.getCompactGraph());
+    }
+}
@@ -0,0 +1,27 @@
+package bp.roadnetworkpartitioning;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IndexedHeapTest {
+
+    @Test
+    void poll() {
+        IndexedHeap heap = new IndexedHeap(6);
+        heap.put(3, 5.0);
+        heap.put(1, 2.5);
+        heap.put(4, 7.0);
+        heap.put(0, 1.0);
+        heap.put(4, 0.5);
+        heap.put(0, 9.0);
+        heap.remove(1);
+        assertEquals(3, heap.size());
+        assertFalse(heap.contains(1));
+        assertEquals(0.5, heap.peekKey());
+        assertEquals(4, heap.poll());
+        assertEquals(3, heap.poll());
+        assertEquals(0, heap.poll());
+        assertTrue(heap.isEmpty());
+    }
+}
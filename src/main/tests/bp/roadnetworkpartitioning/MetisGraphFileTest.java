@@ -0,0 +1,73 @@
+package bp.roadnetworkpartitioning;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MetisGraphFileTest {
+
+    @Test
+    void read() throws IOException {
+        File directory = Files.createTempDirectory("metis").toFile();
+        directory.deleteOnExit();
+        File graphFile = new File(directory, "test" + MetisGraphFile.GRAPH_EXTENSION);
+        File coordinatesFile = new File(directory, "test" + MetisGraphFile.COORDINATES_EXTENSION);
+        graphFile.deleteOnExit();
+        coordinatesFile.deleteOnExit();
+        Files.writeString(graphFile.toPath(), "% comment\n4 3 011\n5 2 3 3 2\n% vertex 2\n1 1 3 3 4\n2 1 2 2 4\n\n");
+        Files.writeString(coordinatesFile.toPath(), "0.5 1.5 0\n1 2 0\n3 4 0\n5 6 0\n");
+        CompactGraph graph = MetisGraphFile.read(graphFile);
+        assertEquals(4, graph.getVertexCount());
+        assertEquals(6, graph.getEdgeCount());
+        assertArrayEquals(new int[]{1, 2, 3, 4}, graph.getVertexIds());
+        assertEquals(0.5, graph.getXCoordinates()[0]);
+        assertEquals(6.0, graph.getYCoordinates()[3]);
+        assertArrayEquals(new double[]{1.5, 1, 1.5, 2, 1, 2}, graph.getEdgeLengths());
+        assertEquals(0, graph.getEdgeOffsets()[4] - graph.getEdgeOffsets()[3]);
+
+        CompactGraph chunked = MetisGraphFile.read(graphFile, coordinatesFile, 8);
+        assertArrayEquals(graph.getEdgeTargets(), chunked.getEdgeTargets());
+        assertArrayEquals(graph.getEdgeLengths(), chunked.getEdgeLengths());
+
+        Files.writeString(graphFile.toPath(), "% comment\n4 3 011\n5 2 3 3 2\n% vertex 2\n1 1 3 3 4\n2 1 2 9 4\n\n");
+        assertThrows(IOException.class, () -> MetisGraphFile.read(graphFile, coordinatesFile, 8));
+
+        Files.writeString(graphFile.toPath(), "3 2\n2\n1\n");
+        assertThrows(IOException.class, () -> MetisGraphFile.read(graphFile, null));
+    }
+
+    @Test
+    void write() throws IOException {
+        Graph graph = Graph.generateGraph(4, 3, 2.0);
+        File graphFile = File.createTempFile("grid", MetisGraphFile.GRAPH_EXTENSION);
+        File coordinatesFile = File.createTempFile("grid", MetisGraphFile.COORDINATES_EXTENSION);
+        graphFile.deleteOnExit();
+        coordinatesFile.deleteOnExit();
+        CompactGraph compactGraph = graph.getCompactGraph();
+        MetisGraphFile.write(compactGraph, graphFile, coordinatesFile);
+        CompactGraph read = MetisGraphFile.read(graphFile, coordinatesFile);
+        assertEquals(compactGraph.getVertexCount(), read.getVertexCount());
+        assertArrayEquals(compactGraph.getXCoordinates(), read.getXCoordinates());
+        assertArrayEquals(compactGraph.getNeighbours(), read.getNeighbours());
+        assertArrayEquals(compactGraph.getNeighbourWeights(), read.getNeighbourWeights());
+        assertEquals(compactGraph.getTotalWeight() - sum(compactGraph.getVertexValues()),
+                read.getTotalWeight() - sum(read.getVertexValues()), 1e-9);
+    }
+
+    /**
+     * Sums values.
+     * @param values    the values.
+     * @return  sum of the values.
+     */
+    private static double sum(double[] values) {
+        double sum = 0;
+        for (double value : values) {
+            sum += value;
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,211 @@
+package bp.roadnetworkpartitioning;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.Deflater;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OSMPBFReaderTest {
+
+    @Test
+    void read() throws IOException {
+        File file = File.createTempFile("test", OSMPBFReader.EXTENSION);
+        file.deleteOnExit();
+        writeFile(file, "DenseNodes");
+        CompactGraph graph = new OSMPBFReader().read(file);
+        assertArrayEquals(new int[]{1, 2, 3, 4}, graph.getVertexIds());
+        assertEquals(0.01, graph.getXCoordinates()[1], 1e-12);
+        assertEquals(0.01, graph.getYCoordinates()[3], 1e-12);
+        assertArrayEquals(new int[]{0, 1, 4, 5, 5}, graph.getEdgeOffsets());
+        assertArrayEquals(new int[]{1, 0, 2, 3, 1}, graph.getEdgeTargets());
+        assertArrayEquals(new double[]{600, 600, 600, 3200, 600}, graph.getEdgeCapacities());
+        for (double length : graph.getEdgeLengths()) {
+            assertEquals(1.111951, length, 1e-6);
+        }
+        assertEquals(1.111951, OSMPBFReader.distance(0, 0, 0, 0.01), 1e-6);
+        assertTrue(OSMPBFReader.isPBF(file));
+
+        try (RandomAccessFile corrupted = new RandomAccessFile(file, "rw")) {
+            corrupted.seek(corrupted.length() - 1);
+            corrupted.write(0xFF);
+        }
+        assertThrows(IOException.class, () -> new OSMPBFReader().read(file));
+
+        writeFile(file, "HistoricalInformation");
+        assertThrows(IOException.class, () -> new OSMPBFReader().read(file));
+    }
+
+    /**
+     * Writes OSM PBF file with six nodes (in compressed block) and four ways (in uncompressed block).
+     * @param file      Target file.
+     * @param feature   Feature required by the file besides OSM schema.
+     * @throws IOException  if file cannot be written.
+     */
+    private static void writeFile(File file, String feature) throws IOException {
+        ByteArrayOutputStream header = new ByteArrayOutputStream();
+        bytesField(header, 4, "OsmSchema-V0.6".getBytes(StandardCharsets.UTF_8));
+        bytesField(header, 4, feature.getBytes(StandardCharsets.UTF_8));
+
+        ByteArrayOutputStream dense = new ByteArrayOutputStream();
+        bytesField(dense, 1, packedDeltas(1, 2, 3, 4, 5, 6));
+        bytesField(dense, 8, packedDeltas(0, 0, 0, 100000, 100000, 200000));
+        bytesField(dense, 9, packedDeltas(0, 100000, 200000, 100000, 200000, 100000));
+        ByteArrayOutputStream nodeGroup = new ByteArrayOutputStream();
+        bytesField(nodeGroup, 2, dense.toByteArray());
+        ByteArrayOutputStream nodeBlock = new ByteArrayOutputStream();
+        bytesField(nodeBlock, 1, stringTable(""));
+        bytesField(nodeBlock, 2, nodeGroup.toByteArray());
+        varintField(nodeBlock, 17, 100);
+
+        ByteArrayOutputStream wayGroup = new ByteArrayOutputStream();
+        bytesField(wayGroup, 3, way(10, new long[]{1}, new long[]{2}, 1, 2, 3));
+        bytesField(wayGroup, 3, way(11, new long[]{1, 5, 7}, new long[]{3, 6, 8}, 2, 4));
+        bytesField(wayGroup, 3, way(12, new long[]{1}, new long[]{4}, 3, 5));
+        bytesField(wayGroup, 3, way(13, new long[]{1}, new long[]{2}, 4, 6, 99));
+        ByteArrayOutputStream wayBlock = new ByteArrayOutputStream();
+        bytesField(wayBlock, 1, stringTable("", "highway", "residential", "primary", "footway", "oneway", "yes",
+                "lanes", "2"));
+        bytesField(wayBlock, 2, wayGroup.toByteArray());
+
+        try (DataOutputStream out = new DataOutputStream(new FileOutputStream(file))) {
+            writeBlob(out, "OSMHeader", header.toByteArray(), false);
+            writeBlob(out, "OSMData", nodeBlock.toByteArray(), true);
+            writeBlob(out, "OSMData", wayBlock.toByteArray(), false);
+        }
+    }
+
+    /**
+     * Writes blob with its header.
+     * @param out       Output stream.
+     * @param type      Type of blob.
+     * @param data      Uncompressed data.
+     * @param compress  True if data should be compressed by zlib.
+     * @throws IOException  if blob cannot be written.
+     */
+    private static void writeBlob(DataOutputStream out, String type, byte[] data, boolean compress)
+            throws IOException {
+        ByteArrayOutputStream blob = new ByteArrayOutputStream();
+        if (compress) {
+            Deflater deflater = new Deflater();
+            deflater.setInput(data);
+            deflater.finish();
+            byte[] compressed = new byte[data.length + 64];
+            int length = deflater.deflate(compressed);
+            deflater.end();
+            varintField(blob, 2, data.length);
+            bytesField(blob, 3, Arrays.copyOf(compressed, length));
+        } else {
+            bytesField(blob, 1, data);
+        }
+        ByteArrayOutputStream blobHeader = new ByteArrayOutputStream();
+        bytesField(blobHeader, 1, type.getBytes(StandardCharsets.UTF_8));
+        varintField(blobHeader, 3, blob.size());
+        out.writeInt(blobHeader.size());
+        blobHeader.writeTo(out);
+        blob.writeTo(out);
+    }
+
+    /**
+     * Encodes way.
+     * @param id        ID of way.
+     * @param keys      String indices of tag keys.
+     * @param values    String indices of tag values.
+     * @param refs      IDs of nodes.
+     * @return  encoded way.
+     */
+    private static byte[] way(long id, long[] keys, long[] values, long... refs) {
+        ByteArrayOutputStream way = new ByteArrayOutputStream();
+        varintField(way, 1, id);
+        bytesField(way, 2, packed(keys));
+        bytesField(way, 3, packed(values));
+        bytesField(way, 8, packedDeltas(refs));
+        return way.toByteArray();
+    }
+
+    /**
+     * Encodes string table.
+     * @param strings   Strings of the table.
+     * @return  encoded string table.
+     */
+    private static byte[] stringTable(String... strings) {
+        ByteArrayOutputStream table = new ByteArrayOutputStream();
+        for (String s : strings) {
+            bytesField(table, 1, s.getBytes(StandardCharsets.UTF_8));
+        }
+        return table.toByteArray();
+    }
+
+    /**
+     * Encodes packed unsigned values.
+     * @param values    the values.
+     * @return  encoded values.
+     */
+    private static byte[] packed(long... values) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (long value : values) {
+            varint(out, value);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Encodes packed signed values as zigzag coded differences of consecutive values.
+     * @param values    the values.
+     * @return  encoded values.
+     */
+    private static byte[] packedDeltas(long... values) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long previous = 0;
+        for (long value : values) {
+            long delta = value - previous;
+            varint(out, (delta << 1) ^ (delta >> 63));
+            previous = value;
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Writes length-delimited field.
+     * @param out       Output.
+     * @param field     Number of field.
+     * @param bytes     Value of field.
+     */
+    private static void bytesField(ByteArrayOutputStream out, int field, byte[] bytes) {
+        varint(out, ((long) field << 3) | 2);
+        varint(out, bytes.length);
+        out.writeBytes(bytes);
+    }
+
+    /**
+     * Writes varint field.
+     * @param out       Output.
+     * @param field     Number of field.
+     * @param value     Value of field.
+     */
+    private static void varintField(ByteArrayOutputStream out, int field, long value) {
+        varint(out, (long) field << 3);
+        varint(out, value);
+    }
+
+    /**
+     * Writes varint.
+     * @param out       Output.
+     * @param value     the value.
+     */
+    private static void varint(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+}
@@ -0,0 +1,53 @@
+package bp.roadnetworkpartitioning;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParallelGeoJSONReaderTest {
+
+    @Test
+    void read() throws IOException {
+        File file = File.createTempFile("graph", ".geojson");
+        file.deleteOnExit();
+        try (FileWriter writer = new FileWriter(file)) {
+            writer.write("{\"type\":\"FeatureCollection\",\"features\":[");
+            for (int i = 1; i <= 50; i++) {
+                writer.write((i > 1 ? ",\n" : "") + "{\"type\":\"Feature\",\"properties\":{\"init_node\":" + i
+                        + ",\"term_node\":" + (i % 50 + 1) + ",\"length\":" + i + ",\"note\":\"}]\"},"
+                        + "\"geometry\":{\"type\":\"LineString\",\"coordinates\":[[" + i + ",0],["
+                        + (i % 50 + 1) + ",0]]}}");
+            }
+            writer.write("],\"crs\":{}}");
+        }
+        CompactGraph expected = GeoJSONReader.read(file);
+        CompactGraph graph = ParallelGeoJSONReader.read(file, 100);
+        assertEquals(50, graph.getVertexCount());
+        assertEquals(50, graph.getEdgeCount());
+        assertArrayEquals(expected.getVertexIds(), graph.getVertexIds());
+        assertArrayEquals(expected.getXCoordinates(), graph.getXCoordinates());
+        assertArrayEquals(expected.getEdgeTargets(), graph.getEdgeTargets());
+        assertArrayEquals(expected.getEdgeIds(), graph.getEdgeIds());
+        assertArrayEquals(expected.getEdgeLengths(), graph.getEdgeLengths());
+    }
+
+    @Test
+    void readMalformed() throws IOException {
+        File file = File.createTempFile("graph", ".geojson");
+        file.deleteOnExit();
+        try (FileWriter writer = new FileWriter(file)) {
+            writer.write("{\"type\":\"FeatureCollection\",\"features\":[");
+            for (int i = 1; i <= 50; i++) {
+                writer.write((i > 1 ? ",\n" : "") + "{\"type\":\"Feature\",\"properties\":{\"init_node\":" + i
+                        + ",\"term_node\":" + (i % 50 + 1) + "},\"geometry\":{\"type\":\"LineString\","
+                        + "\"coordinates\":[[" + i + (i == 40 ? " " : ",") + "0],[" + (i % 50 + 1) + ",0]]}}");
+            }
+            writer.write("]}");
+        }
+        assertThrows(IOException.class, () -> ParallelGeoJSONReader.read(file, 100));
+    }
+}
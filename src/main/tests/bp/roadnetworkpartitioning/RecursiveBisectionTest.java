@@ -0,0 +1,22 @@
+package bp.roadnetworkpartitioning;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RecursiveBisectionTest {
+
+    @Test
+    void partition() {
+        CompactGraph compactGraph = Graph.generateGraph(6, 1, 5).getCompactGraph();
+        int[] partOf = RecursiveBisection.partition(compactGraph, 3, (graph, vertices, ratio) -> {
+            int[] sides = new int[vertices.length];
+            int firstSize = (int) Math.round(ratio * vertices.length);
+            for (int i = firstSize; i < sides.length; i++) {
+                sides[i] = 1;
+            }
+            return sides;
+        });
+        assertArrayEquals(new int[]{0, 0, 1, 1, 2, 2}, partOf);
+    }
+}
@@ -0,0 +1,44 @@
+package bp.roadnetworkpartitioning;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TNTPReaderTest {
+
+    @Test
+    void read() throws IOException {
+        File directory = Files.createTempDirectory("tntp").toFile();
+        directory.deleteOnExit();
+        File netFile = new File(directory, "Test" + TNTPReader.NET_SUFFIX);
+        File nodeFile = new File(directory, "Test" + TNTPReader.NODE_SUFFIX);
+        netFile.deleteOnExit();
+        nodeFile.deleteOnExit();
+        Files.writeString(netFile.toPath(), "<NUMBER OF NODES> 3\r\n<NUMBER OF LINKS> 3\r\n<END OF METADATA>\r\n\r\n"
+                + "~ \tInit node \tTerm node \tCapacity \tLength \tFree Flow Time \tB\tPower\t;\r\n"
+                + "\t1\t2\t25900.20064\t6\t6\t0.15\t4\t;\r\n"
+                + "\t2\t3\t23403.47319\t0\t4\t0.15\t4\t;\r\n"
+                + "\t3\t1\t4958.180928\t4.5\t4\t0.15\t4\t;\r\n");
+        Files.writeString(nodeFile.toPath(), "Node\tX\tY\t;\n1\t-96.77\t43.61\t;\n2\t-96.71\t43.6\t;\n");
+        TNTPReader reader = new TNTPReader();
+        CompactGraph graph = reader.read(netFile, nodeFile);
+        assertEquals("3", reader.getMetadata().get("NUMBER OF LINKS"));
+        assertEquals(3, graph.getVertexCount());
+        assertEquals(3, graph.getEdgeCount());
+        assertEquals(-96.71, graph.getXCoordinates()[graph.indexOf(2)]);
+        assertEquals(0.0, graph.getXCoordinates()[graph.indexOf(3)]);
+        assertArrayEquals(new double[]{6, 4, 4.5}, graph.getEdgeLengths());
+        assertArrayEquals(new double[]{25900.20064, 23403.47319, 4958.180928}, graph.getEdgeCapacities());
+        assertEquals(3, TNTPReader.read(nodeFile).getEdgeCount());
+
+        Files.writeString(netFile.toPath(), "~ term_node init_node length capacity free_flow_time ;\n2 1 6 100 3 ;\n");
+        CompactGraph reordered = new TNTPReader(true).read(netFile, null);
+        assertEquals(2, reordered.getVertexIds()[reordered.getEdgeTargets()[0]]);
+        assertArrayEquals(new double[]{3}, reordered.getEdgeLengths());
+        assertArrayEquals(new double[]{100}, reordered.getEdgeCapacities());
+    }
+}